@@ -2,19 +2,23 @@ package action.AdminActions.appointment;
 
 import action.AdminActions.AdminAction;
 import controller.AppointmentControllers.AdminAppointmentControllerImpl;
+import entity.Appointments.Appointment;
 import util.UIUtils;
 
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Provides functionality to view statistical data about appointments.
  * <p>
  * This action retrieves and displays statistics such as the total number of appointments,
  * counts by status (e.g., requested, confirmed, completed, cancelled), and appointment
- * counts by doctor.
+ * counts by doctor, along with the number of active appointments on each of the next seven days.
  * </p>
  */
 public class ViewAppointmentStatisticsAction implements AdminAction {
+    private static final int OUTLOOK_DAYS = 7; // Days covered by the daily outlook
     private final AdminAppointmentControllerImpl appointmentController;
 
     /**
@@ -29,9 +33,9 @@ public class ViewAppointmentStatisticsAction implements AdminAction {
     /**
      * Executes the action to view appointment statistics.
      * <p>
-     * Displays the overall total number of appointments, counts by status, and
-     * appointments categorized by doctor. This information is retrieved from
-     * the appointment controller.
+     * Displays the overall total number of appointments, counts by status,
+     * appointments categorized by doctor, and the daily outlook. This information
+     * is retrieved from the appointment controller.
      * </p>
      */
     @Override
@@ -56,6 +60,29 @@ public class ViewAppointmentStatisticsAction implements AdminAction {
                     System.out.printf("Doctor %s: %d appointments%n", doctorId, e.getValue());
                 });
 
+        displayOutlook();
         UIUtils.pressEnterToContinue();
     }
+
+    /**
+     * Displays the number of appointments that are not cancelled on each of the next
+     * {@value #OUTLOOK_DAYS} days, starting today, using a single date-range query.
+     */
+    private void displayOutlook() {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Integer> countsByDate = new TreeMap<>();
+        for (int i = 0; i < OUTLOOK_DAYS; i++) {
+            countsByDate.put(today.plusDays(i), 0);
+        }
+        for (Appointment appointment :
+                appointmentController.getAppointmentsBetween(today, today.plusDays(OUTLOOK_DAYS - 1))) {
+            if (appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED) {
+                countsByDate.merge(appointment.getDateTime().toLocalDate(), 1, Integer::sum);
+            }
+        }
+
+        System.out.println("\nNext " + OUTLOOK_DAYS + " Days:");
+        countsByDate.forEach((date, count) ->
+                System.out.printf("%s: %d appointments%n", date, count));
+    }
 }
@@ -3,6 +3,9 @@ package action.AdminActions.appointment;
 import action.AdminActions.AdminAction;
 import controller.AppointmentControllers.AdminAppointmentControllerImpl;
 import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentEvent;
+import entity.Appointments.AppointmentPage;
+import util.AppointmentEventBuffer;
 import util.UIUtils;
 
 import java.util.List;
@@ -11,8 +14,13 @@ import java.util.List;
  * Provides functionality to view all current appointments in real time.
  * This action retrieves all appointments from the system and displays their details,
  * including appointment ID, patient ID, doctor ID, date and time, type, and status.
+ * Appointments are fetched and shown one page at a time.
+ *
+ * After the listing, the view keeps following the appointment event stream: each refresh shows
+ * only the changes made since the previous one, instead of reprinting every appointment.
  */
 public class ViewRealTimeAppointmentsAction implements AdminAction {
+    private static final int PAGE_SIZE = 10; // Appointments shown per page
     private final AdminAppointmentControllerImpl appointmentController;
 
     /**
@@ -27,22 +35,81 @@ public class ViewRealTimeAppointmentsAction implements AdminAction {
     /**
      * Executes the action to view real-time updates of all appointments.
      *
-     * Retrieves the list of all appointments and displays their details in a formatted manner.
-     * If no appointments are found, an error message is displayed.
+     * Retrieves appointments page by page and displays their details in a formatted manner,
+     * asking before showing each further page. If no appointments are found, a message is displayed.
+     * The view then shows the changes made since the listing each time the user refreshes,
+     * until the user stops following.
      */
     @Override
     public void execute() {
         UIUtils.displayHeader("Real-time Appointment Updates");
-        List<Appointment> appointments = appointmentController.getAllAppointments();
 
-        if (appointments.isEmpty()) {
-            UIUtils.displayError("No appointments found in the system.");
-            return;
+        // Subscribe before listing, so no change made while paging is missed
+        AppointmentEventBuffer updates = new AppointmentEventBuffer();
+        appointmentController.subscribeToAppointmentEvents(updates);
+        try {
+            AppointmentPage page = appointmentController.getAppointmentsPage(null, PAGE_SIZE);
+
+            if (page.getAppointments().isEmpty()) {
+                UIUtils.displayError("No appointments found in the system.");
+            } else {
+                System.out.println("\nAll Current Appointments:");
+                int pageNumber = 1;
+                while (true) {
+                    System.out.println("\nPage " + pageNumber + ":");
+                    displayAppointmentsDetailed(page.getAppointments());
+                    if (!page.hasNext() || !UIUtils.promptForYesNo("Show the next page?")) {
+                        break;
+                    }
+                    page = appointmentController.getAppointmentsPage(page.getNextCursor(), PAGE_SIZE);
+                    pageNumber++;
+                }
+            }
+
+            followUpdates(updates);
+        } finally {
+            updates.cancel();
         }
+    }
 
-        System.out.println("\nAll Current Appointments:");
-        displayAppointmentsDetailed(appointments);
-        UIUtils.pressEnterToContinue();
+    /**
+     * Shows the appointment changes received since the last refresh, each time the user
+     * presses Enter, until the user enters {@code q}.
+     *
+     * @param updates the buffer collecting appointment events
+     */
+    private void followUpdates(AppointmentEventBuffer updates) {
+        while (!UIUtils.promptForString("\nPress Enter to show new changes, or q to stop").equalsIgnoreCase("q")) {
+            List<AppointmentEvent> events = updates.drain();
+            if (events.isEmpty()) {
+                System.out.println("No changes since the last refresh.");
+                continue;
+            }
+            displayEvents(events);
+        }
+    }
+
+    /**
+     * Displays one line per appointment change.
+     *
+     * @param events the changes to display, in the order they were made
+     */
+    private void displayEvents(List<AppointmentEvent> events) {
+        for (AppointmentEvent event : events) {
+            String detail = switch (event.getType()) {
+                case CREATED -> "booked for " + UIUtils.formatDateTime(event.getDateTime());
+                case RESCHEDULED -> "moved from " + UIUtils.formatDateTime(event.getPreviousDateTime()) +
+                        " to " + UIUtils.formatDateTime(event.getDateTime());
+                case STATUS_CHANGED -> "status " + event.getPreviousStatus() + " -> " + event.getStatus();
+                case CANCELLED -> "cancelled (" + UIUtils.formatDateTime(event.getDateTime()) + ")";
+            };
+            System.out.printf("[%s] %s (patient %s, doctor %s): %s%n",
+                    event.getType(),
+                    event.getAppointmentId(),
+                    event.getPatientId(),
+                    event.getDoctorId(),
+                    detail);
+        }
     }
 
     /**
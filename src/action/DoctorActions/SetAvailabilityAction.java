@@ -2,20 +2,26 @@ package action.DoctorActions;
 
 import controller.AppointmentControllers.DoctorAppointmentControllerImpl;
 import controller.interfaces.DoctorAppointmentController;
+import entity.Appointments.AvailabilityTemplate;
 import entity.users.User;
 import util.UIUtils;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents an action for managing a doctor's availability settings within the system.
  * 
  * This class allows doctors to configure their availability by specifying time slots when they
- * are available for appointments. It validates the input to ensure slots are in the correct format
- * and are not set in the past.
+ * are available for appointments, either one slot at a time or as a recurring weekly rule. It validates
+ * the input to ensure slots are in the correct format and are not set in the past.
  *
  * The class interacts with the {@link DoctorAppointmentController} to persist availability settings
  * and uses {@link UIUtils} for user interaction in the console-based UI.
@@ -54,6 +60,14 @@ public class SetAvailabilityAction implements DoctorAction {
     @Override
     public void execute(User doctor) {
         UIUtils.displayHeader("Set Availability");
+        System.out.println("1. Add individual slots");
+        System.out.println("2. Add a recurring weekly rule");
+        if (UIUtils.promptForInt("Enter your choice", 1, 2) == 2) {
+            addRecurringRule(doctor);
+            UIUtils.pressEnterToContinue();
+            return;
+        }
+
         List<LocalDateTime> slots = new ArrayList<>();
 
         System.out.println("\nEnter time slots for availability:");
@@ -99,4 +113,62 @@ public class SetAvailabilityAction implements DoctorAction {
          // Pause to allow the user to review the output
         UIUtils.pressEnterToContinue();
     }
+
+    /**
+     * Prompts the doctor for a recurring weekly availability rule and saves it.
+     * Slots are generated from the rule when patients view or book them, so a long-running
+     * rule does not need to be entered slot by slot.
+     *
+     * @param doctor The {@link User} object representing the doctor setting their availability.
+     */
+    private void addRecurringRule(User doctor) {
+        System.out.println("\nEnter days as comma-separated names (e.g. MON,WED,FRI).");
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        try {
+            for (String name : UIUtils.promptForString("Days").split(",")) {
+                days.add(parseDay(name.trim()));
+            }
+        } catch (IllegalArgumentException e) {
+            UIUtils.displayError("Invalid day. Use names such as MON or MONDAY.");
+            return;
+        }
+
+        try {
+            DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm");
+            LocalTime startTime = LocalTime.parse(UIUtils.promptForString("Start time (HH:mm)"), timeFormat);
+            LocalTime endTime = LocalTime.parse(UIUtils.promptForString("End time (HH:mm)"), timeFormat);
+            int interval = UIUtils.promptForInt("Slot length in minutes",
+                    AvailabilityTemplate.MIN_INTERVAL_MINUTES, AvailabilityTemplate.MAX_INTERVAL_MINUTES);
+            LocalDate untilDate = LocalDate.parse(UIUtils.promptForString("Repeat until (yyyy-MM-dd)"));
+
+            AvailabilityTemplate template = new AvailabilityTemplate(doctor.getUserId(), days,
+                    startTime, endTime, interval, LocalDate.now(), untilDate);
+            if (appointmentController.addAvailabilityTemplate(template)) {
+                UIUtils.displaySuccess("Recurring availability added successfully!");
+            } else {
+                UIUtils.displayError("Failed to add recurring availability.");
+            }
+        } catch (IllegalArgumentException e) {
+            UIUtils.displayError(e.getMessage());
+        } catch (Exception e) {
+            UIUtils.displayError("Invalid format. Use HH:mm for times and yyyy-MM-dd for dates.");
+        }
+    }
+
+    /**
+     * Parses a day of the week from its full or three-letter name.
+     *
+     * @param name the day name, case-insensitive
+     * @return the matching {@link DayOfWeek}
+     * @throws IllegalArgumentException if the name does not match a day
+     */
+    private static DayOfWeek parseDay(String name) {
+        String upper = name.toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(upper) || day.name().startsWith(upper) && upper.length() == 3) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + name);
+    }
 }
@@ -6,6 +6,7 @@ import entity.Appointments.Appointment;
 import entity.users.User;
 import util.UIUtils;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -13,12 +14,13 @@ import java.util.List;
  * 
  * This class allows doctors to view their upcoming appointments, meetings, and other commitments.
  * Appointments are grouped by their status (e.g., Confirmed, Completed, or Cancelled) to provide
- * an organized and detailed view of the schedule.
+ * an organized and detailed view of the schedule. The coming week is shown first, day by day.
  *
  * The class interacts with the {@link DoctorAppointmentController} to retrieve appointment details
  * and uses {@link UIUtils} for user interaction in the console-based UI.
  */
 public class ViewPersonalScheduleAction implements DoctorAction {
+    private static final int WEEK_DAYS = 7; // Days shown in the week overview
 
     /**
      * Controller for managing doctor appointments.
@@ -40,6 +42,7 @@ public class ViewPersonalScheduleAction implements DoctorAction {
      * <ul>
      *   <li>Retrieving the list of appointments for the doctor.</li>
      *   <li>Checking if there are any appointments scheduled.</li>
+     *   <li>Displaying the active appointments of the coming week, day by day.</li>
      *   <li>Grouping the appointments by their status (e.g., Confirmed, Completed).</li>
      *   <li>Displaying the grouped appointments in an organized format.</li>
      * </ul>
@@ -60,6 +63,8 @@ public class ViewPersonalScheduleAction implements DoctorAction {
             return;
         }
 
+        displayWeek(doctor.getUserId());
+
         // Group appointments by status
         System.out.println("\nYour Current Schedule:");
         for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
@@ -75,6 +80,36 @@ public class ViewPersonalScheduleAction implements DoctorAction {
         UIUtils.pressEnterToContinue();
     }
 
+    /**
+     * Displays the doctor's appointments that are not cancelled for each day of the coming
+     * week, starting today. The week is fetched with a single date-range query.
+     *
+     * @param doctorId The ID of the doctor.
+     */
+    private void displayWeek(String doctorId) {
+        LocalDate today = LocalDate.now();
+        List<Appointment> week = appointmentController.getDoctorAppointmentsBetween(
+                doctorId, today, today.plusDays(WEEK_DAYS - 1));
+
+        System.out.println("\nThis Week:");
+        for (int i = 0; i < WEEK_DAYS; i++) {
+            LocalDate date = today.plusDays(i);
+            List<Appointment> day = week.stream()
+                    .filter(a -> a.getDateTime().toLocalDate().equals(date))
+                    .filter(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED)
+                    .toList();
+            System.out.printf("%s %s: %s%n", date.getDayOfWeek(), date,
+                    day.isEmpty() ? "no appointments" : day.size() + " appointment(s)");
+            for (Appointment appointment : day) {
+                System.out.printf("  %s  %s  %s (%s)%n",
+                        appointment.getDateTime().toLocalTime(),
+                        appointment.getPatientId(),
+                        appointment.getType(),
+                        appointment.getStatus());
+            }
+        }
+    }
+
       /**
      * Displays the list of appointments in a formatted structure.
      * 
@@ -5,6 +5,7 @@ import entity.Appointments.AppointmentSlot;
 import entity.users.User;
 import util.UIUtils;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,7 +15,7 @@ import java.util.List;
  * choosing an available time slot, and specifying the type of appointment. It
  * interacts with the {@link PatientAppointmentController} to fetch available slots
  * and process the scheduling request, and uses {@link UIUtils} for user interaction
- * in the console-based UI.
+ * in the console-based UI. If no slot fits, the patient can join the doctor's waitlist.
  */
 public class ScheduleAppointmentAction implements PatientAction {
 
@@ -45,7 +46,7 @@ public class ScheduleAppointmentAction implements PatientAction {
      * </ul>
      *
      * If no slots are available or the scheduling process fails, appropriate error messages
-     * are displayed.
+     * are displayed and the patient is offered a place on the doctor's waitlist.
      *
      * @param patient The {@link User} object representing the patient scheduling the appointment.
      */
@@ -60,6 +61,7 @@ public class ScheduleAppointmentAction implements PatientAction {
         List<AppointmentSlot> availableSlots = appointmentController.getAvailableSlots(doctorId);
         if (availableSlots.isEmpty()) {
             UIUtils.displayError("No available slots found for this doctor.");
+            offerWaitlist(patient, doctorId);
             return;
         }
 
@@ -74,29 +76,67 @@ public class ScheduleAppointmentAction implements PatientAction {
         AppointmentSlot selectedSlot = availableSlots.get(slotChoice - 1);
 
         // Prompt the patient to select an appointment type
+        String type = promptForType();
+
+        // Process the appointment scheduling request
+        boolean success = appointmentController.scheduleAppointment(patient.getUserId(), doctorId, selectedSlot.getStartTime(), type);
+
+         // Display the result of the operation
+        if (success) {
+            UIUtils.displaySuccess("Appointment scheduled successfully!");
+        } else {
+            UIUtils.displayError("Failed to schedule appointment. Please try again.");
+            offerWaitlist(patient, doctorId);
+        }
+         // Pause for user review
+        UIUtils.pressEnterToContinue();
+    }
+
+    /**
+     * Prompts the patient to select the type of appointment.
+     *
+     * @return the display name of the selected appointment type
+     */
+    private String promptForType() {
         System.out.println("\nAppointment Types:");
         System.out.println("1. Consultation");
         System.out.println("2. X-ray");
         System.out.println("3. Blood Test");
 
         int typeChoice = UIUtils.promptForInt("Select appointment type", 1, 3);
-        String type = switch (typeChoice) {
+        return switch (typeChoice) {
             case 1 -> "Consultation";
             case 2 -> "X-ray";
             case 3 -> "Blood Test";
             default -> throw new IllegalStateException("Unexpected value: " + typeChoice);
         };
+    }
 
-        // Process the appointment scheduling request
-        boolean success = appointmentController.scheduleAppointment(patient.getUserId(), doctorId, selectedSlot.getStartTime(), type);
+    /**
+     * Offers to add the patient to the doctor's waitlist for a chosen day. The patient is
+     * booked automatically when a slot on that day becomes available.
+     *
+     * @param patient  The {@link User} object representing the patient.
+     * @param doctorId The ID of the doctor.
+     */
+    private void offerWaitlist(User patient, String doctorId) {
+        if (!UIUtils.promptForYesNo("Join the waitlist for this doctor?")) {
+            return;
+        }
 
-         // Display the result of the operation
-        if (success) {
-            UIUtils.displaySuccess("Appointment scheduled successfully!");
+        LocalDate date;
+        try {
+            date = LocalDate.parse(UIUtils.promptForString("Preferred date (yyyy-MM-dd)"));
+        } catch (Exception e) {
+            UIUtils.displayError("Invalid date format. Please use yyyy-MM-dd.");
+            return;
+        }
+
+        String type = promptForType();
+        if (appointmentController.joinWaitlist(patient.getUserId(), doctorId, date, type)) {
+            UIUtils.displaySuccess("You have been added to the waitlist.");
         } else {
-            UIUtils.displayError("Failed to schedule appointment. Please try again.");
+            UIUtils.displayError("Could not join the waitlist. You may already be waiting for this day.");
         }
-         // Pause for user review
-        UIUtils.pressEnterToContinue();
     }
 }
@@ -5,18 +5,21 @@ import entity.Appointments.AppointmentSlot;
 import entity.users.User;
 import util.UIUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Represents an action to retrieve and display available appointment slots for a doctor or service.
  * 
  * This class allows patients to view all available appointment slots for a specific doctor
- * or service, enabling them to make informed decisions when scheduling or rescheduling
+ * or service, or the next available slots across all doctors, enabling them to make informed decisions when scheduling or rescheduling
  * appointments. It interacts with the {@link PatientAppointmentController} to fetch the slots
  * and uses {@link UIUtils} for user interaction in the console-based UI.
  */
 public class ViewAvailableSlotsAction implements PatientAction {
 
+    private static final int EARLIEST_SLOT_COUNT = 10; // Slots listed when searching across all doctors
+
      /**
      * Controller for managing patient appointments.
      */
@@ -33,10 +36,12 @@ public class ViewAvailableSlotsAction implements PatientAction {
 
     
     /**
-     * Executes the action to display available appointment slots for a specified doctor.
+     * Executes the action to display available appointment slots for a specified doctor,
+     * or the next available slots across all doctors.
      * 
      * The steps include:
      * <ul>
+     *   <li>Asking whether to search one doctor or all doctors.</li>
      *   <li>Prompting the patient to enter the doctor's ID.</li>
      *   <li>Retrieving the available appointment slots for the specified doctor.</li>
      *   <li>Displaying the slots in a formatted list for the patient to review.</li>
@@ -49,6 +54,13 @@ public class ViewAvailableSlotsAction implements PatientAction {
     @Override
     public void execute(User patient) {
         UIUtils.displayHeader("Available Appointment Slots");
+        System.out.println("1. Slots for a specific doctor");
+        System.out.println("2. Next available slots with any doctor");
+        if (UIUtils.promptForInt("Enter your choice", 1, 2) == 2) {
+            displayEarliestSlots();
+            UIUtils.pressEnterToContinue();
+            return;
+        }
 
         // Prompt for the doctor ID
         String doctorId = UIUtils.promptForString("Enter Doctor ID");
@@ -69,4 +81,25 @@ public class ViewAvailableSlotsAction implements PatientAction {
         // Pause for user review
         UIUtils.pressEnterToContinue();
     }
+
+    /**
+     * Displays the earliest available slots across all doctors, optionally limited to a number of days ahead.
+     */
+    private void displayEarliestSlots() {
+        int days = UIUtils.promptForInt("Search how many days ahead? (0 for no limit)", 0, 365);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = days == 0 ? null : now.plusDays(days);
+
+        List<AppointmentSlot> slots = appointmentController.getEarliestAvailableSlots(EARLIEST_SLOT_COUNT, now, before);
+        if (slots.isEmpty()) {
+            UIUtils.displayError("No available slots found.");
+            return;
+        }
+
+        System.out.println("\nNext Available Slots:");
+        for (int i = 0; i < slots.size(); i++) {
+            System.out.printf("%d. %s with Doctor %s%n", i + 1,
+                    UIUtils.formatDateTime(slots.get(i).getStartTime()), slots.get(i).getDoctorId());
+        }
+    }
 }
@@ -2,6 +2,7 @@ package action.PharmacistActions;
 
 import entity.users.User;
 import entity.Medications.ReplenishmentRequest;
+import util.IdGenerator;
 import util.InventoryManager;
 
 import java.util.Scanner;
@@ -53,7 +54,15 @@ public class SubmitReplenishmentRequestAction implements PharmacistAction {
         int quantity = scanner.nextInt();
 
         // Create and submit the replenishment request
-        ReplenishmentRequest request = new ReplenishmentRequest(medicationName, quantity, pharmacist.getUserId());
+        String requestId;
+        try {
+            requestId = IdGenerator.getInstance().nextId("REQ");
+        } catch (IllegalStateException e) {
+            System.out.println("Replenishment request could not be submitted: " + e.getMessage());
+            return;
+        }
+        ReplenishmentRequest request = new ReplenishmentRequest(requestId,
+                medicationName, quantity, pharmacist.getUserId());
         inventoryManager.addReplenishmentRequest(request);
 
         // Confirm the submission
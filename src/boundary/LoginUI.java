@@ -4,6 +4,7 @@ package boundary;
 import controller.Login.LoginController;
 import controller.Login.LoginResult;
 import entity.users.User;
+import util.Checkpoint;
 import util.UIUtils;
 /**
  * Represents the login interface for the Hospital Management System.
@@ -35,6 +36,7 @@ public class LoginUI {
             int choice = UIUtils.promptForInt("Choose an option", 1, 2);
 
             if (choice == 2) {
+                Checkpoint.run();
                 System.out.println("Thank you for using HMS. Goodbye!");
                 System.exit(0);
             }
@@ -7,11 +7,17 @@ package controller.AppointmentControllers;
 
 import controller.interfaces.AdminAppointmentController;
 import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentCursor;
+import entity.Appointments.AppointmentEvent;
+import entity.Appointments.AppointmentPage;
 import entity.Appointments.AppointmentSlot;
 import util.AppointmentManager;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Flow;
 
 /**
  * The {@code AdminAppointmentControllerImpl} class provides concrete implementations
@@ -71,6 +77,39 @@ public class AdminAppointmentControllerImpl implements AdminAppointmentControlle
         return appointmentManager.getAllAppointments();
     }
 
+    /**
+     * Retrieves one page of all appointments in chronological order.
+     *
+     * @param after    the cursor returned with the previous page, or {@code null} for the first page.
+     * @param pageSize the maximum number of appointments on the page.
+     * @return the page of appointments.
+     */
+    @Override
+    public AppointmentPage getAppointmentsPage(AppointmentCursor after, int pageSize) {
+        return appointmentManager.getAppointmentsPage(after, pageSize);
+    }
+
+    /**
+     * Iterates over all appointments in chronological order, one page at a time.
+     *
+     * @param pageSize the number of appointments fetched at a time.
+     * @return an iterator over all appointments.
+     */
+    @Override
+    public Iterator<Appointment> iterateAppointments(int pageSize) {
+        return appointmentManager.iterateAppointments(pageSize);
+    }
+
+    /**
+     * Subscribes to appointment changes made from now on.
+     *
+     * @param subscriber the subscriber to receive the events.
+     */
+    @Override
+    public void subscribeToAppointmentEvents(Flow.Subscriber<? super AppointmentEvent> subscriber) {
+        appointmentManager.subscribe(subscriber);
+    }
+
     /**
      * Retrieves appointments filtered by their status.
      *
@@ -92,6 +131,18 @@ public class AdminAppointmentControllerImpl implements AdminAppointmentControlle
         return appointmentManager.getAppointmentsByDate(LocalDateTime.now().toLocalDate());
     }
 
+    /**
+     * Retrieves the appointments scheduled between two dates, inclusive.
+     *
+     * @param from the first date of the range.
+     * @param to   the last date of the range.
+     * @return a list of the appointments in the range.
+     */
+    @Override
+    public List<Appointment> getAppointmentsBetween(LocalDate from, LocalDate to) {
+        return appointmentManager.getAppointmentsBetween(from, to);
+    }
+
     /**
      * Retrieves statistics about appointments in the system.
      * The statistics include counts of appointments categorized by their statuses.
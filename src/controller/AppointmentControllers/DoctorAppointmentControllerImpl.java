@@ -8,7 +8,9 @@ package controller.AppointmentControllers;
 import controller.interfaces.DoctorAppointmentController;
 import entity.Appointments.Appointment;
 import entity.Appointments.AppointmentSlot;
+import entity.Appointments.AvailabilityTemplate;
 import util.AppointmentManager;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -95,6 +97,19 @@ public class DoctorAppointmentControllerImpl implements DoctorAppointmentControl
         return appointmentManager.getDoctorUpcomingAppointments(doctorId);
     }
 
+    /**
+     * Retrieves the appointments of a doctor scheduled between two dates, inclusive.
+     *
+     * @param doctorId the unique identifier of the doctor.
+     * @param from     the first date of the range.
+     * @param to       the last date of the range.
+     * @return a list of the doctor's appointments in the range.
+     */
+    @Override
+    public List<Appointment> getDoctorAppointmentsBetween(String doctorId, LocalDate from, LocalDate to) {
+        return appointmentManager.getDoctorAppointmentsBetween(doctorId, from, to);
+    }
+
     /**
      * Adds new appointment slots for a specific doctor.
      *
@@ -107,6 +122,17 @@ public class DoctorAppointmentControllerImpl implements DoctorAppointmentControl
         return appointmentManager.addDoctorSlots(doctorId, slots);
     }
 
+    /**
+     * Adds a recurring availability rule for a doctor.
+     *
+     * @param template the {@link AvailabilityTemplate} describing the recurring slots.
+     * @return {@code true} if the rule was successfully added, {@code false} otherwise.
+     */
+    @Override
+    public boolean addAvailabilityTemplate(AvailabilityTemplate template) {
+        return appointmentManager.addAvailabilityTemplate(template);
+    }
+
     /**
      * Handles an appointment request by either accepting or rejecting it.
      *
@@ -8,7 +8,9 @@ package controller.AppointmentControllers;
 import controller.interfaces.PatientAppointmentController;
 import entity.Appointments.Appointment;
 import entity.Appointments.AppointmentSlot;
+import entity.Appointments.BookingRequest;
 import util.AppointmentManager;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -74,6 +76,17 @@ public class PatientAppointmentControllerImpl implements PatientAppointmentContr
         return appointmentManager.scheduleAppointment(patientId, doctorId, dateTime, type);
     }
 
+    /**
+     * Schedules a batch of appointments in a single operation.
+     *
+     * @param requests the bookings to make.
+     * @return a list of per-request results, {@code true} for each appointment that was scheduled.
+     */
+    @Override
+    public List<Boolean> scheduleAppointments(List<BookingRequest> requests) {
+        return appointmentManager.scheduleAppointments(requests);
+    }
+
     /**
      * Cancels an appointment based on its unique identifier.
      *
@@ -130,6 +143,33 @@ public class PatientAppointmentControllerImpl implements PatientAppointmentContr
         return appointmentManager.getAvailableSlotsForRescheduling(appointmentId);
     }
 
+    /**
+     * Retrieves the earliest available slots across all doctors.
+     *
+     * @param count the maximum number of slots to return.
+     * @param after the exclusive start of the time window, or {@code null} for now.
+     * @param before the exclusive end of the time window, or {@code null} for no limit.
+     * @return a list of available slots ordered by start time.
+     */
+    @Override
+    public List<AppointmentSlot> getEarliestAvailableSlots(int count, LocalDateTime after, LocalDateTime before) {
+        return appointmentManager.getEarliestAvailableSlots(count, after, before);
+    }
+
+    /**
+     * Adds a patient to a doctor's waitlist for a day.
+     *
+     * @param patientId the unique identifier of the patient.
+     * @param doctorId the unique identifier of the doctor.
+     * @param date the day the patient wants an appointment on.
+     * @param type the type of appointment to book.
+     * @return {@code true} if the patient joined the waitlist, {@code false} otherwise.
+     */
+    @Override
+    public boolean joinWaitlist(String patientId, String doctorId, LocalDate date, String type) {
+        return appointmentManager.joinWaitlist(patientId, doctorId, date, type);
+    }
+
     /**
      * Updates the status of a specific appointment.
      *
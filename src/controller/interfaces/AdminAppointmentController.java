@@ -2,9 +2,15 @@
 package controller.interfaces;
 
 import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentCursor;
+import entity.Appointments.AppointmentEvent;
+import entity.Appointments.AppointmentPage;
 
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Flow;
 
 /**
  * Interface for managing appointment-related operations for administrators.
@@ -12,7 +18,8 @@ import java.util.Map;
  * This interface extends {@link AppointmentController} and provides additional
  * methods specific to administrative tasks, such as:
  * <ul>
- *   <li>Viewing all appointments.</li>
+ *   <li>Viewing all appointments, in full or page by page.</li>
+ *   <li>Following appointment changes as they happen.</li>
  *   <li>Filtering appointments by status.</li>
  *   <li>Retrieving today's appointments.</li>
  *   <li>Generating appointment statistics.</li>
@@ -25,6 +32,27 @@ public interface AdminAppointmentController extends AppointmentController {
      * @return A list of all {@link Appointment} objects.
      */
     List<Appointment> getAllAppointments();
+    /**
+     * Retrieves one page of all appointments in chronological order.
+     *
+     * @param after    The {@link AppointmentCursor} returned with the previous page, or {@code null} for the first page.
+     * @param pageSize The maximum number of appointments on the page.
+     * @return An {@link AppointmentPage} holding the appointments and the cursor of the next page.
+     */
+    AppointmentPage getAppointmentsPage(AppointmentCursor after, int pageSize);
+    /**
+     * Iterates over all appointments in chronological order without loading them into one list.
+     *
+     * @param pageSize The number of appointments fetched at a time.
+     * @return An {@link Iterator} over all {@link Appointment} objects.
+     */
+    Iterator<Appointment> iterateAppointments(int pageSize);
+    /**
+     * Subscribes to appointment changes made from now on.
+     *
+     * @param subscriber The subscriber to receive an {@link AppointmentEvent} for each change.
+     */
+    void subscribeToAppointmentEvents(Flow.Subscriber<? super AppointmentEvent> subscriber);
     /**
      * Retrieves appointments filtered by a specific status.
      *
@@ -38,6 +66,14 @@ public interface AdminAppointmentController extends AppointmentController {
      * @return A list of {@link Appointment} objects for today's date.
      */
     List<Appointment> getTodaysAppointments();
+    /**
+     * Retrieves the appointments scheduled between two dates, inclusive.
+     *
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return A list of {@link Appointment} objects in chronological order.
+     */
+    List<Appointment> getAppointmentsBetween(LocalDate from, LocalDate to);
     /**
      * Generates statistics about appointments in the system.
      *
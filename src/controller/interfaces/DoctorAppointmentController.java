@@ -2,6 +2,8 @@
 package controller.interfaces;
 
 import entity.Appointments.Appointment;
+import entity.Appointments.AvailabilityTemplate;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -47,6 +49,16 @@ public interface DoctorAppointmentController extends AppointmentController {
      */
     List<Appointment> getDoctorUpcomingAppointments(String doctorId);
 
+    /**
+     * Retrieves the appointments of a doctor scheduled between two dates, inclusive.
+     *
+     * @param doctorId The unique identifier of the doctor.
+     * @param from     The first date of the range.
+     * @param to       The last date of the range.
+     * @return A list of {@link Appointment} objects in chronological order.
+     */
+    List<Appointment> getDoctorAppointmentsBetween(String doctorId, LocalDate from, LocalDate to);
+
     /**
      * Adds new time slots to a doctor's availability for appointments.
      *
@@ -56,6 +68,14 @@ public interface DoctorAppointmentController extends AppointmentController {
      */
     boolean addDoctorSlots(String doctorId, List<LocalDateTime> slots);
 
+    /**
+     * Adds a recurring availability rule for a doctor, such as every Monday from 09:00 to 12:00.
+     *
+     * @param template The {@link AvailabilityTemplate} describing the recurring slots.
+     * @return {@code true} if the rule was successfully added, {@code false} otherwise.
+     */
+    boolean addAvailabilityTemplate(AvailabilityTemplate template);
+
     /**
      * Handles an appointment request by accepting or declining it.
      *
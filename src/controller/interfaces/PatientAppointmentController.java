@@ -3,6 +3,8 @@ package controller.interfaces;
 
 import entity.Appointments.Appointment;
 import entity.Appointments.AppointmentSlot;
+import entity.Appointments.BookingRequest;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,10 +14,12 @@ import java.util.List;
  * This interface extends {@link AppointmentController} and provides additional methods tailored to
  * patient needs, such as:
  * <ul>
- *   <li>Scheduling new appointments.</li>
+ *   <li>Scheduling new appointments, individually or in batches.</li>
  *   <li>Canceling existing appointments.</li>
  *   <li>Rescheduling appointments.</li>
  *   <li>Retrieving patient-specific appointment details.</li>
+ *   <li>Finding the next available slots across all doctors.</li>
+ *   <li>Joining a doctor's waitlist when no slot fits.</li>
  * </ul>
  */
 public interface PatientAppointmentController extends AppointmentController {
@@ -31,6 +35,15 @@ public interface PatientAppointmentController extends AppointmentController {
      */
     boolean scheduleAppointment(String patientId, String doctorId, LocalDateTime dateTime, String type);
 
+    /**
+     * Schedules a batch of appointments, persisting all successful bookings together.
+     *
+     * @param requests The {@link BookingRequest} objects describing the bookings to make.
+     * @return A list with one result per request, in the same order: {@code true} if that
+     *         appointment was scheduled, {@code false} otherwise.
+     */
+    List<Boolean> scheduleAppointments(List<BookingRequest> requests);
+
     /**
      * Cancels an existing appointment for a patient.
      *
@@ -73,4 +86,26 @@ public interface PatientAppointmentController extends AppointmentController {
      * @return A list of {@link AppointmentSlot} objects representing available slots for rescheduling.
      */
     List<AppointmentSlot> getAvailableSlotsForRescheduling(String appointmentId);
+
+    /**
+     * Retrieves the earliest available slots across all doctors.
+     *
+     * @param count  The maximum number of slots to return.
+     * @param after  The exclusive start of the time window, or {@code null} for now.
+     * @param before The exclusive end of the time window, or {@code null} for no limit.
+     * @return A list of {@link AppointmentSlot} objects ordered by start time.
+     */
+    List<AppointmentSlot> getEarliestAvailableSlots(int count, LocalDateTime after, LocalDateTime before);
+
+    /**
+     * Adds a patient to a doctor's waitlist for a day. The patient is booked automatically
+     * when a suitable slot on that day becomes available.
+     *
+     * @param patientId The unique identifier of the patient.
+     * @param doctorId  The unique identifier of the doctor.
+     * @param date      The day the patient wants an appointment on.
+     * @param type      The type of appointment to book.
+     * @return {@code true} if the patient joined the waitlist, {@code false} otherwise.
+     */
+    boolean joinWaitlist(String patientId, String doctorId, LocalDate date, String type);
 }
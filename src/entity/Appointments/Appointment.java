@@ -115,6 +115,8 @@ public class Appointment {
 
     /**
      * Sets the date and time of the appointment.
+     * Appointments owned by {@code AppointmentManager} should be rescheduled through the
+     * manager so that its indexes stay consistent.
      *
      * @param dateTime the new date and time for the appointment
      */
@@ -124,6 +126,8 @@ public class Appointment {
 
     /**
      * Sets the status of the appointment.
+     * Appointments owned by {@code AppointmentManager} should be updated through the
+     * manager so that its indexes stay consistent.
      *
      * @param status the new status of the appointment
      */
@@ -0,0 +1,66 @@
+package entity.Appointments;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a position in the chronological list of appointments.
+ * A cursor names the last appointment a caller has seen, by date and time and by ID,
+ * so the next page starts right after it even if appointments are added in the meantime.
+ */
+public class AppointmentCursor {
+
+    private final LocalDateTime dateTime; // Date and time of the last appointment seen
+    private final String appointmentId;   // ID of the last appointment seen, breaking ties on date and time
+
+    /**
+     * Constructs a new AppointmentCursor instance.
+     *
+     * @param dateTime      the date and time of the last appointment seen
+     * @param appointmentId the ID of the last appointment seen
+     */
+    public AppointmentCursor(LocalDateTime dateTime, String appointmentId) {
+        this.dateTime = dateTime;
+        this.appointmentId = appointmentId;
+    }
+
+    /**
+     * Creates a cursor positioned at the given appointment.
+     *
+     * @param appointment the last appointment seen
+     * @return a cursor pointing just past the appointment
+     */
+    public static AppointmentCursor after(Appointment appointment) {
+        return new AppointmentCursor(appointment.getDateTime(), appointment.getAppointmentId());
+    }
+
+    /**
+     * Gets the date and time of the last appointment seen.
+     *
+     * @return the date and time
+     */
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    /**
+     * Gets the ID of the last appointment seen.
+     *
+     * @return the appointment ID
+     */
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * Returns a string representation of the cursor.
+     *
+     * @return a string describing the cursor
+     */
+    @Override
+    public String toString() {
+        return "AppointmentCursor{" +
+                "dateTime=" + dateTime +
+                ", appointmentId='" + appointmentId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,163 @@
+package entity.Appointments;
+
+import java.time.LocalDateTime;
+
+/**
+ * Describes a single change to an appointment, as published to live subscribers.
+ *
+ * The event copies the appointment's fields at the time of the change, so it stays accurate
+ * even if the appointment changes again later. Sequence numbers increase with every event,
+ * which lets a subscriber notice when it has missed some.
+ */
+public class AppointmentEvent {
+
+    /**
+     * The kinds of change an event can describe.
+     */
+    public enum Type {
+        CREATED,        // A new appointment was booked
+        STATUS_CHANGED, // The status changed, other than to cancelled
+        RESCHEDULED,    // The appointment moved to a new date and time
+        CANCELLED       // The appointment was cancelled
+    }
+
+    private final long sequence;                                // Position of the event in the stream
+    private final Type type;                                    // Kind of change
+    private final String appointmentId;                         // ID of the changed appointment
+    private final String patientId;                             // ID of the patient
+    private final String doctorId;                              // ID of the doctor
+    private final LocalDateTime dateTime;                       // Date and time after the change
+    private final Appointment.AppointmentStatus status;         // Status after the change
+    private final LocalDateTime previousDateTime;               // Date and time before a reschedule, otherwise null
+    private final Appointment.AppointmentStatus previousStatus; // Status before the change, or null for a new appointment
+    private final LocalDateTime occurredAt;                     // When the change was made
+
+    /**
+     * Constructs a new AppointmentEvent instance from the current state of an appointment.
+     *
+     * @param sequence         the position of the event in the stream
+     * @param type             the kind of change
+     * @param appointment      the appointment after the change
+     * @param previousDateTime the date and time before a reschedule, or {@code null}
+     * @param previousStatus   the status before the change, or {@code null} for a new appointment
+     */
+    public AppointmentEvent(long sequence, Type type, Appointment appointment,
+                            LocalDateTime previousDateTime, Appointment.AppointmentStatus previousStatus) {
+        this.sequence = sequence;
+        this.type = type;
+        this.appointmentId = appointment.getAppointmentId();
+        this.patientId = appointment.getPatientId();
+        this.doctorId = appointment.getDoctorId();
+        this.dateTime = appointment.getDateTime();
+        this.status = appointment.getStatus();
+        this.previousDateTime = previousDateTime;
+        this.previousStatus = previousStatus;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    /**
+     * Gets the position of the event in the stream.
+     *
+     * @return the sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the changed appointment.
+     *
+     * @return the appointment ID
+     */
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * Gets the ID of the patient.
+     *
+     * @return the patient ID
+     */
+    public String getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Gets the ID of the doctor.
+     *
+     * @return the doctor ID
+     */
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Gets the date and time of the appointment after the change.
+     *
+     * @return the date and time
+     */
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    /**
+     * Gets the status of the appointment after the change.
+     *
+     * @return the status
+     */
+    public Appointment.AppointmentStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the date and time of the appointment before it was rescheduled.
+     *
+     * @return the previous date and time, or {@code null} if the appointment was not rescheduled
+     */
+    public LocalDateTime getPreviousDateTime() {
+        return previousDateTime;
+    }
+
+    /**
+     * Gets the status of the appointment before the change.
+     *
+     * @return the previous status, or {@code null} for a new appointment
+     */
+    public Appointment.AppointmentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    /**
+     * Gets when the change was made.
+     *
+     * @return the time of the change
+     */
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * Returns a string representation of the AppointmentEvent object.
+     *
+     * @return a string representation of the event
+     */
+    @Override
+    public String toString() {
+        return "AppointmentEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", appointmentId='" + appointmentId + '\'' +
+                ", dateTime=" + dateTime +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package entity.Appointments;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents one page of appointments in chronological order, together with the
+ * cursor needed to fetch the page that follows it.
+ */
+public class AppointmentPage {
+
+    private final List<Appointment> appointments; // Appointments on this page, in chronological order
+    private final AppointmentCursor nextCursor;   // Position of the next page, or null if this is the last page
+
+    /**
+     * Constructs a new AppointmentPage instance.
+     *
+     * @param appointments the appointments on this page
+     * @param nextCursor   the cursor of the next page, or {@code null} if this is the last page
+     */
+    public AppointmentPage(List<Appointment> appointments, AppointmentCursor nextCursor) {
+        this.appointments = Collections.unmodifiableList(appointments);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the appointments on this page.
+     *
+     * @return an unmodifiable list of appointments
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    /**
+     * Gets the cursor to pass when fetching the next page.
+     *
+     * @return the next cursor, or {@code null} if this is the last page
+     */
+    public AppointmentCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more appointments follow this page.
+     *
+     * @return {@code true} if there is a next page, {@code false} otherwise
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -11,7 +11,7 @@ public class AppointmentSlot {
 
     private String doctorId;           // The ID of the doctor associated with the slot
     private LocalDateTime startTime;   // The start time of the appointment slot
-    private boolean isAvailable;       // The availability status of the slot
+    private volatile boolean isAvailable; // The availability status of the slot, read without locking
 
     /**
      * Constructs a new AppointmentSlot instance.
@@ -1,35 +1,44 @@
 package entity.Appointments;
 
+import java.time.Duration;
+
 /**
  * Enum representing the types of appointments available in the system.
- * Provides predefined types such as Consultation, X-ray, and Blood Test.
+ * Provides predefined types such as Consultation, X-ray, and Blood Test,
+ * each with the length of time it occupies the patient and the doctor.
  */
 public enum AppointmentType {
 
     /**
      * Represents a general consultation appointment.
      */
-    CONSULTATION("Consultation"),
+    CONSULTATION("Consultation", 30),
 
     /**
      * Represents an X-ray appointment.
      */
-    XRAY("X-ray"),
+    XRAY("X-ray", 20),
 
     /**
      * Represents a blood test appointment.
      */
-    BLOOD_TEST("Blood Test");    // Represents a blood test appointment
+    BLOOD_TEST("Blood Test", 15);    // Represents a blood test appointment
+
+    private static final Duration DEFAULT_DURATION = Duration.ofMinutes(30); // Used for unrecognised types
+    private static final Duration MAX_DURATION = computeMaxDuration();       // Longest duration of any type
 
     private final String displayName; // The string representation of the appointment type
+    private final Duration duration;  // How long an appointment of this type lasts
 
     /**
-     * Constructs an AppointmentType with the specified display name.
+     * Constructs an AppointmentType with the specified display name and duration.
      *
-     * @param displayName the string representation of the appointment type
+     * @param displayName     the string representation of the appointment type
+     * @param durationMinutes how long an appointment of this type lasts, in minutes
      */
-    AppointmentType(String displayName) {
+    AppointmentType(String displayName, int durationMinutes) {
         this.displayName = displayName;
+        this.duration = Duration.ofMinutes(durationMinutes);
     }
 
     /**
@@ -41,6 +50,50 @@ public enum AppointmentType {
         return displayName;
     }
 
+    /**
+     * Gets how long an appointment of this type lasts.
+     *
+     * @return the duration of the appointment type
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets how long an appointment of the named type lasts. Appointments store their type
+     * as text, so names that match no type fall back to the length of a consultation.
+     *
+     * @param text the display name of the appointment type
+     * @return the duration of the appointment type
+     */
+    public static Duration durationOf(String text) {
+        for (AppointmentType type : AppointmentType.values()) {
+            if (type.displayName.equalsIgnoreCase(text)) {
+                return type.duration;
+            }
+        }
+        return DEFAULT_DURATION;
+    }
+
+    /**
+     * Gets the longest duration of any appointment, including those of unrecognised types.
+     *
+     * @return the maximum appointment duration
+     */
+    public static Duration maxDuration() {
+        return MAX_DURATION;
+    }
+
+    private static Duration computeMaxDuration() {
+        Duration max = DEFAULT_DURATION;
+        for (AppointmentType type : AppointmentType.values()) {
+            if (type.duration.compareTo(max) > 0) {
+                max = type.duration;
+            }
+        }
+        return max;
+    }
+
     /**
      * Returns the string representation of the appointment type.
      *
@@ -0,0 +1,227 @@
+package entity.Appointments;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a recurring availability rule for a doctor, such as
+ * "Monday to Friday, 09:00 to 12:00, every 30 minutes, until 31 March".
+ *
+ * A template stores only the rule itself. The individual slots it describes are generated
+ * on demand, so the memory used does not depend on how far ahead the rule extends.
+ */
+public class AvailabilityTemplate {
+
+    public static final int MIN_INTERVAL_MINUTES = 5;   // Shortest slot interval a rule may use
+    public static final int MAX_INTERVAL_MINUTES = 240; // Longest slot interval; well under a day, so generation always advances
+
+    private final String doctorId;        // ID of the doctor the rule belongs to
+    private final Set<DayOfWeek> days;    // Days of the week the rule applies to
+    private final LocalTime startTime;    // Time of the first slot of each day
+    private final LocalTime endTime;      // Time by which the last slot of each day must start (exclusive)
+    private final int intervalMinutes;    // Minutes between consecutive slots
+    private final LocalDate fromDate;     // First date the rule applies to
+    private final LocalDate untilDate;    // Last date the rule applies to (inclusive)
+
+    /**
+     * Constructs a new AvailabilityTemplate instance.
+     *
+     * @param doctorId        the ID of the doctor the rule belongs to
+     * @param days            the days of the week the rule applies to
+     * @param startTime       the start time of the first slot of each day
+     * @param endTime         the end of the daily window; slots start strictly before this time
+     * @param intervalMinutes the number of minutes between consecutive slots
+     * @param fromDate        the first date the rule applies to
+     * @param untilDate       the last date the rule applies to, inclusive
+     * @throws IllegalArgumentException if the days are empty, the interval is outside
+     *                                  {@value #MIN_INTERVAL_MINUTES} to {@value #MAX_INTERVAL_MINUTES}
+     *                                  minutes, or the time or date range is empty
+     */
+    public AvailabilityTemplate(String doctorId, Set<DayOfWeek> days, LocalTime startTime,
+                                LocalTime endTime, int intervalMinutes,
+                                LocalDate fromDate, LocalDate untilDate) {
+        if (days.isEmpty()) {
+            throw new IllegalArgumentException("At least one day must be selected.");
+        }
+        if (intervalMinutes < MIN_INTERVAL_MINUTES || intervalMinutes > MAX_INTERVAL_MINUTES) {
+            throw new IllegalArgumentException("Slot interval must be between " + MIN_INTERVAL_MINUTES
+                    + " and " + MAX_INTERVAL_MINUTES + " minutes.");
+        }
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Start time must be before end time.");
+        }
+        if (untilDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date must not be before start date.");
+        }
+        this.doctorId = doctorId;
+        this.days = EnumSet.copyOf(days);
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.intervalMinutes = intervalMinutes;
+        this.fromDate = fromDate;
+        this.untilDate = untilDate;
+    }
+
+    /**
+     * Gets the ID of the doctor the rule belongs to.
+     *
+     * @return the doctor ID
+     */
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Gets the days of the week the rule applies to.
+     *
+     * @return a copy of the set of days
+     */
+    public Set<DayOfWeek> getDays() {
+        return EnumSet.copyOf(days);
+    }
+
+    /**
+     * Gets the start time of the first slot of each day.
+     *
+     * @return the daily start time
+     */
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the end of the daily window. Slots start strictly before this time.
+     *
+     * @return the daily end time
+     */
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Gets the number of minutes between consecutive slots.
+     *
+     * @return the slot interval in minutes
+     */
+    public int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    /**
+     * Gets the first date the rule applies to.
+     *
+     * @return the start date
+     */
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    /**
+     * Gets the last date the rule applies to.
+     *
+     * @return the end date, inclusive
+     */
+    public LocalDate getUntilDate() {
+        return untilDate;
+    }
+
+    /**
+     * Checks whether the rule produces a slot starting at the given time.
+     *
+     * @param dateTime the slot start time to check
+     * @return {@code true} if the rule generates a slot at that time, {@code false} otherwise
+     */
+    public boolean covers(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        LocalTime time = dateTime.toLocalTime();
+        if (date.isBefore(fromDate) || date.isAfter(untilDate) || !days.contains(date.getDayOfWeek())) {
+            return false;
+        }
+        if (time.isBefore(startTime) || !time.isBefore(endTime)) {
+            return false;
+        }
+        long minutes = ChronoUnit.MINUTES.between(startTime, time);
+        return minutes % intervalMinutes == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    /**
+     * Generates the slot start times of this rule that fall strictly after {@code after}
+     * and strictly before {@code before}, in chronological order.
+     *
+     * @param after  the exclusive lower bound
+     * @param before the exclusive upper bound
+     * @return the generated slot start times
+     */
+    public List<LocalDateTime> getOccurrences(LocalDateTime after, LocalDateTime before) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        LocalDate date = after.toLocalDate().isAfter(fromDate) ? after.toLocalDate() : fromDate;
+        LocalDate lastDate = before.toLocalDate().isBefore(untilDate) ? before.toLocalDate() : untilDate;
+
+        for (; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            if (!days.contains(date.getDayOfWeek())) {
+                continue;
+            }
+            for (LocalTime time = startTime; time.isBefore(endTime); time = time.plusMinutes(intervalMinutes)) {
+                LocalDateTime occurrence = date.atTime(time);
+                if (occurrence.isAfter(after) && occurrence.isBefore(before)) {
+                    occurrences.add(occurrence);
+                }
+                if (time.plusMinutes(intervalMinutes).isBefore(time)) {
+                    break; // Wrapped past midnight
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Finds the first slot start time of this rule strictly after the given time.
+     *
+     * @param after the exclusive lower bound
+     * @return the next generated slot start time, or {@code null} if the rule has ended
+     */
+    public LocalDateTime nextOccurrence(LocalDateTime after) {
+        LocalDate date = after.toLocalDate().isAfter(fromDate) ? after.toLocalDate() : fromDate;
+
+        for (; !date.isAfter(untilDate); date = date.plusDays(1)) {
+            if (!days.contains(date.getDayOfWeek())) {
+                continue;
+            }
+            for (LocalTime time = startTime; time.isBefore(endTime); time = time.plusMinutes(intervalMinutes)) {
+                LocalDateTime occurrence = date.atTime(time);
+                if (occurrence.isAfter(after)) {
+                    return occurrence;
+                }
+                if (time.plusMinutes(intervalMinutes).isBefore(time)) {
+                    break; // Wrapped past midnight
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a string representation of the AvailabilityTemplate object.
+     *
+     * @return a string representation of the availability template
+     */
+    @Override
+    public String toString() {
+        return "AvailabilityTemplate{" +
+                "doctorId='" + doctorId + '\'' +
+                ", days=" + days +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", intervalMinutes=" + intervalMinutes +
+                ", fromDate=" + fromDate +
+                ", untilDate=" + untilDate +
+                '}';
+    }
+}
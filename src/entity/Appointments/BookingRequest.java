@@ -0,0 +1,81 @@
+package entity.Appointments;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a single request within a batch of appointment bookings.
+ * Holds the patient, doctor, slot time and appointment type to book.
+ */
+public class BookingRequest {
+
+    private final String patientId;      // ID of the patient to book for
+    private final String doctorId;       // ID of the doctor whose slot is requested
+    private final LocalDateTime dateTime; // Start time of the requested slot
+    private final String type;           // Type of appointment (e.g., consultation, X-ray, blood test)
+
+    /**
+     * Constructs a new BookingRequest instance.
+     *
+     * @param patientId the ID of the patient to book for
+     * @param doctorId  the ID of the doctor whose slot is requested
+     * @param dateTime  the start time of the requested slot
+     * @param type      the type of appointment
+     */
+    public BookingRequest(String patientId, String doctorId, LocalDateTime dateTime, String type) {
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.dateTime = dateTime;
+        this.type = type;
+    }
+
+    /**
+     * Gets the ID of the patient to book for.
+     *
+     * @return the patient ID
+     */
+    public String getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Gets the ID of the doctor whose slot is requested.
+     *
+     * @return the doctor ID
+     */
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Gets the start time of the requested slot.
+     *
+     * @return the requested date and time
+     */
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    /**
+     * Gets the type of appointment requested.
+     *
+     * @return the appointment type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns a string representation of the BookingRequest object.
+     *
+     * @return a string representation of the booking request
+     */
+    @Override
+    public String toString() {
+        return "BookingRequest{" +
+                "patientId='" + patientId + '\'' +
+                ", doctorId='" + doctorId + '\'' +
+                ", dateTime=" + dateTime +
+                ", type='" + type + '\'' +
+                '}';
+    }
+}
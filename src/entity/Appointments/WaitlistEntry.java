@@ -0,0 +1,95 @@
+package entity.Appointments;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a patient waiting for a slot with a doctor on a particular day.
+ * Entries are served in the order they were requested.
+ */
+public class WaitlistEntry {
+
+    private final String patientId;          // ID of the waiting patient
+    private final String doctorId;           // ID of the doctor the patient wants to see
+    private final LocalDate date;            // Day the patient wants an appointment on
+    private final String type;               // Type of appointment to book when a slot frees up
+    private final LocalDateTime requestedAt; // When the patient joined the waitlist
+
+    /**
+     * Constructs a new WaitlistEntry instance.
+     *
+     * @param patientId   the ID of the waiting patient
+     * @param doctorId    the ID of the doctor
+     * @param date        the day the patient wants an appointment on
+     * @param type        the type of appointment to book
+     * @param requestedAt when the patient joined the waitlist
+     */
+    public WaitlistEntry(String patientId, String doctorId, LocalDate date, String type, LocalDateTime requestedAt) {
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.date = date;
+        this.type = type;
+        this.requestedAt = requestedAt;
+    }
+
+    /**
+     * Gets the ID of the waiting patient.
+     *
+     * @return the patient ID
+     */
+    public String getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * Gets the ID of the doctor the patient wants to see.
+     *
+     * @return the doctor ID
+     */
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Gets the day the patient wants an appointment on.
+     *
+     * @return the requested date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the type of appointment to book when a slot frees up.
+     *
+     * @return the appointment type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets when the patient joined the waitlist.
+     *
+     * @return the request time
+     */
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    /**
+     * Returns a string representation of the WaitlistEntry object.
+     *
+     * @return a string representation of the waitlist entry
+     */
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "patientId='" + patientId + '\'' +
+                ", doctorId='" + doctorId + '\'' +
+                ", date=" + date +
+                ", type='" + type + '\'' +
+                ", requestedAt=" + requestedAt +
+                '}';
+    }
+}
@@ -1,7 +1,5 @@
 package entity.Medications;
 
-import java.util.UUID;
-
 /**
  * Represents a medication replenishment request.
  * Contains details about the medication, requested quantity, pharmacist handling the request, and its approval status.
@@ -16,14 +14,15 @@ public class ReplenishmentRequest {
 
     /**
      * Constructs a new ReplenishmentRequest instance.
-     * The request is assigned a unique ID and initially marked as "Pending".
+     * The request is initially marked as "Pending".
      *
+     * @param id             the unique ID of the request
      * @param medicationName the name of the medication being requested
      * @param quantity       the quantity of the medication being requested
      * @param pharmacistId   the ID of the pharmacist handling the request
      */
-    public ReplenishmentRequest(String medicationName, int quantity, String pharmacistId) {
-        this.id = UUID.randomUUID().toString(); // Generate a unique ID for each request
+    public ReplenishmentRequest(String id, String medicationName, int quantity, String pharmacistId) {
+        this.id = id;
         this.medicationName = medicationName;
         this.quantity = quantity;
         this.pharmacistId = pharmacistId;
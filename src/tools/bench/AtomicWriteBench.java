@@ -0,0 +1,148 @@
+package tools.bench;
+
+import util.storage.AtomicFiles;
+import util.storage.CsvWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Measures what crash-safe file replacement costs, and checks that it is crash-safe.
+ *
+ * For several file sizes, the same CSV rows are written two ways: truncating the file and
+ * writing it in place, as the data files were written before, and through
+ * {@link CsvWriter#create} and {@link CsvWriter#commit}, which write a temporary file, force it
+ * to disk, rename it over the original and force the directory. The median time of each is
+ * reported with the difference between them.
+ *
+ * Two checks follow: a write abandoned half-way must leave the original file untouched and no
+ * temporary file behind, and {@link AtomicFiles#recover} must delete a temporary file left by a
+ * crash. All files are written to a temporary directory.
+ *
+ * Usage: {@code java tools.bench.AtomicWriteBench [rows...]}
+ */
+public class AtomicWriteBench {
+
+    private static final int TARGET_ROWS_PER_SIZE = 2_000_000; // Rows written per size and way, to keep runs short
+    private static final int MAX_REPEATS = 200;                // Writes per size and way for small files
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    /**
+     * Runs the measurements and the checks.
+     *
+     * @param args optional row counts, 10, 1000 and 100000 by default
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10, 1_000, 100_000};
+        Path directory = Files.createTempDirectory("atomic-write-bench");
+        try {
+            Path file = directory.resolve("slots.csv");
+            write(file, 1_000, true); // Warm up the JIT
+            write(file, 1_000, false);
+
+            System.out.printf("%10s %8s %16s %16s %14s%n", "rows", "writes", "in place (ms)", "atomic (ms)", "overhead (ms)");
+            for (int rows : sizes) {
+                int repeats = Math.max(3, Math.min(MAX_REPEATS, TARGET_ROWS_PER_SIZE / Math.max(1, rows)));
+                long[] inPlace = new long[repeats];
+                long[] atomic = new long[repeats];
+                for (int i = 0; i < repeats; i++) {
+                    inPlace[i] = write(file, rows, false);
+                    atomic[i] = write(file, rows, true);
+                }
+                double inPlaceMedian = median(inPlace) / 1e6;
+                double atomicMedian = median(atomic) / 1e6;
+                System.out.printf("%10d %8d %16.3f %16.3f %14.3f%n", rows, repeats,
+                        inPlaceMedian, atomicMedian, atomicMedian - inPlaceMedian);
+            }
+
+            boolean passed = checkAbandonedWrite(file) & checkRecovery(directory);
+            System.out.println(passed ? "Crash-safety checks passed." : "CRASH-SAFETY CHECK FAILED.");
+            if (!passed) {
+                System.exit(1);
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path leftover : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Writes a file of slot rows and returns how long it took.
+     *
+     * @param atomic {@code true} to replace the file atomically, {@code false} to rewrite it in place
+     * @return the time taken, in nanoseconds
+     */
+    private static long write(Path file, int rows, boolean atomic) throws IOException {
+        long began = System.nanoTime();
+        if (!atomic) {
+            Files.newOutputStream(file).close(); // Truncate, as opening a FileWriter did
+        }
+        try (CsvWriter writer = atomic ? CsvWriter.create(file.toString()) : CsvWriter.append(file.toString())) {
+            writeRows(writer, rows);
+            if (atomic) {
+                writer.commit();
+            }
+        }
+        return System.nanoTime() - began;
+    }
+
+    private static void writeRows(CsvWriter writer, int rows) throws IOException {
+        writer.writeLine("DoctorId,StartTime,IsAvailable");
+        for (int i = 0; i < rows; i++) {
+            writer.field("D" + (i % 50))
+                    .field(BASE.plusMinutes(30L * i))
+                    .field(i % 3 != 0)
+                    .endRow();
+        }
+    }
+
+    /**
+     * Starts replacing a file, fails half-way and checks that the original is untouched and no
+     * temporary file is left.
+     */
+    private static boolean checkAbandonedWrite(Path file) throws IOException {
+        write(file, 100, true);
+        byte[] original = Files.readAllBytes(file);
+        try (CsvWriter writer = CsvWriter.create(file.toString())) {
+            writeRows(writer, 50_000);
+            writer.flush(); // Part of the new contents reaches the temporary file
+            throw new IOException("Simulated failure");
+        } catch (IOException e) {
+            // Expected: the writer is closed without committing
+        }
+
+        boolean untouched = Arrays.equals(original, Files.readAllBytes(file));
+        boolean noTemp = !Files.exists(AtomicFiles.tempFor(file));
+        System.out.printf("Abandoned write: original %s, temporary file %s%n",
+                untouched ? "untouched" : "CHANGED", noTemp ? "removed" : "LEFT BEHIND");
+        return untouched && noTemp;
+    }
+
+    /**
+     * Leaves a temporary file as a crash would and checks that recovery deletes it.
+     */
+    private static boolean checkRecovery(Path directory) throws IOException {
+        Path leftover = AtomicFiles.tempFor(directory.resolve("crashed.csv"));
+        Files.writeString(leftover, "DoctorId,StartTime,IsAva");
+        int deleted = AtomicFiles.recover(directory.toString());
+        boolean removed = deleted == 1 && !Files.exists(leftover);
+        System.out.printf("Recovery: %s%n", removed ? "leftover temporary file deleted" : "LEFTOVER NOT DELETED");
+        return removed;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,116 @@
+package tools.bench;
+
+import entity.Appointments.BookingRequest;
+import util.AppointmentManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark comparing a batch booking with the same bookings made one call at a time.
+ *
+ * For each batch size, two sets of fresh slots are opened. One set is booked through
+ * {@link AppointmentManager#scheduleAppointment} per booking, the other through a single
+ * {@link AppointmentManager#scheduleAppointments} call. Unless {@code hms.durability} is given,
+ * the run uses {@code sync}, so every call persists before it returns and the comparison shows
+ * the cost of one write per booking against one write per batch. Each size is run
+ * {@value #REPEATS} times and the median reported.
+ *
+ * Run it from a scratch copy of the application directory, since it books appointments into
+ * the data files.
+ *
+ * Usage: {@code java tools.bench.BatchBookingBench [batchSize...]}
+ */
+public class BatchBookingBench {
+
+    private static final int SLOT_SPACING_MINUTES = 30; // Far enough apart that consultations never overlap
+    private static final String TYPE = "Consultation";
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36); // Keeps doctors unique across runs
+    private static final int REPEATS = 5; // Runs per batch size; the median is reported
+
+    /**
+     * Runs the comparison for each batch size.
+     *
+     * @param args optional batch sizes, 10, 100 and 1000 by default
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? parseSizes(args) : new int[]{10, 100, 1000};
+        if (System.getProperty("hms.durability") == null) {
+            System.setProperty("hms.durability", "sync");
+        }
+        AppointmentManager manager = AppointmentManager.getInstance();
+
+        // Warm up the JIT on a run that is not reported
+        book(manager, "BENCH-" + RUN + "-W1", 50, false);
+        book(manager, "BENCH-" + RUN + "-W2", 50, true);
+
+        System.out.printf("durability=%s%n", System.getProperty("hms.durability"));
+        System.out.printf("%8s %14s %14s %10s%n", "size", "single (ms)", "batch (ms)", "speedup");
+        for (int size : sizes) {
+            double[] singles = new double[REPEATS];
+            double[] batches = new double[REPEATS];
+            for (int r = 0; r < REPEATS; r++) {
+                singles[r] = book(manager, "BENCH-" + RUN + "-S" + size + "-" + r, size, false);
+                batches[r] = book(manager, "BENCH-" + RUN + "-B" + size + "-" + r, size, true);
+            }
+            double single = median(singles);
+            double batch = median(batches);
+            System.out.printf("%8d %14.1f %14.1f %9.1fx%n", size, single, batch, single / batch);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Opens slots for a new doctor and books all of them, timing only the bookings.
+     *
+     * @return the time taken to book, in milliseconds
+     */
+    private static double book(AppointmentManager manager, String doctorId, int count, boolean asBatch) {
+        LocalDateTime start = LocalDate.now().plusYears(1).atTime(0, 0);
+        List<LocalDateTime> times = new ArrayList<>(count);
+        List<BookingRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime time = start.plusMinutes((long) i * SLOT_SPACING_MINUTES);
+            times.add(time);
+            requests.add(new BookingRequest(doctorId + "-P" + i, doctorId, time, TYPE));
+        }
+        manager.addDoctorSlots(doctorId, times);
+
+        long began = System.nanoTime();
+        int booked = 0;
+        if (asBatch) {
+            for (boolean result : manager.scheduleAppointments(requests)) {
+                booked += result ? 1 : 0;
+            }
+        } else {
+            for (BookingRequest request : requests) {
+                booked += manager.scheduleAppointment(request.getPatientId(), request.getDoctorId(),
+                        request.getDateTime(), request.getType()) ? 1 : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+
+        if (booked != count) {
+            throw new IllegalStateException("Only " + booked + " of " + count + " bookings for "
+                    + doctorId + " succeeded.");
+        }
+        return elapsed / 1e6;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
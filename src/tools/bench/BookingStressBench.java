@@ -0,0 +1,156 @@
+package tools.bench;
+
+import entity.Appointments.Appointment;
+import util.AppointmentManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for concurrent booking: measures bookings per second at increasing thread counts
+ * and checks that no slot is ever booked twice.
+ *
+ * Each round opens a fresh set of slots for a number of doctors, shuffles them, and splits them
+ * into one share per thread. Every thread books its own share and then its neighbour's, so each
+ * slot is attempted twice and threads keep racing for the same slots. A round passes if exactly
+ * one attempt per slot succeeded and every doctor ends up with one active appointment per slot.
+ *
+ * Data is kept in memory ({@code hms.storage=memory}), so the run measures locking rather than disk.
+ * Bookings lock only the stripes of their doctor and patient, so throughput should rise with the
+ * thread count up to the number of processors, which is printed with the results.
+ * Run it from the application directory: appointment IDs are still reserved through the ID
+ * allocator state in {@code data}, which is the only file it touches.
+ *
+ * Usage: {@code java tools.bench.BookingStressBench [maxThreads] [doctors] [slotsPerDoctor]}
+ */
+public class BookingStressBench {
+
+    private static final int SLOT_SPACING_MINUTES = 30; // Far enough apart that consultations never overlap
+    private static final String TYPE = "Consultation";
+
+    /**
+     * Runs one round per thread count, doubling from one thread up to the maximum.
+     *
+     * @param args optional maximum thread count, number of doctors and slots per doctor
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int doctors = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int slotsPerDoctor = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.setProperty("hms.storage", "memory");
+        AppointmentManager manager = AppointmentManager.getInstance();
+
+        System.out.printf("%d doctors x %d slots, each slot attempted twice, %d processors%n",
+                doctors, slotsPerDoctor, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %12s %14s %10s%n", "threads", "time (ms)", "bookings/s", "result");
+
+        // Warm up the JIT on a round that is not reported
+        runRound(manager, 0, Math.min(2, maxThreads), doctors, slotsPerDoctor);
+
+        boolean passed = true;
+        int round = 1;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            passed &= runRound(manager, round++, threads, doctors, slotsPerDoctor);
+            if (threads < maxThreads && threads * 2 > maxThreads) {
+                threads = maxThreads / 2; // Make sure the last round uses exactly maxThreads
+            }
+        }
+
+        System.out.println(passed ? "No slot was booked twice." : "DOUBLE BOOKING DETECTED.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Opens the slots of one round, books them from the given number of threads and checks the result.
+     *
+     * @return {@code true} if every slot was booked exactly once
+     */
+    private static boolean runRound(AppointmentManager manager, int round, int threads,
+                                    int doctors, int slotsPerDoctor) throws InterruptedException {
+        // Each round books its own days, so rounds never compete for the same slots
+        LocalDateTime start = LocalDate.now().plusYears(1).plusDays(round * 30L).atTime(0, 0);
+        List<Map.Entry<String, LocalDateTime>> slots = new ArrayList<>(doctors * slotsPerDoctor);
+        for (int d = 0; d < doctors; d++) {
+            String doctorId = "BENCH-D" + round + "-" + d;
+            List<LocalDateTime> times = new ArrayList<>(slotsPerDoctor);
+            for (int s = 0; s < slotsPerDoctor; s++) {
+                LocalDateTime time = start.plusMinutes((long) s * SLOT_SPACING_MINUTES);
+                times.add(time);
+                slots.add(Map.entry(doctorId, time));
+            }
+            manager.addDoctorSlots(doctorId, times);
+        }
+        Collections.shuffle(slots, new Random(round));
+
+        AtomicInteger booked = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            List<Map.Entry<String, LocalDateTime>> own = share(slots, t, threads);
+            List<Map.Entry<String, LocalDateTime>> neighbour = share(slots, (t + 1) % threads, threads);
+            String patientPrefix = "BENCH-P" + round + "-" + t + "-";
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    int n = 0;
+                    for (List<Map.Entry<String, LocalDateTime>> batch : List.of(own, neighbour)) {
+                        for (Map.Entry<String, LocalDateTime> slot : batch) {
+                            if (manager.scheduleAppointment(patientPrefix + n++, slot.getKey(),
+                                    slot.getValue(), TYPE)) {
+                                booked.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        ready.await();
+        long began = System.nanoTime();
+        go.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - began;
+
+        boolean passed = booked.get() == slots.size() && eachSlotBookedOnce(manager, round, doctors, slotsPerDoctor);
+        if (round > 0) {
+            System.out.printf("%8d %12.1f %14.0f %10s%n", threads, elapsed / 1e6,
+                    booked.get() / (elapsed / 1e9), passed ? "ok" : "FAILED");
+        }
+        return passed;
+    }
+
+    /**
+     * Checks that every doctor of a round holds exactly one active appointment per slot.
+     */
+    private static boolean eachSlotBookedOnce(AppointmentManager manager, int round, int doctors, int slotsPerDoctor) {
+        for (int d = 0; d < doctors; d++) {
+            Set<LocalDateTime> times = new HashSet<>();
+            for (Appointment appointment : manager.getAppointmentsForDoctor("BENCH-D" + round + "-" + d)) {
+                if (appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED
+                        && !times.add(appointment.getDateTime())) {
+                    return false;
+                }
+            }
+            if (times.size() != slotsPerDoctor) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> List<T> share(List<T> slots, int index, int count) {
+        return slots.subList(slots.size() * index / count, slots.size() * (index + 1) / count);
+    }
+}
@@ -0,0 +1,174 @@
+package tools.bench;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentSlot;
+import util.AppointmentManager;
+import util.storage.Storage;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Latency benchmark for rescheduling an appointment.
+ *
+ * The current path is measured by booking appointments on fresh slots and moving each one to
+ * another free slot through {@link AppointmentManager#rescheduleAppointment}, which records the
+ * whole move as one journal group. Unless {@code hms.durability} is given, the run uses
+ * {@code sync}, so every reschedule is on disk before it returns.
+ *
+ * The earlier path no longer exists, so it is reproduced as the writes it made per reschedule:
+ * the slots file rewritten three times and the appointments file once, each truncated and
+ * written in place without forcing it to disk. The rows are written with the earlier save
+ * loops, one {@link PrintWriter#printf} per row over a {@link FileWriter}, to a temporary directory.
+ *
+ * Extra slots are opened first so the data files are of a realistic size. Run it from a scratch
+ * copy of the application directory, since it books appointments into the data files.
+ *
+ * Usage: {@code java tools.bench.RescheduleBench [reschedules] [extraSlots]}
+ */
+public class RescheduleBench {
+
+    private static final String TYPE = "Consultation";
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36); // Keeps doctors unique across runs
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME; // As used by the earlier save loops
+
+    /**
+     * Measures both paths and prints their latency percentiles.
+     *
+     * @param args optional number of reschedules and number of extra slots to open first
+     * @throws IOException if the temporary files for the earlier path cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int extraSlots = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        if (System.getProperty("hms.durability") == null) {
+            System.setProperty("hms.durability", "sync");
+        }
+        AppointmentManager manager = AppointmentManager.getInstance();
+        LocalDateTime start = LocalDate.now().plusYears(1).atTime(0, 0);
+
+        // Filler slots, so both paths handle a realistic number of rows
+        List<AppointmentSlot> benchSlots = new ArrayList<>();
+        String fillerId = "BENCH-" + RUN + "-F";
+        List<LocalDateTime> fillerTimes = new ArrayList<>(extraSlots);
+        for (int i = 0; i < extraSlots; i++) {
+            fillerTimes.add(start.plusMinutes(5L * i));
+            benchSlots.add(new AppointmentSlot(fillerId, fillerTimes.get(i)));
+        }
+        manager.addDoctorSlots(fillerId, fillerTimes);
+
+        // One hour per appointment: booked on the hour, moved to the half hour
+        String doctorId = "BENCH-" + RUN + "-R";
+        List<LocalDateTime> times = new ArrayList<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            times.add(start.plusHours(i));
+            times.add(start.plusHours(i).plusMinutes(30));
+        }
+        manager.addDoctorSlots(doctorId, times);
+        times.forEach(time -> benchSlots.add(new AppointmentSlot(doctorId, time)));
+        for (int i = 0; i < count; i++) {
+            if (!manager.scheduleAppointment(doctorId + "-P" + i, doctorId, start.plusHours(i), TYPE)) {
+                throw new IllegalStateException("Could not book the appointment to reschedule.");
+            }
+        }
+        List<Appointment> appointments = manager.getAppointmentsForDoctor(doctorId);
+
+        long[] current = new long[count];
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = appointments.get(i);
+            long began = System.nanoTime();
+            boolean moved = manager.rescheduleAppointment(appointment.getAppointmentId(),
+                    appointment.getDateTime().plusMinutes(30));
+            current[i] = System.nanoTime() - began;
+            if (!moved) {
+                throw new IllegalStateException("Reschedule of " + appointment.getAppointmentId() + " failed.");
+            }
+        }
+
+        // Compaction may already have saved the bench slots, so take only the others from storage
+        List<AppointmentSlot> slots = new ArrayList<>();
+        for (AppointmentSlot slot : Storage.getInstance().getAppointmentStore().loadSlots()) {
+            if (!slot.getDoctorId().startsWith("BENCH-" + RUN)) {
+                slots.add(slot);
+            }
+        }
+        slots.addAll(benchSlots);
+        List<Appointment> allAppointments = manager.getAllAppointments();
+        long[] earlier = new long[count];
+        Path directory = Files.createTempDirectory("reschedule-bench");
+        try {
+            for (int i = 0; i < count; i++) {
+                long began = System.nanoTime();
+                for (int write = 0; write < 3; write++) {
+                    writeSlots(directory.resolve("appointment.csv"), slots);
+                }
+                writeAppointments(directory.resolve("appointments.csv"), allAppointments);
+                earlier[i] = System.nanoTime() - began;
+            }
+        } finally {
+            Files.deleteIfExists(directory.resolve("appointment.csv"));
+            Files.deleteIfExists(directory.resolve("appointments.csv"));
+            Files.deleteIfExists(directory);
+        }
+
+        System.out.printf("%d reschedules, %d slots, %d appointments, durability=%s%n",
+                count, slots.size(), allAppointments.size(), System.getProperty("hms.durability"));
+        System.out.printf("%-26s %10s %10s %10s%n", "path", "p50 (ms)", "p99 (ms)", "max (ms)");
+        print("journal group (current)", current);
+        print("four rewrites (earlier)", earlier);
+        System.exit(0);
+    }
+
+    /**
+     * Writes the slots the way the earlier {@code saveSlots} did.
+     */
+    private static void writeSlots(Path file, List<AppointmentSlot> slots) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file.toFile()))) {
+            writer.println("DoctorId,StartTime,IsAvailable");
+
+            for (AppointmentSlot slot : slots) {
+                writer.printf("%s,%s,%b%n",
+                        slot.getDoctorId(),
+                        slot.getStartTime().format(FORMATTER),
+                        slot.isAvailable()
+                );
+            }
+        }
+    }
+
+    /**
+     * Writes the appointments the way the earlier {@code saveAppointments} did.
+     */
+    private static void writeAppointments(Path file, List<Appointment> appointments) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file.toFile()))) {
+            writer.println("AppointmentId,PatientId,DoctorId,DateTime,Type,Status");
+
+            for (Appointment appointment : appointments) {
+                writer.printf("%s,%s,%s,%s,%s,%s%n",
+                        appointment.getAppointmentId(),
+                        appointment.getPatientId(),
+                        appointment.getDoctorId(),
+                        appointment.getDateTime().format(FORMATTER),
+                        appointment.getType(),
+                        appointment.getStatus()
+                );
+            }
+        }
+    }
+
+    private static void print(String path, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-26s %10.2f %10.2f %10.2f%n", path,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+}
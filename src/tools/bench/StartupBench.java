@@ -0,0 +1,150 @@
+package tools.bench;
+
+import util.AppointmentManager;
+import util.AppointmentOutcomeManager;
+import util.CSVDataLoader;
+import util.Checkpoint;
+import util.CredentialManager;
+import util.MedicalRecordManager;
+import util.storage.Storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares cold start time when loading from the CSV files with loading from the binary snapshot.
+ *
+ * Every start runs in a fresh JVM, so nothing is cached between starts. A start loads what the
+ * application loads before the login prompt: every user, credential, medical record, outcome
+ * record, medication, replenishment request and appointment. The CSV starts run with the
+ * snapshot file removed. A checkpoint then writes a new snapshot, and the snapshot starts load
+ * from it. The time spent loading and the wall time of the whole JVM are both reported.
+ *
+ * The snapshot file of the data directory is replaced, so run it from a scratch copy of the
+ * application directory, ideally holding production-sized data.
+ *
+ * Usage: {@code java tools.bench.StartupBench [starts]}
+ */
+public class StartupBench {
+
+    private static final String SNAPSHOT_FILE = "data/snapshot.bin"; // Must match the file Storage loads
+    private static final String LOAD = "--load";             // Child mode: load everything and report the time
+    private static final String CHECKPOINT = "--checkpoint"; // Child mode: load everything and write the snapshot
+
+    /**
+     * Runs the comparison, or one child start when given a child mode.
+     *
+     * @param args optional number of starts per format, or a child mode
+     * @throws IOException          if a child JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for a child JVM
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals(LOAD)) {
+            long began = System.nanoTime();
+            loadEverything();
+            System.out.println((System.nanoTime() - began) / 1_000_000);
+            System.exit(0);
+        }
+        if (args.length > 0 && args[0].equals(CHECKPOINT)) {
+            loadEverything();
+            System.exit(Checkpoint.run() ? 0 : 1);
+        }
+
+        int starts = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path snapshot = Path.of(SNAPSHOT_FILE);
+
+        Files.deleteIfExists(snapshot);
+        long[][] csv = new long[starts][];
+        for (int i = 0; i < starts; i++) {
+            csv[i] = start(LOAD);
+            Files.deleteIfExists(snapshot);
+        }
+
+        start(CHECKPOINT);
+        if (!Files.exists(snapshot)) {
+            throw new IllegalStateException("The checkpoint did not write " + SNAPSHOT_FILE + ".");
+        }
+        long[][] binary = new long[starts][];
+        for (int i = 0; i < starts; i++) {
+            binary[i] = start(LOAD);
+        }
+
+        System.out.printf("%d starts each, snapshot %d KB%n", starts, Files.size(snapshot) / 1024);
+        System.out.printf("%-10s %16s %16s%n", "source", "load p50 (ms)", "JVM p50 (ms)");
+        print("CSV", csv);
+        print("snapshot", binary);
+    }
+
+    /**
+     * Loads everything the application loads before showing the login prompt.
+     */
+    private static void loadEverything() {
+        Storage.getInstance();
+        CSVDataLoader.loadAllUsers();
+        CSVDataLoader.loadMedications();
+        CSVDataLoader.loadReplenishmentRequests();
+        CredentialManager.getInstance();
+        MedicalRecordManager.getInstance();
+        AppointmentOutcomeManager.getInstance();
+        AppointmentManager.getInstance();
+    }
+
+    /**
+     * Runs one child JVM with the same class path and {@code hms.*} properties.
+     *
+     * @param mode the child mode
+     * @return the load time reported by the child, or 0 for a checkpoint, and the wall time of
+     *         the JVM, in milliseconds
+     */
+    private static long[] start(String mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("hms."))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBench.class.getName());
+        command.add(mode);
+
+        long began = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String last = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                last = line;
+            }
+        }
+        int exit = process.waitFor();
+        long wall = (System.nanoTime() - began) / 1_000_000;
+        if (exit != 0) {
+            throw new IllegalStateException("Child start " + mode + " exited with " + exit + ".");
+        }
+        if (mode.equals(CHECKPOINT)) {
+            return new long[]{0, wall};
+        }
+        if (last == null) {
+            throw new IllegalStateException("Child start " + mode + " reported no time.");
+        }
+        return new long[]{Long.parseLong(last.trim()), wall};
+    }
+
+    private static void print(String source, long[][] runs) {
+        long[] load = new long[runs.length];
+        long[] wall = new long[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            load[i] = runs[i][0];
+            wall[i] = runs[i][1];
+        }
+        Arrays.sort(load);
+        Arrays.sort(wall);
+        System.out.printf("%-10s %16d %16d%n", source, load[runs.length / 2], wall[runs.length / 2]);
+    }
+}
@@ -0,0 +1,84 @@
+package util;
+
+import entity.Appointments.AppointmentEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * A subscriber that collects appointment events until the owner drains them.
+ *
+ * Live views subscribe a buffer, then periodically take the events received since the
+ * previous refresh and render only those. Events arrive on the publisher's threads, so the
+ * buffer uses a concurrent queue.
+ */
+public class AppointmentEventBuffer implements Flow.Subscriber<AppointmentEvent> {
+
+    private final Queue<AppointmentEvent> events = new ConcurrentLinkedQueue<>(); // Events not yet drained
+    private volatile Flow.Subscription subscription; // Subscription to the publisher, once established
+
+    /**
+     * Accepts the subscription and requests every event.
+     *
+     * @param subscription the subscription to the publisher
+     */
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    /**
+     * Stores a received event.
+     *
+     * @param event the event
+     */
+    @Override
+    public void onNext(AppointmentEvent event) {
+        events.add(event);
+    }
+
+    /**
+     * Reports a failure of the publisher.
+     *
+     * @param throwable the failure
+     */
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("Appointment event stream failed: " + throwable.getMessage());
+    }
+
+    /**
+     * Called when the publisher closes; no further events arrive.
+     */
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Takes every event received since the last call.
+     *
+     * @return the events in the order they were received
+     */
+    public List<AppointmentEvent> drain() {
+        List<AppointmentEvent> drained = new ArrayList<>();
+        AppointmentEvent event;
+        while ((event = events.poll()) != null) {
+            drained.add(event);
+        }
+        return drained;
+    }
+
+    /**
+     * Stops receiving events.
+     */
+    public void cancel() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
@@ -0,0 +1,696 @@
+package util;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentCursor;
+import entity.Appointments.AppointmentPage;
+import entity.Appointments.AppointmentType;
+import util.storage.MonthSummary;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Indexes appointments by ID and by the attributes they are most often queried on:
+ * patient, doctor, status and calendar date.
+ *
+ * Every secondary bucket is kept sorted by date and time (ties broken by appointment ID),
+ * so queries return ordered results without sorting. Because the buckets are ordered by
+ * fields that can change, status and date changes must go through {@link #updateStatus}
+ * and {@link #updateDateTime} so the appointment is moved between buckets consistently.
+ *
+ * Changes are partitioned by doctor and by patient. The live doctor buckets are guarded by
+ * {@value #LOCK_STRIPES} doctor lock stripes and the live patient buckets by as many patient
+ * stripes, so a change locks only the stripe of its doctor and the stripe of its patient, always
+ * in that order. Bookings for different doctors and patients therefore run in parallel, and the
+ * doctor half of a conflict check never waits for another doctor. Loading stored appointments and
+ * verifying the statistics take every stripe.
+ *
+ * Queries read an immutable {@link AppointmentSnapshot} without locking. Every change publishes
+ * the next snapshot before it returns: the snapshot is derived from the previous one with
+ * {@link AppointmentSnapshot#withChanges}, which copies only the buckets holding the changed
+ * appointments and shares the rest, and swapped in with a compare-and-set so changes under
+ * different stripes never lose each other's updates. Snapshots hold copies of the appointments,
+ * so query results never change after they are returned; the appointments to change are looked
+ * up with {@link #get}, which returns the live instance. Statistics and the size are read from
+ * the live counters and never need a snapshot.
+ *
+ * The patient and doctor buckets double as interval indexes: since no appointment lasts longer
+ * than {@link AppointmentType#maxDuration()}, only appointments starting within that distance
+ * before a time can still be running at it, so overlap checks are a short range scan.
+ *
+ * The index also remembers which calendar months have changed, so the owner can persist
+ * only those months. Appointments loaded through {@link #addIfAbsent} or {@link #addAllIfAbsent}
+ * do not count as changes.
+ */
+public class AppointmentIndex {
+
+    /**
+     * Orders appointments chronologically, using the appointment ID to break ties.
+     */
+    public static final Comparator<Appointment> BY_DATE_TIME =
+            Comparator.comparing(Appointment::getDateTime)
+                    .thenComparing(Appointment::getAppointmentId);
+
+    private static final int LOCK_STRIPES = 64; // Number of locks shared among all doctors, and among all patients
+
+    private final Map<String, Appointment> appointmentsById;                   // Primary index: appointmentId -> appointment
+    private final Map<String, NavigableSet<Appointment>> appointmentsByPatient; // patientId -> appointments, guarded by the patient stripe
+    private final Map<String, NavigableSet<Appointment>> appointmentsByDoctor;  // doctorId -> appointments, guarded by the doctor stripe
+    private final ReentrantLock[] doctorLocks;                                 // Lock stripes guarding the doctor buckets
+    private final ReentrantLock[] patientLocks;                                // Lock stripes guarding the patient buckets
+    private final AppointmentStatistics statistics;                            // Counters kept in step with the buckets, guarded by itself
+    private final Set<YearMonth> changedMonths;                                // Months changed since they were last saved
+    private final AtomicReference<AppointmentSnapshot> snapshot;               // Published read view of the appointments
+
+    /**
+     * Constructs an empty appointment index.
+     */
+    public AppointmentIndex() {
+        appointmentsById = new ConcurrentHashMap<>();
+        appointmentsByPatient = new ConcurrentHashMap<>();
+        appointmentsByDoctor = new ConcurrentHashMap<>();
+        doctorLocks = new ReentrantLock[LOCK_STRIPES];
+        patientLocks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            doctorLocks[i] = new ReentrantLock();
+            patientLocks[i] = new ReentrantLock();
+        }
+        statistics = new AppointmentStatistics();
+        changedMonths = ConcurrentHashMap.newKeySet();
+        snapshot = new AtomicReference<>(AppointmentSnapshot.EMPTY);
+    }
+
+    /**
+     * Adds an appointment to all indexes. An appointment already indexed under the
+     * same ID is replaced.
+     *
+     * @param appointment the appointment to add
+     */
+    public void add(Appointment appointment) {
+        String appointmentId = appointment.getAppointmentId();
+        while (true) {
+            // The replaced appointment may belong to another doctor or patient, so lock theirs too
+            Appointment existing = appointmentsById.get(appointmentId);
+            List<ReentrantLock> locks = existing == null
+                    ? lock(List.of(appointment.getDoctorId()), List.of(appointment.getPatientId()))
+                    : lock(List.of(appointment.getDoctorId(), existing.getDoctorId()),
+                           List.of(appointment.getPatientId(), existing.getPatientId()));
+            try {
+                if (appointmentsById.get(appointmentId) != existing) {
+                    continue; // Replaced while locking; lock the new one's stripes instead
+                }
+                if (existing != null) {
+                    delete(existing);
+                }
+                appointmentsById.put(appointmentId, appointment);
+                addToBuckets(appointment);
+                markChanged(appointment.getDateTime());
+                publish(List.of(appointmentId));
+                return;
+            } finally {
+                unlock(locks);
+            }
+        }
+    }
+
+    /**
+     * Adds an appointment read from storage, unless one with the same ID is already indexed.
+     * An indexed appointment is never older than a stored copy, so the stored copy is dropped.
+     * Loading does not mark the appointment's month as changed.
+     *
+     * @param appointment the appointment to add
+     * @return {@code true} if the appointment was added, {@code false} if its ID was already indexed
+     */
+    public boolean addIfAbsent(Appointment appointment) {
+        return addAllIfAbsent(List.of(appointment));
+    }
+
+    /**
+     * Adds appointments read from storage as {@link #addIfAbsent} does, publishing a single
+     * snapshot for all of them. Takes every stripe, since the appointments may belong to any
+     * doctor or patient.
+     *
+     * @param appointments the appointments to add
+     * @return {@code true} if every appointment was added, {@code false} if any ID was already indexed
+     */
+    public boolean addAllIfAbsent(Collection<Appointment> appointments) {
+        lockAll();
+        try {
+            boolean all = true;
+            List<String> added = new ArrayList<>(appointments.size());
+            for (Appointment appointment : appointments) {
+                if (appointmentsById.putIfAbsent(appointment.getAppointmentId(), appointment) == null) {
+                    addToBuckets(appointment);
+                    added.add(appointment.getAppointmentId());
+                } else {
+                    all = false;
+                }
+            }
+            publish(added);
+            return all;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Creates and adds a new appointment unless it would overlap another active appointment of
+     * the same patient or doctor. The check and the insertion happen atomically. The ID is only
+     * requested once the check has passed, so a rejected booking does not use one up.
+     *
+     * @param patientId   the ID of the patient
+     * @param doctorId    the ID of the doctor
+     * @param dateTime    the date and time of the appointment
+     * @param type        the type of appointment
+     * @param idGenerator supplies the ID of the new appointment
+     * @return the new appointment, or {@code null} if it would overlap another one
+     */
+    public Appointment addIfNoConflict(String patientId, String doctorId, LocalDateTime dateTime,
+                                       String type, Supplier<String> idGenerator) {
+        List<ReentrantLock> locks = lock(List.of(doctorId), List.of(patientId));
+        try {
+            if (findOverlap(patientId, doctorId, dateTime, type, null) != null) {
+                return null;
+            }
+            Appointment appointment = new Appointment(idGenerator.get(), patientId, doctorId, dateTime, type);
+            appointmentsById.put(appointment.getAppointmentId(), appointment);
+            addToBuckets(appointment);
+            markChanged(dateTime);
+            publish(List.of(appointment.getAppointmentId()));
+            return appointment;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Moves an indexed appointment to a new date and time unless it would then overlap another
+     * active appointment of the same patient or doctor. The check and the move happen atomically.
+     *
+     * @param appointment the indexed appointment
+     * @param dateTime    the new date and time
+     * @return {@code true} if the appointment was moved, {@code false} if it would overlap another one
+     */
+    public boolean moveIfNoConflict(Appointment appointment, LocalDateTime dateTime) {
+        List<ReentrantLock> locks = lockFor(appointment);
+        try {
+            if (findOverlap(appointment.getPatientId(), appointment.getDoctorId(),
+                    dateTime, appointment.getType(), appointment.getAppointmentId()) != null) {
+                return false;
+            }
+            reschedule(appointment, dateTime);
+            return true;
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Finds an active appointment of the patient or the doctor that overlaps the given time.
+     * Cancelled appointments do not occupy any time.
+     *
+     * @param patientId            the ID of the patient
+     * @param doctorId             the ID of the doctor
+     * @param start                the start of the time to check
+     * @param type                 the appointment type, which determines how long the time lasts
+     * @param excludeAppointmentId the ID of an appointment to ignore, such as the one being moved,
+     *                             or {@code null} to check against every appointment
+     * @return an overlapping appointment, or {@code null} if there is none
+     */
+    public Appointment findConflict(String patientId, String doctorId, LocalDateTime start,
+                                    String type, String excludeAppointmentId) {
+        List<ReentrantLock> locks = lock(List.of(doctorId), List.of(patientId));
+        try {
+            return findOverlap(patientId, doctorId, start, type, excludeAppointmentId);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Removes an appointment from all indexes.
+     *
+     * @param appointment the appointment to remove
+     */
+    public void remove(Appointment appointment) {
+        List<ReentrantLock> locks = lockFor(appointment);
+        try {
+            delete(appointment);
+            publish(List.of(appointment.getAppointmentId()));
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Retrieves an appointment by its ID.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the appointment, or {@code null} if not found
+     */
+    public Appointment get(String appointmentId) {
+        return appointmentsById.get(appointmentId);
+    }
+
+    /**
+     * Changes the status of an indexed appointment and moves it to the matching status bucket.
+     *
+     * @param appointment the indexed appointment
+     * @param status      the new status
+     */
+    public void updateStatus(Appointment appointment, Appointment.AppointmentStatus status) {
+        List<ReentrantLock> locks = lockFor(appointment);
+        try {
+            removeFromBuckets(appointment);
+            appointment.setStatus(status);
+            addToBuckets(appointment);
+            markChanged(appointment.getDateTime());
+            publish(List.of(appointment.getAppointmentId()));
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Changes the date and time of an indexed appointment and re-sorts it in every bucket.
+     *
+     * @param appointment the indexed appointment
+     * @param dateTime    the new date and time
+     */
+    public void updateDateTime(Appointment appointment, LocalDateTime dateTime) {
+        List<ReentrantLock> locks = lockFor(appointment);
+        try {
+            reschedule(appointment, dateTime);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Retrieves the appointments of a patient in chronological order.
+     *
+     * @param patientId the ID of the patient
+     * @return the patient's appointments
+     */
+    public List<Appointment> getForPatient(String patientId) {
+        return snapshot().getForPatient(patientId);
+    }
+
+    /**
+     * Retrieves the appointments of a patient scheduled strictly after the given time.
+     *
+     * @param patientId the ID of the patient
+     * @param after     the exclusive lower bound on the appointment time
+     * @return the patient's later appointments in chronological order
+     */
+    public List<Appointment> getForPatientAfter(String patientId, LocalDateTime after) {
+        return snapshot().getForPatientAfter(patientId, after);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @return the doctor's appointments
+     */
+    public List<Appointment> getForDoctor(String doctorId) {
+        return snapshot().getForDoctor(doctorId);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor scheduled strictly after the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound on the appointment time
+     * @return the doctor's later appointments in chronological order
+     */
+    public List<Appointment> getForDoctorAfter(String doctorId, LocalDateTime after) {
+        return snapshot().getForDoctorAfter(doctorId, after);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor scheduled between two dates, inclusive,
+     * in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @param from     the first date of the range
+     * @param to       the last date of the range
+     * @return the doctor's appointments in the range
+     */
+    public List<Appointment> getForDoctorBetween(String doctorId, LocalDate from, LocalDate to) {
+        return snapshot().getForDoctorBetween(doctorId, from, to);
+    }
+
+    /**
+     * Retrieves the appointments with a given status in chronological order.
+     *
+     * @param status the status to look up
+     * @return the matching appointments
+     */
+    public List<Appointment> getByStatus(Appointment.AppointmentStatus status) {
+        return snapshot().getByStatus(status);
+    }
+
+    /**
+     * Retrieves the appointments scheduled on a calendar date in chronological order.
+     *
+     * @param date the date to look up
+     * @return the matching appointments
+     */
+    public List<Appointment> getByDate(LocalDate date) {
+        return snapshot().getByDate(date);
+    }
+
+    /**
+     * Retrieves the appointments scheduled in a calendar month in chronological order.
+     * Used to save the month, so it reads the snapshot: every change that has returned is in
+     * it, and a change still in progress is not half in it.
+     *
+     * @param month the month to look up
+     * @return the matching appointments
+     */
+    public List<Appointment> getByMonth(YearMonth month) {
+        return snapshot().getByDateRange(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Retrieves the appointments scheduled between two dates, inclusive, in chronological order.
+     *
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     * @return the matching appointments
+     */
+    public List<Appointment> getByDateRange(LocalDate from, LocalDate to) {
+        return snapshot().getByDateRange(from, to);
+    }
+
+    /**
+     * Retrieves every indexed appointment in chronological order.
+     *
+     * @return all appointments
+     */
+    public List<Appointment> getAll() {
+        return snapshot().getAll();
+    }
+
+    /**
+     * Retrieves a page of appointments in chronological order, starting just after the cursor.
+     *
+     * @param after    the cursor of the last appointment already seen, or {@code null} to start at the beginning
+     * @param pageSize the maximum number of appointments to return
+     * @return the page of appointments
+     */
+    public AppointmentPage getPage(AppointmentCursor after, int pageSize) {
+        return snapshot().getPage(after, pageSize);
+    }
+
+    /**
+     * Gets the number of indexed appointments.
+     *
+     * @return the number of appointments
+     */
+    public int size() {
+        return appointmentsById.size();
+    }
+
+    /**
+     * Builds appointment statistics from the running counters.
+     *
+     * @param today the date to report as today
+     * @return a map of statistic names to counts
+     * @see AppointmentStatistics#toMap(LocalDate)
+     */
+    public Map<String, Integer> getStatistics(LocalDate today) {
+        return getStatistics(today, List.of());
+    }
+
+    /**
+     * Builds appointment statistics from the running counters plus the counts of stored
+     * months that have not been loaded into the index.
+     *
+     * @param today    the date to report as today
+     * @param unloaded summaries of the stored months not in the index
+     * @return a map of statistic names to counts
+     * @see AppointmentStatistics#toMap(LocalDate, Collection)
+     */
+    public Map<String, Integer> getStatistics(LocalDate today, Collection<MonthSummary> unloaded) {
+        synchronized (statistics) {
+            return statistics.toMap(today, unloaded);
+        }
+    }
+
+    /**
+     * Verifies the running counters against a full recount of the indexed appointments,
+     * rebuilding them if they have drifted. Takes every stripe, so no change is counted
+     * half-way.
+     *
+     * @return {@code true} if the counters were correct, {@code false} if they had to be rebuilt
+     */
+    public boolean verifyStatistics() {
+        lockAll();
+        try {
+            synchronized (statistics) {
+                if (statistics.matches(appointmentsById.values())) {
+                    return true;
+                }
+                statistics.rebuild(appointmentsById.values());
+                return false;
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Marks a month as changed, for example because storage holds an outdated copy of it.
+     *
+     * @param month the month to mark
+     */
+    public void markChanged(YearMonth month) {
+        changedMonths.add(month);
+    }
+
+    /**
+     * Returns the months changed since the last call and clears the record of changes.
+     * A month changed while this runs is either returned or kept for the next call.
+     *
+     * @return the changed months in chronological order
+     */
+    public NavigableSet<YearMonth> drainChangedMonths() {
+        NavigableSet<YearMonth> months = new TreeSet<>();
+        for (YearMonth month : changedMonths) {
+            if (changedMonths.remove(month)) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    private void markChanged(LocalDateTime dateTime) {
+        changedMonths.add(YearMonth.from(dateTime));
+    }
+
+    /**
+     * Gets the snapshot of the current appointments. Never locks, since every change has
+     * already published its snapshot.
+     *
+     * @return the current snapshot
+     */
+    public AppointmentSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    private void delete(Appointment appointment) {
+        if (appointmentsById.remove(appointment.getAppointmentId()) != null) {
+            removeFromBuckets(appointment);
+            markChanged(appointment.getDateTime());
+        }
+    }
+
+    private void reschedule(Appointment appointment, LocalDateTime dateTime) {
+        markChanged(appointment.getDateTime());
+        removeFromBuckets(appointment);
+        appointment.setDateTime(dateTime);
+        addToBuckets(appointment);
+        markChanged(dateTime);
+        publish(List.of(appointment.getAppointmentId()));
+    }
+
+    /**
+     * Publishes the snapshot that follows a change. The previous copy of each changed
+     * appointment is taken out of the snapshot and a fresh copy of the live appointment, if it
+     * is still indexed, is put in. The caller holds the stripes of the changed appointments, so
+     * only changes to other appointments can race with this; if one publishes first, the
+     * snapshot is derived again from theirs.
+     *
+     * @param appointmentIds the IDs of the changed appointments
+     */
+    private void publish(Collection<String> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return;
+        }
+        List<Appointment> added = new ArrayList<>(appointmentIds.size());
+        for (String appointmentId : appointmentIds) {
+            Appointment live = appointmentsById.get(appointmentId);
+            if (live != null) {
+                added.add(AppointmentSnapshot.copyOf(live));
+            }
+        }
+        while (true) {
+            AppointmentSnapshot current = snapshot.get();
+            List<Appointment> removed = new ArrayList<>(appointmentIds.size());
+            for (String appointmentId : appointmentIds) {
+                Appointment previous = current.get(appointmentId);
+                if (previous != null) {
+                    removed.add(previous);
+                }
+            }
+            if (snapshot.compareAndSet(current, current.withChanges(removed, added))) {
+                return;
+            }
+        }
+    }
+
+    private void addToBuckets(Appointment appointment) {
+        synchronized (statistics) {
+            statistics.record(appointment);
+        }
+        bucket(appointmentsByPatient, appointment.getPatientId()).add(appointment);
+        bucket(appointmentsByDoctor, appointment.getDoctorId()).add(appointment);
+    }
+
+    private void removeFromBuckets(Appointment appointment) {
+        synchronized (statistics) {
+            statistics.unrecord(appointment);
+        }
+        unbucket(appointmentsByPatient, appointment.getPatientId(), appointment);
+        unbucket(appointmentsByDoctor, appointment.getDoctorId(), appointment);
+    }
+
+    private static <K> NavigableSet<Appointment> bucket(Map<K, NavigableSet<Appointment>> index, K key) {
+        return index.computeIfAbsent(key, k -> new TreeSet<>(BY_DATE_TIME));
+    }
+
+    private static <K> void unbucket(Map<K, NavigableSet<Appointment>> index, K key, Appointment appointment) {
+        NavigableSet<Appointment> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(appointment);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Locks the stripes of an appointment's doctor and patient.
+     *
+     * @param appointment the appointment
+     * @return the locks taken, to pass to {@link #unlock}
+     */
+    private List<ReentrantLock> lockFor(Appointment appointment) {
+        return lock(List.of(appointment.getDoctorId()), List.of(appointment.getPatientId()));
+    }
+
+    /**
+     * Locks the stripes of some doctors and patients. Doctor stripes are always taken before
+     * patient stripes, and each kind in stripe order, so two changes can never wait for each
+     * other.
+     *
+     * @param doctorIds  the IDs of the doctors
+     * @param patientIds the IDs of the patients
+     * @return the locks taken, to pass to {@link #unlock}
+     */
+    private List<ReentrantLock> lock(Collection<String> doctorIds, Collection<String> patientIds) {
+        List<ReentrantLock> locks = new ArrayList<>(2);
+        stripes(doctorIds).forEach(stripe -> locks.add(doctorLocks[stripe]));
+        stripes(patientIds).forEach(stripe -> locks.add(patientLocks[stripe]));
+        locks.forEach(ReentrantLock::lock);
+        return locks;
+    }
+
+    private static NavigableSet<Integer> stripes(Collection<String> ids) {
+        NavigableSet<Integer> stripes = new TreeSet<>();
+        for (String id : ids) {
+            stripes.add(Math.floorMod(id.hashCode(), LOCK_STRIPES));
+        }
+        return stripes;
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : doctorLocks) {
+            lock.lock();
+        }
+        for (ReentrantLock lock : patientLocks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (ReentrantLock lock : patientLocks) {
+            lock.unlock();
+        }
+        for (ReentrantLock lock : doctorLocks) {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds an active appointment of the patient or the doctor that overlaps the given time.
+     * The caller holds the stripes of both. The doctor is checked first, since their bucket is
+     * guarded by the stripe a booking already needs for its slot.
+     */
+    private Appointment findOverlap(String patientId, String doctorId, LocalDateTime start,
+                                    String type, String excludeAppointmentId) {
+        LocalDateTime end = start.plus(AppointmentType.durationOf(type));
+        Appointment conflict = findOverlap(appointmentsByDoctor.get(doctorId), start, end, excludeAppointmentId);
+        if (conflict == null) {
+            conflict = findOverlap(appointmentsByPatient.get(patientId), start, end, excludeAppointmentId);
+        }
+        return conflict;
+    }
+
+    private static Appointment findOverlap(NavigableSet<Appointment> bucket, LocalDateTime start,
+                                           LocalDateTime end, String excludeAppointmentId) {
+        if (bucket == null) {
+            return null;
+        }
+        // Appointments starting earlier than this have ended before start
+        Appointment from = probe(start.minus(AppointmentType.maxDuration()));
+        Appointment to = probe(end);
+        for (Appointment appointment : bucket.subSet(from, true, to, false)) {
+            if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED ||
+                    appointment.getAppointmentId().equals(excludeAppointmentId)) {
+                continue;
+            }
+            Duration duration = AppointmentType.durationOf(appointment.getType());
+            if (appointment.getDateTime().plus(duration).isAfter(start)) {
+                return appointment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a placeholder that sorts before every real appointment at the given time,
+     * for bounding range scans of the buckets.
+     *
+     * @param dateTime the time to bound at
+     * @return the placeholder appointment
+     */
+    private static Appointment probe(LocalDateTime dateTime) {
+        return new Appointment("", "", "", dateTime, "");
+    }
+}
@@ -0,0 +1,235 @@
+package util;
+
+import util.storage.CsvReader;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An append-only log of appointment and slot mutations.
+ *
+ * Each mutation is written as a single CSV record instead of rewriting the full data files,
+ * so the cost of persisting a change does not depend on how many rows are stored. On startup
+ * the records are replayed on top of the last snapshot, and the owner periodically compacts the
+ * journal by writing a fresh snapshot and clearing the log.
+ *
+ * Each call to {@link #append} writes one group of records followed by a commit marker, in a
+ * single write that is forced to disk before returning. Replay only applies groups whose commit
+ * marker was written, so a crash part-way through a write never applies half of a change, such
+ * as a reschedule that freed the old slot but did not move the appointment.
+ *
+ * A group that fails to write is cut off again, so torn records never end up in front of the
+ * next group. If even that fails, the journal refuses further appends until it is cleared.
+ *
+ * All methods synchronize on the journal, which lets the owner hold off appends while it compacts.
+ */
+public class AppointmentJournal {
+
+    private static final String HEADER = "JOURNAL,2";   // First line of a journal that uses commit markers
+    private static final String COMMIT_MARKER = "COMMIT"; // Closes a group of records: COMMIT,<record count>
+
+    private final String journalFile; // Path of the journal file
+    private int entryCount;           // Number of records currently in the journal
+    private boolean damaged;          // Whether a failed append could not be cut off; cleared by clear()
+
+    /**
+     * Constructs a journal backed by the given file.
+     *
+     * @param journalFile the path of the journal file
+     */
+    public AppointmentJournal(String journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Appends records to the journal as one atomic group. The records and their commit marker
+     * are written in a single write and forced to disk before this method returns.
+     *
+     * If the write fails, the file is cut back to its length before the write, so the next
+     * group is not read as part of this one.
+     *
+     * @param records the CSV records to append
+     * @return {@code true} if the group is on disk, {@code false} if it was not written
+     */
+    public synchronized boolean append(List<String> records) {
+        if (records.isEmpty()) {
+            return true;
+        }
+        if (damaged) {
+            System.err.println("Appointment journal holds a torn write; not appending until it is cleared.");
+            return false;
+        }
+
+        long length = -1; // Length before this append, or -1 if the file could not be opened
+        try (FileChannel channel = FileChannel.open(Path.of(journalFile),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            length = channel.size();
+            StringBuilder buffer = new StringBuilder();
+            if (length == 0) {
+                buffer.append(HEADER).append(System.lineSeparator());
+            }
+            for (String record : records) {
+                buffer.append(record).append(System.lineSeparator());
+            }
+            buffer.append(COMMIT_MARKER).append(',').append(records.size()).append(System.lineSeparator());
+
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+            entryCount += records.size();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing appointment journal: " + e.getMessage());
+            if (length >= 0) {
+                cutBack(length);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Cuts the journal back to its length before a failed append. If that fails too, the
+     * journal is marked as damaged.
+     *
+     * @param length the length of the file before the append
+     */
+    private void cutBack(long length) {
+        try (FileChannel channel = FileChannel.open(Path.of(journalFile), StandardOpenOption.WRITE)) {
+            if (channel.size() > length) {
+                channel.truncate(length);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing a failed write from the appointment journal: " + e.getMessage());
+            damaged = true;
+        }
+    }
+
+    /**
+     * Replays every committed record in the journal, in the order it was written.
+     * Records of a group without a complete commit marker are skipped, since the write that
+     * produced them did not finish. Blank lines are skipped and fields are trimmed; interpreting
+     * each record is left to the handler.
+     *
+     * Anything after the last commit marker is then cut from the file, so the next append
+     * starts on a fresh line instead of continuing a torn record.
+     *
+     * A journal written before commit markers were introduced has no header line; all of its
+     * records are replayed.
+     *
+     * @param handler receives the fields of each record
+     * @return the number of records replayed
+     */
+    public synchronized int replay(Consumer<String[]> handler) {
+        File file = new File(journalFile);
+        if (!file.exists()) {
+            return 0;
+        }
+
+        int count = 0;
+        List<String[]> group = new ArrayList<>();
+        long committedEnd = -1; // Offset just past the last commit marker, or -1 without commit markers
+        try (CsvReader reader = CsvReader.open(file)) {
+            boolean hasRow = reader.nextRow();
+            boolean grouped = hasRow && HEADER.equals(reader.getRow());
+            if (grouped) {
+                committedEnd = reader.getOffset();
+                hasRow = reader.nextRow();
+            }
+
+            for (; hasRow; hasRow = reader.nextRow()) {
+                String[] data = reader.getStrings();
+
+                if (!grouped) {
+                    handler.accept(data);
+                    count++;
+                } else if (data[0].equals(COMMIT_MARKER)) {
+                    if (data.length == 2 && data[1].equals(String.valueOf(group.size()))) {
+                        group.forEach(handler);
+                        count += group.size();
+                    } else {
+                        System.err.println("Skipping damaged appointment journal group: " + reader.getRow());
+                    }
+                    group.clear();
+                    committedEnd = reader.getOffset();
+                } else {
+                    group.add(data);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading appointment journal: " + e.getMessage());
+        }
+
+        if (!group.isEmpty()) {
+            System.err.println("Skipping " + group.size() + " uncommitted appointment journal records.");
+        }
+        if (committedEnd >= 0) {
+            truncateAfter(committedEnd);
+        }
+        entryCount = count;
+        return count;
+    }
+
+    /**
+     * Cuts the journal file after the last commit marker, and ends the marker's line if the
+     * write was torn just before its line break.
+     *
+     * @param committedEnd the offset just past the last commit marker
+     */
+    private void truncateAfter(long committedEnd) {
+        try (FileChannel channel = FileChannel.open(Path.of(journalFile),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean changed = false;
+            if (channel.size() > committedEnd) {
+                System.err.println("Removing " + (channel.size() - committedEnd)
+                        + " uncommitted bytes from the appointment journal.");
+                channel.truncate(committedEnd);
+                changed = true;
+            }
+
+            ByteBuffer last = ByteBuffer.allocate(1);
+            if (committedEnd > 0 && channel.read(last, committedEnd - 1) == 1 && last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(System.lineSeparator().getBytes()), committedEnd);
+                changed = true;
+            }
+            if (changed) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            System.err.println("Error truncating appointment journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes all records from the journal and forces the truncation to disk.
+     * Called once their effects are in a snapshot.
+     */
+    public synchronized void clear() {
+        try (FileChannel channel = FileChannel.open(Path.of(journalFile),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            channel.truncate(0);
+            channel.force(true);
+            entryCount = 0;
+            damaged = false;
+        } catch (IOException e) {
+            System.err.println("Error clearing appointment journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of records currently in the journal.
+     *
+     * @return the number of journal records
+     */
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+}
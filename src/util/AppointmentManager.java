@@ -1,12 +1,34 @@
 package util;
 
 import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentCursor;
+import entity.Appointments.AppointmentEvent;
+import entity.Appointments.AppointmentPage;
 import entity.Appointments.AppointmentSlot;
-import java.io.*;
+import entity.Appointments.AvailabilityTemplate;
+import entity.Appointments.BookingRequest;
+import entity.Appointments.WaitlistEntry;
+import util.storage.AppointmentStore;
+import util.storage.CsvWriter;
+import util.storage.MonthSummary;
+import util.storage.Storage;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,24 +36,63 @@ import java.util.Comparator;
 /**
  * Manages appointment scheduling, storage, and retrieval in the system.
  * Handles loading, saving, and validating appointment data, as well as managing available slots.
+ *
+ * The manager is safe to use from multiple threads. Every change to a doctor's slots or
+ * appointments runs under that doctor's lock stripe, so claiming a slot is atomic and the same
+ * slot can never be booked twice, while bookings for doctors on different stripes proceed in parallel.
+ * The appointment index likewise locks only the stripes of the doctor and the patient involved,
+ * and changes are queued for the journal without taking a lock.
  */
 public class AppointmentManager {
-    private static final String APPOINTMENTS_FILE = "data/appointment_slots.csv"; // File storing appointment data
-    private static final String SLOTS_FILE = "data/appointment.csv"; // File storing available slots
+    private static final String MAINTENANCE_INTERVAL_PROPERTY = "hms.slotMaintenanceMinutes"; // Minutes between slot archiving runs; 0 disables
+    private static final long DEFAULT_MAINTENANCE_INTERVAL = 60; // Default minutes between slot archiving runs
+    private static final int TEMPLATE_LOOKAHEAD_DAYS = 28; // How far ahead recurring slots are listed
+    private static final int COMPACTION_THRESHOLD = 500; // Journal records that trigger a new snapshot
+    private static final String APPOINTMENT_RECORD = "APPOINTMENT";
+    private static final String SLOT_RECORD = "SLOT";
+    private static final String WAITLIST_RECORD = "WAITLIST";
+    private static final int LOCK_STRIPES = 64; // Number of locks shared among all doctors
+    private static final String SLOT_STORE_PROPERTY = "hms.slotStore"; // Set to "bitmap" to store slots as day bitmaps
     private static AppointmentManager instance;
 
-    private final List<Appointment> appointments; // List of all appointments
-    private final List<AppointmentSlot> availableSlots; // List of available appointment slots
+    private final AppointmentIndex appointmentIndex; // All appointments, indexed by ID, patient, doctor, status and date
+    private final SlotStore slotStore; // Appointment slots by doctor and start time
+    private final AppointmentStore store; // Snapshot, journal, slots, templates and waitlist storage
+    private final Object journalLock; // Held while appending to or compacting the journal
+    private final Deque<PendingChange> pendingChanges; // Changes not yet in the journal, oldest first
+    private final NavigableMap<YearMonth, MonthSummary> unloadedMonths; // Stored months not yet in the index and their summaries, guarded by itself
+    private final ReentrantLock[] doctorLocks; // Lock stripes guarding per-doctor slot and appointment changes
+    private final Map<String, List<AvailabilityTemplate>> templatesByDoctor; // Recurring availability rules per doctor
+    private final Waitlist waitlist; // Patients waiting for a slot, by doctor and day
+    private final AtomicLong archivedSlotCount; // Slots archived since startup
+    private final SubmissionPublisher<AppointmentEvent> eventPublisher; // Delivers appointment changes to live subscribers
+    private final AtomicLong eventSequence; // Sequence number of the last published event
     private final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     
     /**
-     * Private constructor to prevent instantiation. Initializes lists and loads data from files.
+     * Private constructor to prevent instantiation. Initializes indexes and loads data from storage.
      */
     private AppointmentManager() {
-        appointments = new ArrayList<>();
-        availableSlots = new ArrayList<>();
+        appointmentIndex = new AppointmentIndex();
+        slotStore = "bitmap".equalsIgnoreCase(System.getProperty(SLOT_STORE_PROPERTY))
+                ? new BitmapSlotStore()
+                : new SlotIndex();
+        store = Storage.getInstance().getAppointmentStore();
+        journalLock = new Object();
+        pendingChanges = new ConcurrentLinkedDeque<>();
+        unloadedMonths = new TreeMap<>();
+        templatesByDoctor = new ConcurrentHashMap<>();
+        waitlist = new Waitlist();
+        archivedSlotCount = new AtomicLong();
+        eventPublisher = new SubmissionPublisher<>();
+        eventSequence = new AtomicLong();
+        doctorLocks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            doctorLocks[i] = new ReentrantLock();
+        }
         loadData();
+        scheduleSlotMaintenance();
     }
 
         /**
@@ -39,192 +100,691 @@ public class AppointmentManager {
      *
      * @return the instance of AppointmentManager
      */
-    public static AppointmentManager getInstance() {
+    public static synchronized AppointmentManager getInstance() {
         if (instance == null) {
             instance = new AppointmentManager();
+            Checkpoint.register(instance::checkpoint);
         }
         return instance;
     }
 
     // Data Loading Methods
         /**
-     * Loads appointment data from the file and populates the appointments list.
+     * Loads appointment data from the stored snapshot, then replays the journal on top of it.
+     * Any replayed changes are folded into a fresh snapshot straight away.
      */
     private void loadData() {
         loadAppointments();
         loadSlots();
+        loadTemplates();
+        loadWaitlist();
+        if (store.replayJournal(this::applyJournalRecord) > 0) {
+            compact();
+        }
     }
 
-        /**
-     * Loads appointments from the file and adds them to the appointments list.
+    /**
+     * Applies a single journal record to the in-memory indexes.
+     * Appointment records replace the appointment with the same ID, after loading the months
+     * holding the stored copy and the new date, so the summaries of unloaded months never
+     * describe an appointment that is already in the index; slot records
+     * update the matching slot or add it if it does not exist yet; waitlist records
+     * add or remove a waiting patient.
+     *
+     * @param data the fields of the journal record
+     */
+    private void applyJournalRecord(String[] data) {
+        try {
+            if (data[0].equals(APPOINTMENT_RECORD) && data.length >= 7) {
+                Appointment appointment = new Appointment(data[1].trim(), data[2].trim(), data[3].trim(),
+                        LocalDateTime.parse(data[4].trim(), formatter), data[5].trim());
+                appointment.setStatus(Appointment.AppointmentStatus.valueOf(data[6].trim()));
+                loadMonthsWhere(summary -> summary.containsAppointment(appointment.getAppointmentId()));
+                loadMonth(YearMonth.from(appointment.getDateTime()));
+                appointmentIndex.add(appointment);
+            } else if (data[0].equals(SLOT_RECORD) && data.length >= 4) {
+                String doctorId = data[1].trim();
+                LocalDateTime startTime = LocalDateTime.parse(data[2].trim(), formatter);
+                AppointmentSlot slot = new AppointmentSlot(doctorId, startTime);
+                slot.setAvailable(Boolean.parseBoolean(data[3].trim()));
+                slotStore.add(slot);
+            } else if (data[0].equals(WAITLIST_RECORD) && data.length >= 7) {
+                WaitlistEntry entry = new WaitlistEntry(data[1].trim(), data[2].trim(),
+                        LocalDate.parse(data[3].trim()), data[4].trim(), LocalDateTime.parse(data[5].trim(), formatter));
+                if (Boolean.parseBoolean(data[6].trim())) {
+                    waitlist.add(entry);
+                } else {
+                    waitlist.remove(entry.getPatientId(), entry.getDoctorId(), entry.getDate());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Skipping invalid journal record: " + String.join(",", data));
+        }
+    }
+
+    /**
+     * Loads the appointment partitions of the current and future months. Earlier months are
+     * only loaded when a query needs them; until then only their summaries are read, which
+     * tell which of them a query needs.
      */
     private void loadAppointments() {
-        File file = new File(APPOINTMENTS_FILE);
-        if (!file.exists() || file.length() == 0) {
-            createAppointmentsFile();
-            return;
+        YearMonth currentMonth = YearMonth.now();
+        synchronized (unloadedMonths) {
+            for (YearMonth month : store.getMonths()) {
+                if (month.isBefore(currentMonth)) {
+                    unloadedMonths.put(month, store.summarizeMonth(month));
+                } else {
+                    appointmentIndex.addAllIfAbsent(store.readMonth(month));
+                }
+            }
         }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String header = reader.readLine();
-            if (header == null){
+    /**
+     * Loads the appointments of a month into the index if they have not been loaded yet.
+     * Stored appointments whose ID is already indexed are outdated copies, so the month
+     * is marked as changed to have them removed at the next compaction.
+     *
+     * @param month the month to load
+     */
+    private void loadMonth(YearMonth month) {
+        synchronized (unloadedMonths) {
+            if (unloadedMonths.remove(month) == null) {
                 return;
             }
+            if (!appointmentIndex.addAllIfAbsent(store.readMonth(month))) {
+                appointmentIndex.markChanged(month);
+            }
+        }
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+    /**
+     * Loads the months overlapping a date range that have not been loaded yet.
+     *
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     */
+    private void loadMonths(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            loadMonth(month);
+        }
+    }
 
-                String[] data = line.split(",");
-                if (data.length <6){
-                    continue;
+    /**
+     * Loads the months not loaded yet whose summary shows that a query needs them.
+     *
+     * @param needed tells from a month's summary whether the month is needed
+     */
+    private void loadMonthsWhere(Predicate<MonthSummary> needed) {
+        synchronized (unloadedMonths) {
+            for (MonthSummary summary : new ArrayList<>(unloadedMonths.values())) {
+                if (needed.test(summary)) {
+                    loadMonth(summary.getMonth());
                 }
-
-                try{
-                    String appointmentId = data[0].trim();
-                    String patientId = data[1].trim();
-                    String doctorId = data[2].trim();
-                    LocalDateTime dateTime = LocalDateTime.parse(data[3].trim(), formatter);
-                    String type = data[4].trim();
-                    Appointment.AppointmentStatus status =
-                            Appointment.AppointmentStatus.valueOf(data[5].trim());
-
-                    Appointment appointment = new Appointment(appointmentId, patientId,
-                            doctorId, dateTime, type);
-                    appointment.setStatus(status);
-                    appointments.add(appointment);
-                } catch (Exception e){continue;}
             }
-        } catch (IOException e) {
-            System.err.println("Error loading appointments: " + e.getMessage());
-
-            createAppointmentsFile();
         }
     }
 
-        /**
-     * Loads available appointment slots from the file and adds them to the availableSlots list.
+    /**
+     * Loads every appointment partition that has not been loaded yet.
+     * Called by queries that can return appointments from any month.
+     */
+    private void loadHistory() {
+        loadMonthsWhere(summary -> true);
+    }
+
+    /**
+     * Loads the stored appointment slots into the slot index.
      */
     private void loadSlots() {
-        File file = new File(SLOTS_FILE);
-        if (!file.exists()) {
-            createSlotsFile();
-            return;
-        }
+        store.loadSlots().forEach(slotStore::add);
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            reader.readLine(); // Skip header
+    /**
+     * Loads the stored recurring availability templates, grouped by doctor.
+     */
+    private void loadTemplates() {
+        for (AvailabilityTemplate template : store.loadTemplates()) {
+            templatesByDoctor.computeIfAbsent(template.getDoctorId(), id -> new CopyOnWriteArrayList<>())
+                    .add(template);
+        }
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+    /**
+     * Loads the stored waitlist, keeping the order in which patients joined.
+     */
+    private void loadWaitlist() {
+        store.loadWaitlist().forEach(waitlist::add);
+    }
 
-                String[] data = line.split(",");
-                String doctorId = data[0].trim();
-                LocalDateTime startTime = LocalDateTime.parse(data[1].trim(), formatter);
-                boolean isAvailable = Boolean.parseBoolean(data[2].trim());
+    // Data Saving Methods
 
-                AppointmentSlot slot = new AppointmentSlot(doctorId, startTime);
-                slot.setAvailable(isAvailable);
-                availableSlots.add(slot);
+    
+    /**
+     * Saves the appointment partitions of every month that changed since it was last saved.
+     * A changed month is loaded first, so rewriting it does not drop appointments that were
+     * never read into memory. A month that fails to save stays marked as changed.
+     *
+     * @return {@code true} if every changed month was saved, {@code false} otherwise
+     */
+    private boolean saveAppointments() {
+        boolean saved = true;
+        for (YearMonth month : appointmentIndex.drainChangedMonths()) {
+            loadMonth(month);
+            if (!store.writeMonth(month, appointmentIndex.getByMonth(month))) {
+                appointmentIndex.markChanged(month);
+                saved = false;
             }
-        } catch (IOException e) {
-            System.err.println("Error loading slots: " + e.getMessage());
         }
+        return saved;
+    }
+
+    
+    /**
+     * Saves the current slots to storage.
+     *
+     * @return {@code true} if the slots were saved, {@code false} otherwise
+     */
+    private boolean saveSlots() {
+        return store.saveSlots(slotStore.getAll());
+    }
+
+    /**
+     * Saves all recurring availability templates to storage.
+     * Templates are few and small, so they are simply rewritten.
+     */
+    private synchronized void saveTemplates() {
+        List<AvailabilityTemplate> templates = new ArrayList<>();
+        templatesByDoctor.values().forEach(templates::addAll);
+        store.saveTemplates(templates);
     }
 
+    /**
+     * Saves the waitlist to storage.
+     *
+     * @return {@code true} if the waitlist was saved, {@code false} otherwise
+     */
+    private boolean saveWaitlist() {
+        return store.saveWaitlist(waitlist.getAll());
+    }
 
-    // File Creation Methods
+    // Journal Methods
 
-        /**
-     * Creates the appointments file with the necessary header if it does not exist.
+    /**
+     * Formats an appointment as a journal record.
+     *
+     * @param appointment the appointment to record
+     * @return the journal record
      */
-    private void createAppointmentsFile() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(APPOINTMENTS_FILE))) {
-            writer.println("AppointmentId,PatientId,DoctorId,DateTime,Type,Status");
-        } catch (IOException e) {
-            System.err.println("Error creating appointments file: " + e.getMessage());
+    private String appointmentRecord(Appointment appointment) {
+        return CsvWriter.formatRow(APPOINTMENT_RECORD,
+                appointment.getAppointmentId(),
+                appointment.getPatientId(),
+                appointment.getDoctorId(),
+                appointment.getDateTime().format(formatter),
+                appointment.getType(),
+                appointment.getStatus());
+    }
+
+    /**
+     * Formats a waitlist change as a journal record.
+     *
+     * @param entry   the waitlist entry
+     * @param waiting {@code true} if the patient joined the waitlist, {@code false} if they left it
+     * @return the journal record
+     */
+    private String waitlistRecord(WaitlistEntry entry, boolean waiting) {
+        return CsvWriter.formatRow(WAITLIST_RECORD,
+                entry.getPatientId(),
+                entry.getDoctorId(),
+                entry.getDate(),
+                entry.getType(),
+                entry.getRequestedAt().format(formatter),
+                waiting);
+    }
+
+    /**
+     * Formats a slot's availability as a journal record.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @param available whether the slot is available
+     * @return the journal record
+     */
+    private String slotRecord(String doctorId, LocalDateTime startTime, boolean available) {
+        return CsvWriter.formatRow(SLOT_RECORD,
+                doctorId,
+                startTime.format(formatter),
+                available);
+    }
+
+    /**
+     * Persists a group of changes through {@link WriteBehind}.
+     *
+     * @param records the journal records describing the change
+     * @return {@code false} if the change had to be saved straight away and could not be,
+     *         {@code true} otherwise
+     */
+    private boolean persist(List<String> records) {
+        return persist(records, List.of());
+    }
+
+    /**
+     * Persists a group of changes and the events describing them through {@link WriteBehind}.
+     * The records wait with any others until the next flush, which appends them all to the
+     * journal as one group and then publishes their events. Queueing the change takes no lock,
+     * so bookings for different doctors do not wait for each other here.
+     * Events are only published once the change is in the journal, so a subscriber never
+     * sees a change that would be lost on restart.
+     *
+     * Under {@link WriteBehind.Durability#SHUTDOWN} the journal is not flushed until exit, so
+     * waiting for it would leave live subscribers without updates. There the events are
+     * published straight away instead, and a subscriber may see a change that a crash loses,
+     * just as the caller may.
+     *
+     * Under {@link WriteBehind.Durability#SYNC} the change is flushed before this returns, and
+     * the result tells whether it reached disk. A change that did not stays applied in memory and
+     * pending, and is written by a later flush or compaction.
+     *
+     * @param records the journal records describing the change
+     * @param events  the events describing the change
+     * @return {@code false} if the change was flushed straight away and could not be saved,
+     *         {@code true} otherwise
+     */
+    private boolean persist(List<String> records, List<AppointmentEvent> events) {
+        WriteBehind writeBehind = WriteBehind.getInstance();
+        boolean publishNow = writeBehind.getDurability() == WriteBehind.Durability.SHUTDOWN;
+        pendingChanges.addLast(new PendingChange(records, publishNow ? List.of() : events));
+        if (publishNow) {
+            events.forEach(this::publish);
         }
+        if (writeBehind.getDurability() == WriteBehind.Durability.SYNC) {
+            return flushJournal();
+        }
+        writeBehind.markDirty("appointment_journal", this::flushJournal);
+        return true;
     }
 
-    
     /**
-     * Creates the slots file with the necessary header if it does not exist.
+     * Appends every pending journal record in one write and publishes their events,
+     * compacting the journal once it grows past {@link #COMPACTION_THRESHOLD} records.
+     * Changes from several calls are committed together, so they share a single sync to disk.
+     *
+     * If the journal cannot be written, the changes are saved by compacting instead. If that
+     * fails too, the records and their events stay pending and nothing is published; unless
+     * flushes are synchronous, another flush is scheduled to try again.
+     *
+     * @return {@code true} if the pending changes were saved, {@code false} otherwise
      */
-    private void createSlotsFile() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(SLOTS_FILE))) {
-            writer.println("DoctorId,StartTime,IsAvailable");
-        } catch (IOException e) {
-            System.err.println("Error creating slots file: " + e.getMessage());
+    private boolean flushJournal() {
+        boolean appended;
+        List<PendingChange> changes;
+        synchronized (journalLock) {
+            changes = takePendingChanges();
+            appended = changes.isEmpty() || store.appendToJournal(recordsOf(changes));
+            if (!appended) {
+                restorePendingChanges(changes);
+            }
         }
+        if (!appended) {
+            System.err.println("Appointment journal could not be written; saving a full snapshot instead.");
+            if (compact()) {
+                return true;
+            }
+            WriteBehind writeBehind = WriteBehind.getInstance();
+            if (writeBehind.getDurability() != WriteBehind.Durability.SYNC) {
+                writeBehind.markDirty("appointment_journal", this::flushJournal);
+            }
+            return false;
+        }
+        changes.forEach(change -> change.events.forEach(this::publish));
+        if (store.getJournalEntryCount() >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+        return true;
     }
 
-    // Data Saving Methods
+    /**
+     * Creates an event describing a change to an appointment, with the next sequence number.
+     *
+     * @param type             the kind of change
+     * @param appointment      the appointment after the change
+     * @param previousDateTime the date and time before a reschedule, or {@code null}
+     * @param previousStatus   the status before the change, or {@code null} for a new appointment
+     * @return the new event
+     */
+    private AppointmentEvent event(AppointmentEvent.Type type, Appointment appointment,
+                                   LocalDateTime previousDateTime, Appointment.AppointmentStatus previousStatus) {
+        return new AppointmentEvent(eventSequence.incrementAndGet(), type, appointment,
+                previousDateTime, previousStatus);
+    }
 
-    
     /**
-     * Saves the current appointments list to the appointments file.
+     * Delivers an event to every subscriber without waiting. A subscriber whose buffer is full
+     * misses the event instead of holding up the booking; it can tell from the gap in
+     * sequence numbers.
+     *
+     * @param event the event to deliver
      */
-    private void saveAppointments() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(APPOINTMENTS_FILE))) {
-            writer.println("AppointmentId,PatientId,DoctorId,DateTime,Type,Status");
+    private void publish(AppointmentEvent event) {
+        eventPublisher.offer(event, null);
+    }
 
-            for (Appointment appointment : appointments) {
-                writer.printf("%s,%s,%s,%s,%s,%s%n",
-                        appointment.getAppointmentId(),
-                        appointment.getPatientId(),
-                        appointment.getDoctorId(),
-                        appointment.getDateTime().format(formatter),
-                        appointment.getType(),
-                        appointment.getStatus()
-                );
+    /**
+     * Writes a snapshot of the changed appointment months and all slots, then clears the journal.
+     * Appends are blocked while this runs. The changes pending when it starts are taken first,
+     * and are dropped once the snapshot is saved, since it already holds them; their events are
+     * then published. Changes made while the snapshot is written stay pending, so they are still
+     * written to the cleared journal.
+     *
+     * If any part of the snapshot fails to save, the journal is kept and the pending records are
+     * appended to it instead, so the changes can still be replayed; the next compaction retries.
+     * If they cannot be appended either, they stay pending with their events unpublished.
+     *
+     * Compaction also serves as the periodic self-check of the running appointment statistics.
+     *
+     * @return {@code true} if the snapshot was saved and the journal cleared, {@code false} otherwise
+     */
+    private boolean compact() {
+        boolean saved;
+        List<PendingChange> changes;
+        boolean durable;
+        synchronized (journalLock) {
+            changes = takePendingChanges();
+            // Attempt every save even after one fails, so as much as possible is written
+            saved = saveAppointments() & saveSlots() & saveWaitlist();
+            durable = saved;
+            if (saved) {
+                store.clearJournal();
+            } else {
+                System.err.println("Appointment data could not be saved; keeping the journal.");
+                durable = changes.isEmpty() || store.appendToJournal(recordsOf(changes));
+            }
+            if (!durable) {
+                restorePendingChanges(changes);
             }
-        } catch (IOException e) {
-            System.err.println("Error saving appointments: " + e.getMessage());
         }
+        if (durable) {
+            changes.forEach(change -> change.events.forEach(this::publish));
+        }
+        if (!appointmentIndex.verifyStatistics()) {
+            System.err.println("Appointment statistics were out of date and have been rebuilt.");
+        }
+        return saved;
     }
 
-    
     /**
-     * Saves the current available slots list to the slots file.
+     * Compacts the journal, then records every loaded month and all slots in the storage
+     * snapshot, so the next start can load them without parsing. Months that were never
+     * loaded keep their earlier snapshot, as long as their partitions have not changed.
+     * Nothing is recorded if compaction fails, since the snapshot must match the saved files.
      */
-    private void saveSlots() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(SLOTS_FILE))) {
-            writer.println("DoctorId,StartTime,IsAvailable");
-
-            for (AppointmentSlot slot : availableSlots) {
-                writer.printf("%s,%s,%b%n",
-                        slot.getDoctorId(),
-                        slot.getStartTime().format(formatter),
-                        slot.isAvailable()
-                );
+    public void checkpoint() {
+        synchronized (journalLock) {
+            if (!compact()) {
+                return;
+            }
+            synchronized (unloadedMonths) {
+                for (YearMonth month : store.getMonths()) {
+                    if (!unloadedMonths.containsKey(month)) {
+                        store.checkpointMonth(month, appointmentIndex.getByMonth(month));
+                    }
+                }
             }
-        } catch (IOException e) {
-            System.err.println("Error saving slots: " + e.getMessage());
+            store.checkpointSlots(slotStore.getAll());
+        }
+    }
+
+    /**
+     * Takes every queued change, oldest first. Only called under the journal lock, so changes
+     * are taken by one flush or compaction at a time.
+     *
+     * @return the changes taken
+     */
+    private List<PendingChange> takePendingChanges() {
+        List<PendingChange> changes = new ArrayList<>();
+        for (PendingChange change = pendingChanges.pollFirst(); change != null; change = pendingChanges.pollFirst()) {
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    /**
+     * Puts changes that could not be written back at the front of the queue, in their original
+     * order, ahead of any change queued since they were taken.
+     *
+     * @param changes the changes to put back
+     */
+    private void restorePendingChanges(List<PendingChange> changes) {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            pendingChanges.addFirst(changes.get(i));
         }
     }
 
+    private static List<String> recordsOf(List<PendingChange> changes) {
+        List<String> records = new ArrayList<>();
+        changes.forEach(change -> records.addAll(change.records));
+        return records;
+    }
+
+    /**
+     * Gets the lock stripe that guards the slots and appointments of a doctor.
+     *
+     * @param doctorId the ID of the doctor
+     * @return the lock for the doctor
+     */
+    private ReentrantLock lockFor(String doctorId) {
+        return doctorLocks[Math.floorMod(doctorId.hashCode(), LOCK_STRIPES)];
+    }
+
     // Public Methods for Appointment Management
 
     
     /**
      * Retrieves a list of available slots for a given doctor.
+     * Includes stored slots and, for the next {@value #TEMPLATE_LOOKAHEAD_DAYS} days,
+     * slots generated from the doctor's recurring availability templates.
      *
      * @param doctorId the ID of the doctor
      * @return a list of available appointment slots
      */
     public List<AppointmentSlot> getAvailableSlots(String doctorId) {
-        return availableSlots.stream()
-                .filter(slot -> slot.getDoctorId().equals(doctorId) &&
-                        slot.isAvailable() &&
-                        slot.getStartTime().isAfter(LocalDateTime.now()))
-                .sorted(Comparator.comparing(AppointmentSlot::getStartTime))
-                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<AppointmentSlot> storedSlots = slotStore.getAvailableAfter(doctorId, now);
+        List<AvailabilityTemplate> templates = templatesByDoctor.get(doctorId);
+        if (templates == null || templates.isEmpty()) {
+            return storedSlots;
+        }
+
+        // A stored slot always takes precedence over a generated one at the same time
+        NavigableMap<LocalDateTime, AppointmentSlot> merged = new TreeMap<>();
+        LocalDateTime horizon = now.plusDays(TEMPLATE_LOOKAHEAD_DAYS);
+        for (AvailabilityTemplate template : templates) {
+            for (LocalDateTime occurrence : template.getOccurrences(now, horizon)) {
+                if (slotStore.find(doctorId, occurrence) == null) {
+                    merged.putIfAbsent(occurrence, new AppointmentSlot(doctorId, occurrence));
+                }
+            }
+        }
+        for (AppointmentSlot slot : storedSlots) {
+            merged.put(slot.getStartTime(), slot);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Finds the earliest available slots across all doctors.
+     *
+     * Each doctor's slots are already sorted, so this is a k-way merge: a priority queue holds
+     * the next free slot of every doctor, and each slot taken from the queue is replaced by the
+     * following free slot of the same doctor. Only about {@code count} slots are ever examined
+     * beyond one per doctor, no matter how many slots are stored.
+     *
+     * @param count  the maximum number of slots to return
+     * @param after  the exclusive lower bound for the slot start time, or {@code null} for now
+     * @param before the exclusive upper bound for the slot start time, or {@code null} for no limit
+     * @return up to {@code count} available slots, ordered by start time and then doctor ID
+     */
+    public List<AppointmentSlot> getEarliestAvailableSlots(int count, LocalDateTime after, LocalDateTime before) {
+        LocalDateTime from = after == null ? LocalDateTime.now() : after;
+        PriorityQueue<AppointmentSlot> heads = new PriorityQueue<>(
+                Comparator.comparing(AppointmentSlot::getStartTime).thenComparing(AppointmentSlot::getDoctorId));
+
+        Set<String> doctorIds = new HashSet<>(slotStore.getDoctorIds());
+        doctorIds.addAll(templatesByDoctor.keySet());
+        for (String doctorId : doctorIds) {
+            AppointmentSlot head = nextAvailableSlot(doctorId, from, before);
+            if (head != null) {
+                heads.add(head);
+            }
+        }
+
+        List<AppointmentSlot> result = new ArrayList<>(count);
+        while (result.size() < count && !heads.isEmpty()) {
+            AppointmentSlot slot = heads.poll();
+            result.add(slot);
+            AppointmentSlot next = nextAvailableSlot(slot.getDoctorId(), slot.getStartTime(), before);
+            if (next != null) {
+                heads.add(next);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds a doctor's first available slot after the given time, whether stored or generated
+     * from a recurring availability template. Generated slots are limited to the
+     * {@value #TEMPLATE_LOOKAHEAD_DAYS}-day lookahead used by {@link #getAvailableSlots}.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @param before   the exclusive upper bound for the slot start time, or {@code null} for no limit
+     * @return the first available slot, or {@code null} if there is none
+     */
+    private AppointmentSlot nextAvailableSlot(String doctorId, LocalDateTime after, LocalDateTime before) {
+        AppointmentSlot next = slotStore.findFirstAvailableAfter(doctorId, after);
+
+        List<AvailabilityTemplate> templates = templatesByDoctor.get(doctorId);
+        if (templates != null) {
+            LocalDateTime horizon = LocalDateTime.now().plusDays(TEMPLATE_LOOKAHEAD_DAYS);
+            for (AvailabilityTemplate template : templates) {
+                // A stored slot at the same time takes precedence, whether it is free or not
+                LocalDateTime occurrence = template.nextOccurrence(after);
+                while (occurrence != null && occurrence.isBefore(horizon)
+                        && slotStore.find(doctorId, occurrence) != null) {
+                    occurrence = template.nextOccurrence(occurrence);
+                }
+                if (occurrence != null && occurrence.isBefore(horizon)
+                        && (next == null || occurrence.isBefore(next.getStartTime()))) {
+                    next = new AppointmentSlot(doctorId, occurrence);
+                }
+            }
+        }
+
+        if (next == null || (before != null && !next.getStartTime().isBefore(before))) {
+            return null;
+        }
+        return next;
+    }
+
+    /**
+     * Adds a recurring availability template for a doctor. Slots described by the template
+     * are generated on demand and are only stored individually once they are booked.
+     *
+     * @param template the availability template to add
+     * @return {@code true} after the template has been added
+     */
+    public boolean addAvailabilityTemplate(AvailabilityTemplate template) {
+        ReentrantLock lock = lockFor(template.getDoctorId());
+        lock.lock();
+        try {
+            templatesByDoctor.computeIfAbsent(template.getDoctorId(), id -> new CopyOnWriteArrayList<>())
+                    .add(template);
+            WriteBehind.getInstance().markDirty("availability_templates", this::saveTemplates);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the recurring availability templates of a doctor.
+     *
+     * @param doctorId the ID of the doctor
+     * @return a list of the doctor's templates
+     */
+    public List<AvailabilityTemplate> getAvailabilityTemplates(String doctorId) {
+        List<AvailabilityTemplate> templates = templatesByDoctor.get(doctorId);
+        return templates == null ? new ArrayList<>() : new ArrayList<>(templates);
+    }
+
+    /**
+     * Checks whether a doctor has an open slot at the given time, either stored
+     * or generated from a recurring availability template.
+     *
+     * @param doctorId the ID of the doctor
+     * @param dateTime the start time of the slot
+     * @return {@code true} if the slot exists and is available, {@code false} otherwise
+     */
+    private boolean isSlotAvailable(String doctorId, LocalDateTime dateTime) {
+        AppointmentSlot slot = slotStore.find(doctorId, dateTime);
+        if (slot != null) {
+            return slot.isAvailable();
+        }
+        return isCoveredByTemplate(doctorId, dateTime);
+    }
+
+    /**
+     * Finds a doctor's slot at the given time. If no slot is stored but a recurring
+     * availability template covers the time, a free slot is created for it. The created slot
+     * is not stored; {@link #occupySlot} stores it once a booking has actually claimed it, so a
+     * booking that fails its later checks leaves nothing behind. The caller must hold the
+     * doctor's lock.
+     *
+     * @param doctorId the ID of the doctor
+     * @param dateTime the start time of the slot
+     * @return the slot, or {@code null} if the doctor has no slot at that time
+     */
+    private AppointmentSlot findOrCreateSlot(String doctorId, LocalDateTime dateTime) {
+        AppointmentSlot slot = slotStore.find(doctorId, dateTime);
+        if (slot == null && isCoveredByTemplate(doctorId, dateTime)) {
+            slot = new AppointmentSlot(doctorId, dateTime);
+        }
+        return slot;
+    }
+
+    /**
+     * Marks a doctor's slot as taken, storing it first if it was created from a template by
+     * {@link #findOrCreateSlot}. The caller must hold the doctor's lock.
+     *
+     * @param doctorId the ID of the doctor
+     * @param dateTime the start time of the slot
+     */
+    private void occupySlot(String doctorId, LocalDateTime dateTime) {
+        if (!slotStore.setAvailable(doctorId, dateTime, false)) {
+            AppointmentSlot slot = new AppointmentSlot(doctorId, dateTime);
+            slot.setAvailable(false);
+            slotStore.add(slot);
+        }
+    }
+
+    /**
+     * Checks whether any of a doctor's recurring availability templates covers the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param dateTime the start time to check
+     * @return {@code true} if a template generates a slot at that time
+     */
+    private boolean isCoveredByTemplate(String doctorId, LocalDateTime dateTime) {
+        List<AvailabilityTemplate> templates = templatesByDoctor.get(doctorId);
+        return templates != null && templates.stream().anyMatch(t -> t.covers(dateTime));
     }
 
     
     /**
-     * Schedules an appointment if the slot is available.
+     * Schedules an appointment if the slot is available and the appointment would not overlap
+     * another active appointment of the patient or the doctor. The appointment lasts as long
+     * as its {@link entity.Appointments.AppointmentType} specifies.
      *
      * @param patientId the ID of the patient
      * @param doctorId  the ID of the doctor
@@ -234,52 +794,137 @@ public class AppointmentManager {
      */
     public boolean scheduleAppointment(String patientId, String doctorId,
                                        LocalDateTime dateTime, String type) {
-        Optional<AppointmentSlot> slot = availableSlots.stream()
-                .filter(s -> s.getDoctorId().equals(doctorId) &&
-                        s.getStartTime().equals(dateTime) &&
-                        s.isAvailable())
-                .findFirst();
-
-        if (slot.isEmpty()) return false;
-
-        String appointmentId = generateAppointmentId();
-        Appointment appointment = new Appointment(appointmentId, patientId,
-                doctorId, dateTime, type);
-        appointments.add(appointment);
-        slot.get().setAvailable(false);
-
-        saveAppointments();
-        saveSlots();
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            List<String> records = new ArrayList<>();
+            List<AppointmentEvent> events = new ArrayList<>();
+            if (!claimSlot(patientId, doctorId, dateTime, type, records, events)) return false;
+
+            return persist(records, events);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules a batch of appointments and persists all successful bookings in a single write.
+     *
+     * The lock stripes of every doctor in the batch are held, in a fixed order, until the batch is
+     * persisted, so the journal records of the batch cannot interleave with other changes to the
+     * same doctors. Each request succeeds or fails on its own; a request fails if its slot does not
+     * exist or is already taken, including by an earlier request in the same batch.
+     *
+     * @param requests the bookings to make
+     * @return a list with one entry per request, in the same order, that is {@code true}
+     *         if that request was booked and saved and {@code false} otherwise
+     */
+    public List<Boolean> scheduleAppointments(List<BookingRequest> requests) {
+        int[] stripes = requests.stream()
+                .mapToInt(request -> Math.floorMod(request.getDoctorId().hashCode(), LOCK_STRIPES))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int stripe : stripes) {
+            doctorLocks[stripe].lock();
+        }
+        try {
+            List<Boolean> results = new ArrayList<>(requests.size());
+            List<String> records = new ArrayList<>();
+            List<AppointmentEvent> events = new ArrayList<>();
+            for (BookingRequest request : requests) {
+                results.add(claimSlot(request.getPatientId(), request.getDoctorId(),
+                        request.getDateTime(), request.getType(), records, events));
+            }
+
+            if (!persist(records, events)) {
+                // The bookings are kept and saved later, but none can be confirmed as saved now
+                Collections.fill(results, false);
+            }
+            return results;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                doctorLocks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Claims a slot and creates the appointment for it without persisting the change.
+     * The caller must hold the doctor's lock and persist the collected records and events.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor
+     * @param dateTime  the date and time of the appointment
+     * @param type      the type of appointment
+     * @param records   collects the journal records describing the booking
+     * @param events    collects the events describing the booking
+     * @return {@code true} if the slot was claimed, {@code false} if it is missing or taken,
+     *         or the appointment would overlap another one
+     */
+    private boolean claimSlot(String patientId, String doctorId, LocalDateTime dateTime,
+                              String type, List<String> records, List<AppointmentEvent> events) {
+        AppointmentSlot slot = findOrCreateSlot(doctorId, dateTime);
+
+        if (slot == null || !slot.isAvailable()) return false;
+
+        Appointment appointment;
+        try {
+            appointment = appointmentIndex.addIfNoConflict(patientId, doctorId, dateTime, type,
+                    this::generateAppointmentId);
+        } catch (IllegalStateException e) {
+            System.err.println("Error booking appointment: " + e.getMessage());
+            return false;
+        }
+        if (appointment == null) return false;
+        occupySlot(doctorId, dateTime);
+
+        records.add(appointmentRecord(appointment));
+        records.add(slotRecord(doctorId, dateTime, false));
+        events.add(event(AppointmentEvent.Type.CREATED, appointment, null, null));
         return true;
     }
 
     
     /**
-     * Cancels an appointment and makes the associated slot available again.
+     * Cancels an appointment and makes the associated slot available again. An appointment that
+     * is already cancelled or completed is left as it is, since its slot may have been booked again.
      *
      * @param appointmentId the ID of the appointment to cancel
-     * @return {@code true} if the appointment was cancelled successfully, {@code false} otherwise
+     * @return {@code true} if the appointment was cancelled successfully, {@code false} if it was
+     *         not found or is already cancelled or completed
      */
     public boolean cancelAppointment(String appointmentId) {
-        Optional<Appointment> appointment = appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst();
+        Appointment appointment = findAppointment(appointmentId);
 
-        if (appointment.isEmpty()) return false;
+        if (appointment == null) return false;
 
-        appointment.get().setStatus(Appointment.AppointmentStatus.CANCELLED);
+        ReentrantLock lock = lockFor(appointment.getDoctorId());
+        lock.lock();
+        try {
+            Appointment.AppointmentStatus previousStatus = appointment.getStatus();
+            if (previousStatus == Appointment.AppointmentStatus.CANCELLED ||
+                    previousStatus == Appointment.AppointmentStatus.COMPLETED) {
+                return false;
+            }
+            appointmentIndex.updateStatus(appointment, Appointment.AppointmentStatus.CANCELLED);
 
-        // Make slot available again
-        Optional<AppointmentSlot> slot = availableSlots.stream()
-                .filter(s -> s.getDoctorId().equals(appointment.get().getDoctorId()) &&
-                        s.getStartTime().equals(appointment.get().getDateTime()))
-                .findFirst();
+            List<String> records = new ArrayList<>();
+            List<AppointmentEvent> events = new ArrayList<>();
+            records.add(appointmentRecord(appointment));
+            events.add(event(AppointmentEvent.Type.CANCELLED, appointment, null, previousStatus));
 
-        slot.ifPresent(s -> s.setAvailable(true));
+            // Make slot available again, offering it to the waitlist first
+            if (slotStore.setAvailable(appointment.getDoctorId(), appointment.getDateTime(), true)) {
+                records.add(slotRecord(appointment.getDoctorId(), appointment.getDateTime(), true));
+                backfill(appointment.getDoctorId(), appointment.getDateTime(), records, events);
+            }
 
-        saveAppointments();
-        saveSlots();
-        return true;
+            return persist(records, events);
+        } finally {
+            lock.unlock();
+        }
     }
 
         // Additional Methods for Appointment Management
@@ -291,10 +936,8 @@ public class AppointmentManager {
      * @return a list of appointments for the doctor
      */
     public List<Appointment> getAppointmentsForDoctor(String doctorId) {
-        return appointments.stream()
-                .filter(a -> a.getDoctorId().equals(doctorId))
-                .sorted(Comparator.comparing(Appointment::getDateTime))
-                .collect(Collectors.toList());
+        loadMonthsWhere(summary -> summary.hasDoctor(doctorId));
+        return appointmentIndex.getForDoctor(doctorId);
     }
 
     
@@ -305,10 +948,8 @@ public class AppointmentManager {
      * @return a list of appointments for the patient
      */
     public List<Appointment> getAppointmentsForPatient(String patientId) {
-        return appointments.stream()
-                .filter(a -> a.getPatientId().equals(patientId))
-                .sorted(Comparator.comparing(Appointment::getDateTime))
-                .collect(Collectors.toList());
+        loadMonthsWhere(summary -> summary.hasPatient(patientId));
+        return appointmentIndex.getForPatient(patientId);
     }
 
     
@@ -319,12 +960,8 @@ public class AppointmentManager {
      * @return a list of upcoming appointments for the doctor
      */
     public List<Appointment> getDoctorUpcomingAppointments(String doctorId) {
-        LocalDateTime now = LocalDateTime.now();
-        return appointments.stream()
-                .filter(a -> a.getDoctorId().equals(doctorId) &&
-                        a.getDateTime().isAfter(now) &&
-                        a.getStatus() != Appointment.AppointmentStatus.CANCELLED)
-                .sorted(Comparator.comparing(Appointment::getDateTime))
+        return appointmentIndex.getForDoctorAfter(doctorId, LocalDateTime.now()).stream()
+                .filter(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED)
                 .collect(Collectors.toList());
     }
 
@@ -338,9 +975,9 @@ public class AppointmentManager {
     
     public List<Appointment> getAppointmentsByDoctorAndStatus(String doctorId,
                                                               Appointment.AppointmentStatus status) {
-        return appointments.stream()
-                .filter(a -> a.getDoctorId().equals(doctorId) && a.getStatus() == status)
-                .sorted(Comparator.comparing(Appointment::getDateTime))
+        loadMonthsWhere(summary -> summary.hasDoctor(doctorId) && summary.hasStatus(status));
+        return appointmentIndex.getForDoctor(doctorId).stream()
+                .filter(a -> a.getStatus() == status)
                 .collect(Collectors.toList());
     }
 
@@ -353,15 +990,23 @@ public class AppointmentManager {
      */
     public boolean updateAppointmentStatus(String appointmentId,
                                            Appointment.AppointmentStatus status) {
-        Optional<Appointment> appointment = appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst();
-
-        if (appointment.isEmpty()) return false;
-
-        appointment.get().setStatus(status);
-        saveAppointments();
-        return true;
+        Appointment appointment = findAppointment(appointmentId);
+
+        if (appointment == null) return false;
+
+        ReentrantLock lock = lockFor(appointment.getDoctorId());
+        lock.lock();
+        try {
+            Appointment.AppointmentStatus previousStatus = appointment.getStatus();
+            appointmentIndex.updateStatus(appointment, status);
+            AppointmentEvent.Type type = status == Appointment.AppointmentStatus.CANCELLED
+                    ? AppointmentEvent.Type.CANCELLED
+                    : AppointmentEvent.Type.STATUS_CHANGED;
+            return persist(List.of(appointmentRecord(appointment)),
+                    List.of(event(type, appointment, null, previousStatus)));
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -372,11 +1017,21 @@ public class AppointmentManager {
      * @return true after successfully adding the slots.
      */
     public boolean addDoctorSlots(String doctorId, List<LocalDateTime> slots) {
-        for (LocalDateTime slot : slots) {
-            availableSlots.add(new AppointmentSlot(doctorId, slot));
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            List<String> records = new ArrayList<>();
+            List<AppointmentEvent> events = new ArrayList<>();
+            for (LocalDateTime slot : slots) {
+                AppointmentSlot newSlot = new AppointmentSlot(doctorId, slot);
+                slotStore.add(newSlot);
+                records.add(slotRecord(doctorId, slot, true));
+                backfill(doctorId, slot, records, events);
+            }
+            return persist(records, events);
+        } finally {
+            lock.unlock();
         }
-        saveSlots();
-        return true;
     }
 
     /**
@@ -386,16 +1041,193 @@ public class AppointmentManager {
      * @return The Appointment object, or null if not found.
      */
     public Appointment getAppointment(String appointmentId) {
-        return appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst()
-                .orElse(null);
+        return findAppointment(appointmentId);
+    }
+
+    /**
+     * Looks up an appointment by its ID. If it is not among the months loaded so far, the
+     * month summaries tell which stored month holds it, and only that month is loaded.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the appointment, or {@code null} if not found
+     */
+    private Appointment findAppointment(String appointmentId) {
+        Appointment appointment = appointmentIndex.get(appointmentId);
+        if (appointment == null) {
+            loadMonthsWhere(summary -> summary.containsAppointment(appointmentId));
+            appointment = appointmentIndex.get(appointmentId);
+        }
+        return appointment;
+    }
+
+    // Slot Maintenance Methods
+
+    /**
+     * Starts the background task that archives past slots, running it every
+     * {@code hms.slotMaintenanceMinutes} minutes (60 by default, 0 to disable).
+     * The first run starts straight away. The task runs on a daemon thread, so it never
+     * keeps the application alive.
+     */
+    private void scheduleSlotMaintenance() {
+        long interval = Long.getLong(MAINTENANCE_INTERVAL_PROPERTY, DEFAULT_MAINTENANCE_INTERVAL);
+        if (interval <= 0) {
+            return;
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "slot-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archivePastSlots();
+            } catch (RuntimeException e) {
+                System.err.println("Error archiving past slots: " + e.getMessage());
+            }
+        }, 0, interval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Moves every slot that has already started out of the slot store and stored slots,
+     * appending it to the slot archive. Each doctor is locked only while their own slots
+     * are removed, so bookings for other doctors continue meanwhile.
+     *
+     * If the application stops after the archive is written but before the stored slots are
+     * rewritten, the same slots are archived again on the next run.
+     *
+     * @return the number of slots archived
+     */
+    public int archivePastSlots() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        List<AppointmentSlot> archived = new ArrayList<>();
+
+        for (String doctorId : slotStore.getDoctorIds()) {
+            ReentrantLock lock = lockFor(doctorId);
+            lock.lock();
+            try {
+                archived.addAll(slotStore.removeBefore(doctorId, cutoff));
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (archived.isEmpty()) {
+            return 0;
+        }
+
+        appendToSlotArchive(archived);
+        compact();
+        archivedSlotCount.addAndGet(archived.size());
+        return archived.size();
+    }
+
+    /**
+     * Gets the number of slots archived since the application started.
+     *
+     * @return the number of archived slots
+     */
+    public long getArchivedSlotCount() {
+        return archivedSlotCount.get();
+    }
+
+    /**
+     * Appends slots to the slot archive.
+     *
+     * @param slots the slots to archive
+     */
+    private void appendToSlotArchive(List<AppointmentSlot> slots) {
+        store.archiveSlots(slots);
+    }
+
+    // Waitlist Methods
+
+    /**
+     * Adds a patient to the waitlist for a doctor on a given day. When one of the doctor's
+     * slots on that day is freed or added, it is booked for the first waiting patient it fits.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor
+     * @param date      the day the patient wants an appointment on
+     * @param type      the type of appointment to book
+     * @return {@code true} if the patient joined the waitlist, {@code false} if the day has passed
+     *         or the patient is already waiting for that doctor and day
+     */
+    public boolean joinWaitlist(String patientId, String doctorId, LocalDate date, String type) {
+        if (date.isBefore(LocalDate.now())) {
+            return false;
+        }
+
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            WaitlistEntry entry = new WaitlistEntry(patientId, doctorId, date, type, LocalDateTime.now());
+            if (!waitlist.add(entry)) {
+                return false;
+            }
+            return persist(List.of(waitlistRecord(entry, true)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a patient from the waitlist for a doctor on a given day.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor
+     * @param date      the day the patient was waiting for
+     * @return {@code true} if the patient was removed, {@code false} if they were not waiting
+     */
+    public boolean leaveWaitlist(String patientId, String doctorId, LocalDate date) {
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            WaitlistEntry entry = waitlist.remove(patientId, doctorId, date);
+            if (entry == null) {
+                return false;
+            }
+            return persist(List.of(waitlistRecord(entry, false)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Offers a slot that has just become available to the patients waiting for that doctor
+     * and day, in the order they joined. The slot is booked for the first patient it fits,
+     * skipping patients for whom it would overlap another appointment, and that patient
+     * leaves the waitlist. The caller must hold the doctor's lock and persist the records and events.
+     *
+     * @param doctorId the ID of the doctor
+     * @param dateTime the start time of the available slot
+     * @param records  collects the journal records describing the booking
+     * @param events   collects the events describing the booking
+     */
+    private void backfill(String doctorId, LocalDateTime dateTime, List<String> records,
+                          List<AppointmentEvent> events) {
+        if (!dateTime.isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        for (WaitlistEntry entry : waitlist.getWaiting(doctorId, dateTime.toLocalDate())) {
+            if (claimSlot(entry.getPatientId(), doctorId, dateTime, entry.getType(), records, events)) {
+                waitlist.remove(entry.getPatientId(), doctorId, entry.getDate());
+                records.add(waitlistRecord(entry, false));
+                return;
+            }
+        }
     }
 
     // Utility Methods
-    
+
+    /**
+     * Generates a unique appointment ID using the shared {@link IdGenerator}.
+     *
+     * @return a new appointment ID
+     * @throws IllegalStateException if no ID could be reserved
+     */
     private String generateAppointmentId() {
-        return "APT" + System.currentTimeMillis();
+        return IdGenerator.getInstance().nextId("APT");
     }
     
 
@@ -407,12 +1239,19 @@ public class AppointmentManager {
      * @param dateTime The date and time of the slot to mark as available.
      */
     public void markSlotAsAvailable(String doctorId, LocalDateTime dateTime) {
-        availableSlots.stream()
-                .filter(slot -> slot.getDoctorId().equals(doctorId) &&
-                        slot.getStartTime().equals(dateTime))
-                .findFirst()
-                .ifPresent(slot -> slot.setAvailable(true));
-        saveSlots();
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            if (slotStore.setAvailable(doctorId, dateTime, true)) {
+                List<String> records = new ArrayList<>();
+                List<AppointmentEvent> events = new ArrayList<>();
+                records.add(slotRecord(doctorId, dateTime, true));
+                backfill(doctorId, dateTime, records, events);
+                persist(records, events);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
         /**
@@ -422,12 +1261,15 @@ public class AppointmentManager {
      * @param dateTime The date and time of the slot to mark as unavailable.
      */
     public void markSlotAsUnavailable(String doctorId, LocalDateTime dateTime) {
-        availableSlots.stream()
-                .filter(slot -> slot.getDoctorId().equals(doctorId) &&
-                        slot.getStartTime().equals(dateTime))
-                .findFirst()
-                .ifPresent(slot -> slot.setAvailable(false));
-        saveSlots();
+        ReentrantLock lock = lockFor(doctorId);
+        lock.lock();
+        try {
+            if (slotStore.setAvailable(doctorId, dateTime, false)) {
+                persist(List.of(slotRecord(doctorId, dateTime, false)));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
         /**
@@ -437,27 +1279,42 @@ public class AppointmentManager {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateAppointment(Appointment appointment) {
-        int index = -1;
-        for (int i = 0; i < appointments.size(); i++) {
-            if (appointments.get(i).getAppointmentId().equals(
-                    appointment.getAppointmentId())) {
-                index = i;
-                break;
-            }
+        Appointment existing = findAppointment(appointment.getAppointmentId());
+        if (existing == null) {
+            return false;
         }
 
-        if (index != -1) {
-            appointments.set(index, appointment);
-            saveAppointments();
-            return true;
+        ReentrantLock lock = lockFor(appointment.getDoctorId());
+        lock.lock();
+        try {
+            LocalDateTime previousDateTime = existing.getDateTime();
+            Appointment.AppointmentStatus previousStatus = existing.getStatus();
+            appointmentIndex.add(appointment);
+
+            AppointmentEvent.Type type;
+            if (!previousDateTime.equals(appointment.getDateTime())) {
+                type = AppointmentEvent.Type.RESCHEDULED;
+            } else if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+                type = AppointmentEvent.Type.CANCELLED;
+            } else {
+                type = AppointmentEvent.Type.STATUS_CHANGED;
+            }
+            return persist(List.of(appointmentRecord(appointment)),
+                    List.of(event(type, appointment,
+                            type == AppointmentEvent.Type.RESCHEDULED ? previousDateTime : null,
+                            previousStatus)));
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
     // Rescheduling Methods
 
     
     /**
      * Reschedules an appointment to a new date and time.
+     * The old slot is freed, the new slot is taken and the appointment is moved under the
+     * doctor's lock, and all three changes are persisted as one journal group, so after a
+     * crash either the whole reschedule is replayed or none of it is.
      *
      * @param appointmentId The ID of the appointment to reschedule.
      * @param newDateTime   The new date and time for the appointment.
@@ -465,53 +1322,60 @@ public class AppointmentManager {
      */
     public boolean rescheduleAppointment(String appointmentId, LocalDateTime newDateTime) {
         // Find the appointment
-        Optional<Appointment> appointmentOpt = appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst();
+        Appointment appointment = findAppointment(appointmentId);
 
-        if (appointmentOpt.isEmpty()) {
+        if (appointment == null) {
             return false;
         }
 
-        Appointment appointment = appointmentOpt.get();
+        ReentrantLock lock = lockFor(appointment.getDoctorId());
+        lock.lock();
+        try {
+            // Check if appointment can be rescheduled
+            if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED ||
+                    appointment.getStatus() == Appointment.AppointmentStatus.COMPLETED) {
+                return false;
+            }
 
-        // Check if appointment can be rescheduled
-        if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED ||
-                appointment.getStatus() == Appointment.AppointmentStatus.COMPLETED) {
-            return false;
-        }
+            // Check if the new slot is available
+            AppointmentSlot newSlot = findOrCreateSlot(appointment.getDoctorId(), newDateTime);
 
-        // Check if the new slot is available
-        Optional<AppointmentSlot> newSlot = availableSlots.stream()
-                .filter(slot -> slot.getDoctorId().equals(appointment.getDoctorId()) &&
-                        slot.getStartTime().equals(newDateTime) &&
-                        slot.isAvailable())
-                .findFirst();
+            if (newSlot == null || !newSlot.isAvailable()) {
+                return false;
+            }
 
-        if (newSlot.isEmpty()) {
-            return false;
-        }
+            // Remember the old slot before the appointment moves
+            String doctorId = appointment.getDoctorId();
+            LocalDateTime oldDateTime = appointment.getDateTime();
+            Appointment.AppointmentStatus oldStatus = appointment.getStatus();
 
-        // Store old datetime for slot management
-        LocalDateTime oldDateTime = appointment.getDateTime();
+            // Update the appointment unless it would overlap another one
+            if (!appointmentIndex.moveIfNoConflict(appointment, newDateTime)) {
+                return false;
+            }
 
-        // Update the appointment
-        appointment.setDateTime(newDateTime);
+            // Handle slot availability
+            List<String> records = new ArrayList<>();
+            if (slotStore.setAvailable(doctorId, oldDateTime, true)) {
+                records.add(slotRecord(doctorId, oldDateTime, true));
+            }
+            occupySlot(doctorId, newDateTime);
+            records.add(slotRecord(doctorId, newDateTime, false));
 
-        // Handle slot availability
-        markSlotAsAvailable(appointment.getDoctorId(), oldDateTime);
-        markSlotAsUnavailable(appointment.getDoctorId(), newDateTime);
+            // Reset status to REQUESTED if it was CONFIRMED
+            if (appointment.getStatus() == Appointment.AppointmentStatus.CONFIRMED) {
+                appointmentIndex.updateStatus(appointment, Appointment.AppointmentStatus.REQUESTED);
+            }
 
-        // Reset status to REQUESTED if it was CONFIRMED
-        if (appointment.getStatus() == Appointment.AppointmentStatus.CONFIRMED) {
-            appointment.setStatus(Appointment.AppointmentStatus.REQUESTED);
+            // Save changes, offering the freed slot to the waitlist
+            records.add(appointmentRecord(appointment));
+            List<AppointmentEvent> events = new ArrayList<>();
+            events.add(event(AppointmentEvent.Type.RESCHEDULED, appointment, oldDateTime, oldStatus));
+            backfill(doctorId, oldDateTime, records, events);
+            return persist(records, events);
+        } finally {
+            lock.unlock();
         }
-
-        // Save changes
-        saveAppointments();
-        saveSlots();
-
-        return true;
     }
 
         /**
@@ -521,12 +1385,9 @@ public class AppointmentManager {
      * @return A sorted list of reschedulable appointments.
      */
     public List<Appointment> getReschedulableAppointments(String patientId) {
-        return appointments.stream()
-                .filter(a -> a.getPatientId().equals(patientId) &&
-                        a.getStatus() != Appointment.AppointmentStatus.CANCELLED &&
-                        a.getStatus() != Appointment.AppointmentStatus.COMPLETED &&
-                        a.getDateTime().isAfter(LocalDateTime.now()))
-                .sorted(Comparator.comparing(Appointment::getDateTime))
+        return appointmentIndex.getForPatientAfter(patientId, LocalDateTime.now()).stream()
+                .filter(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED &&
+                        a.getStatus() != Appointment.AppointmentStatus.COMPLETED)
                 .collect(Collectors.toList());
     }
 
@@ -537,13 +1398,11 @@ public class AppointmentManager {
      * @return true if the appointment can be rescheduled, false otherwise.
      */
     public boolean isAppointmentReschedulable(String appointmentId) {
-        return appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst()
-                .map(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED &&
-                        a.getStatus() != Appointment.AppointmentStatus.COMPLETED &&
-                        a.getDateTime().isAfter(LocalDateTime.now()))
-                .orElse(false);
+        Appointment appointment = findAppointment(appointmentId);
+        return appointment != null &&
+                appointment.getStatus() != Appointment.AppointmentStatus.CANCELLED &&
+                appointment.getStatus() != Appointment.AppointmentStatus.COMPLETED &&
+                appointment.getDateTime().isAfter(LocalDateTime.now());
     }
 
        /**
@@ -553,23 +1412,17 @@ public class AppointmentManager {
      * @return A list of available AppointmentSlot objects.
      */
     public List<AppointmentSlot> getAvailableSlotsForRescheduling(String appointmentId) {
-        Optional<Appointment> appointmentOpt = appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst();
+        Appointment appointment = findAppointment(appointmentId);
 
-        if (appointmentOpt.isEmpty()) {
+        if (appointment == null) {
             return new ArrayList<>();
         }
 
-        String doctorId = appointmentOpt.get().getDoctorId();
-        LocalDateTime currentAppointmentTime = appointmentOpt.get().getDateTime();
+        String doctorId = appointment.getDoctorId();
+        LocalDateTime currentAppointmentTime = appointment.getDateTime();
 
-        return availableSlots.stream()
-                .filter(slot -> slot.getDoctorId().equals(doctorId) &&
-                        slot.isAvailable() &&
-                        slot.getStartTime().isAfter(LocalDateTime.now()) &&
-                        !slot.getStartTime().equals(currentAppointmentTime))
-                .sorted(Comparator.comparing(AppointmentSlot::getStartTime))
+        return getAvailableSlots(doctorId).stream()
+                .filter(slot -> !slot.getStartTime().equals(currentAppointmentTime))
                 .collect(Collectors.toList());
     }
 
@@ -581,16 +1434,12 @@ public class AppointmentManager {
      * @return true if the reschedule request is valid, false otherwise.
      */
     public boolean validateRescheduleRequest(String appointmentId, LocalDateTime newDateTime) {
-        Optional<Appointment> appointmentOpt = appointments.stream()
-                .filter(a -> a.getAppointmentId().equals(appointmentId))
-                .findFirst();
+        Appointment appointment = findAppointment(appointmentId);
 
-        if (appointmentOpt.isEmpty()) {
+        if (appointment == null) {
             return false;
         }
 
-        Appointment appointment = appointmentOpt.get();
-
         // Check if appointment is reschedulable
         if (!isAppointmentReschedulable(appointmentId)) {
             return false;
@@ -602,40 +1451,113 @@ public class AppointmentManager {
         }
 
         // Check if slot is available
-        return availableSlots.stream()
-                .anyMatch(slot -> slot.getDoctorId().equals(appointment.getDoctorId()) &&
-                        slot.getStartTime().equals(newDateTime) &&
-                        slot.isAvailable());
+        if (!isSlotAvailable(appointment.getDoctorId(), newDateTime)) {
+            return false;
+        }
+
+        // Check that the moved appointment would not overlap another one
+        return appointmentIndex.findConflict(appointment.getPatientId(), appointment.getDoctorId(),
+                newDateTime, appointment.getType(), appointmentId) == null;
+    }
+
+        /**
+     * Retrieves all appointments sorted by their date and time.
+     *
+     * @return A sorted list of all appointments.
+     */
+    public List<Appointment> getAllAppointments() {
+        loadHistory();
+        return appointmentIndex.getAll();
     }
 
-    // Additional helper method for handling rescheduling conflicts
-    
     /**
-     * Handles conflicts for rescheduling by checking if the patient has other appointments
-     * at the proposed time.
+     * Retrieves one page of all appointments in chronological order.
+     *
+     * Months are stored in the same order as the cursor walks, so only the months the page
+     * spans need to be loaded. The page is read from the loaded months first; if an unloaded
+     * month falls between the cursor and the end of the page, the earliest such month is loaded
+     * and the page read again, until none does. Paging through the history therefore loads each
+     * month as the cursor reaches it.
      *
-     * @param patientId   The ID of the patient.
-     * @param newDateTime The proposed new date and time.
-     * @return true if no conflicts exist, false otherwise.
+     * @param after    the cursor of the last appointment already seen, or {@code null} for the first page
+     * @param pageSize the maximum number of appointments on the page
+     * @return the page of appointments and the cursor of the next page
      */
+    public AppointmentPage getAppointmentsPage(AppointmentCursor after, int pageSize) {
+        YearMonth from = after == null ? null : YearMonth.from(after.getDateTime());
+        while (true) {
+            AppointmentPage page = appointmentIndex.getPage(after, pageSize);
+            List<Appointment> appointments = page.getAppointments();
+            // A page with more after it ends at its last appointment; otherwise it runs to the end
+            YearMonth to = page.hasNext()
+                    ? YearMonth.from(appointments.get(appointments.size() - 1).getDateTime())
+                    : null;
+            YearMonth missing = firstUnloadedMonth(from, to);
+            if (missing == null) {
+                return page;
+            }
+            loadMonth(missing);
+        }
+    }
 
-    private boolean handleReschedulingConflicts(String patientId, LocalDateTime newDateTime) {
-        // Check if patient has any other appointments at the same time
-        return appointments.stream()
-                .noneMatch(a -> a.getPatientId().equals(patientId) &&
-                        a.getDateTime().equals(newDateTime) &&
-                        a.getStatus() != Appointment.AppointmentStatus.CANCELLED);
+    /**
+     * Finds the earliest month not loaded yet within a range of months.
+     *
+     * @param from the first month of the range, or {@code null} for no lower bound
+     * @param to   the last month of the range, or {@code null} for no upper bound
+     * @return the earliest unloaded month in the range, or {@code null} if every month in it is loaded
+     */
+    private YearMonth firstUnloadedMonth(YearMonth from, YearMonth to) {
+        synchronized (unloadedMonths) {
+            YearMonth month = from == null
+                    ? (unloadedMonths.isEmpty() ? null : unloadedMonths.firstKey())
+                    : unloadedMonths.ceilingKey(from);
+            return month == null || (to != null && month.isAfter(to)) ? null : month;
+        }
     }
 
-        /**
-     * Retrieves all appointments sorted by their date and time.
+    /**
+     * Iterates over all appointments in chronological order, fetching them one page at a time.
+     * Appointments changed while iterating are seen if they sort after the current position.
+     * Stored months are loaded as the iteration reaches them, not up front.
      *
-     * @return A sorted list of all appointments.
+     * @param pageSize the number of appointments fetched per page
+     * @return an iterator over all appointments
      */
-    public List<Appointment> getAllAppointments() {
-        return appointments.stream()
-                .sorted(Comparator.comparing(Appointment::getDateTime))
-                .collect(Collectors.toList());
+    public Iterator<Appointment> iterateAppointments(int pageSize) {
+        return new Iterator<>() {
+            private AppointmentPage page = getAppointmentsPage(null, pageSize);
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                if (position == page.getAppointments().size() && page.hasNext()) {
+                    page = getAppointmentsPage(page.getNextCursor(), pageSize);
+                    position = 0;
+                }
+                return position < page.getAppointments().size();
+            }
+
+            @Override
+            public Appointment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.getAppointments().get(position++);
+            }
+        };
+    }
+
+    /**
+     * Subscribes to changes made to appointments from now on: bookings, status changes,
+     * reschedules and cancellations. Events are delivered asynchronously, after the change has
+     * been persisted, in the order the changes were made. Changes replayed from the journal at
+     * startup are not published.
+     *
+     * @param subscriber the subscriber to receive the events
+     */
+    public void subscribe(Flow.Subscriber<? super AppointmentEvent> subscriber) {
+        eventPublisher.subscribe(subscriber);
     }
 
         /**
@@ -645,10 +1567,8 @@ public class AppointmentManager {
      * @return A sorted list of appointments matching the status.
      */
     public List<Appointment> getAppointmentsByStatus(Appointment.AppointmentStatus status) {
-        return appointments.stream()
-                .filter(appointment -> appointment.getStatus() == status)
-                .sorted(Comparator.comparing(Appointment::getDateTime))
-                .collect(Collectors.toList());
+        loadMonthsWhere(summary -> summary.hasStatus(status));
+        return appointmentIndex.getByStatus(status);
     }
 
         /**
@@ -658,52 +1578,61 @@ public class AppointmentManager {
      * @return A sorted list of appointments on the given date.
      */
     public List<Appointment> getAppointmentsByDate(LocalDate date) {
-        return appointments.stream()
-                .filter(appointment -> appointment.getDateTime().toLocalDate().equals(date))
-                .sorted(Comparator.comparing(Appointment::getDateTime))
-                .collect(Collectors.toList());
+        loadMonth(YearMonth.from(date));
+        return appointmentIndex.getByDate(date);
+    }
+
+    /**
+     * Retrieves the appointments scheduled between two dates, inclusive.
+     *
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return A sorted list of appointments in the range.
+     */
+    public List<Appointment> getAppointmentsBetween(LocalDate from, LocalDate to) {
+        loadMonths(from, to);
+        return appointmentIndex.getByDateRange(from, to);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor scheduled between two dates, inclusive.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param from     The first date of the range.
+     * @param to       The last date of the range.
+     * @return A sorted list of the doctor's appointments in the range.
+     */
+    public List<Appointment> getDoctorAppointmentsBetween(String doctorId, LocalDate from, LocalDate to) {
+        loadMonths(from, to);
+        return appointmentIndex.getForDoctorBetween(doctorId, from, to);
     }
 
     
     /**
      * Retrieves appointment statistics such as total appointments, counts by status,
-     * and counts by doctor.
+     * and counts by doctor. The counts of loaded months come from the running counters of the
+     * index, and those of months not loaded yet from their stored summaries, so this neither
+     * scans the appointments nor loads any month. The unloaded months are held still while
+     * counting, so a month being loaded is counted exactly once.
      *
      * @return A map containing appointment statistics.
      */
     public Map<String, Integer> getAppointmentStatistics() {
-        Map<String, Integer> stats = new HashMap<>();
-
-        // Total appointments
-        stats.put("total", appointments.size());
-
-        // Count by status
-        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
-            long count = appointments.stream()
-                    .filter(a -> a.getStatus() == status)
-                    .count();
-            stats.put(status.toString().toLowerCase(), (int) count);
+        synchronized (unloadedMonths) {
+            return appointmentIndex.getStatistics(LocalDate.now(), unloadedMonths.values());
         }
+    }
 
-        // Count by doctor
-        Map<String, Long> doctorStats = appointments.stream()
-                .collect(Collectors.groupingBy(
-                        Appointment::getDoctorId,
-                        Collectors.counting()
-                ));
-
-        // Add doctor statistics with prefix
-        doctorStats.forEach((doctorId, count) ->
-                stats.put("doctor_" + doctorId, count.intValue()));
-
-        // Today's appointments
-        LocalDate today = LocalDate.now();
-        long todayCount = appointments.stream()
-                .filter(a -> a.getDateTime().toLocalDate().equals(today))
-                .count();
-        stats.put("today", (int) todayCount);
+    /**
+     * The journal records of one change and the events to publish once they are written.
+     */
+    private static class PendingChange {
+        private final List<String> records;           // Journal records describing the change
+        private final List<AppointmentEvent> events;  // Events to publish once the records are written
 
-        return stats;
+        PendingChange(List<String> records, List<AppointmentEvent> events) {
+            this.records = records;
+            this.events = events;
+        }
     }
-
 }
@@ -0,0 +1,329 @@
+package util;
+
+import entity.Appointments.Appointment;
+import util.storage.AtomicFiles;
+import util.storage.CsvReader;
+import util.storage.CsvWriter;
+import util.storage.MonthSummary;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Stores appointments in one CSV file per calendar month, named {@code yyyy-MM.csv}.
+ *
+ * Splitting the data by month lets the owner load only the months it needs and rewrite only
+ * the months that changed. Every partition uses the same columns as the original single
+ * appointments file, which {@link #migrate} splits into partitions the first time it runs.
+ *
+ * Each partition has a {@link MonthSummary} next to it, named {@code yyyy-MM.summary}, written
+ * after the partition whenever it changes. Reading a summary is much cheaper than reading the
+ * partition, so the owner can tell which months a query needs without loading the others. A
+ * missing or unreadable summary is rebuilt from its partition.
+ *
+ * This class only reads and writes files; deciding when a partition is loaded or saved is left
+ * to {@link AppointmentManager}.
+ */
+public class AppointmentPartitions {
+
+    private static final String HEADER = "AppointmentId,PatientId,DoctorId,DateTime,Type,Status";
+    private static final String EXTENSION = ".csv";
+    private static final String SUMMARY_HEADER = "Kind,Key,Count";
+    private static final String SUMMARY_EXTENSION = ".summary";
+    private static final String APPOINTMENT_ROW = "APPOINTMENT"; // Summary row of one appointment ID
+    private static final String PATIENT_ROW = "PATIENT";         // Summary row of a patient's count
+    private static final String DOCTOR_ROW = "DOCTOR";           // Summary row of a doctor's count
+    private static final String STATUS_ROW = "STATUS";           // Summary row of a status count
+
+    private final File directory; // Directory holding one file per month
+
+    /**
+     * Constructs a partition store backed by the given directory.
+     *
+     * @param directory the path of the partition directory
+     */
+    public AppointmentPartitions(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Splits a single appointments file into monthly partitions, unless the partition directory
+     * already exists.
+     *
+     * The partitions and their summaries are written to a temporary directory next to the partition directory, which
+     * is renamed into place only once every month has been written. A crash or failed write
+     * therefore never leaves a partial set of partitions: the partition directory does not
+     * appear, the original file is kept, and the migration runs again at the next start. The
+     * original file is deleted once the partitions are in place.
+     *
+     * @param legacyFile the path of the single appointments file
+     */
+    public void migrate(String legacyFile) {
+        File file = new File(legacyFile);
+        if (directory.exists()) {
+            // Partitions only appear once complete, so an original file next to them is already migrated
+            if (file.exists() && !file.delete()) {
+                System.err.println("Could not remove migrated appointments file: " + legacyFile);
+            }
+            return;
+        }
+        if (!file.exists()) {
+            if (!directory.mkdirs()) {
+                System.err.println("Error creating appointment partition directory: " + directory);
+            }
+            return;
+        }
+
+        Map<YearMonth, List<Appointment>> byMonth = new TreeMap<>();
+        for (Appointment appointment : readFile(file)) {
+            byMonth.computeIfAbsent(YearMonth.from(appointment.getDateTime()), month -> new ArrayList<>())
+                    .add(appointment);
+        }
+
+        Path staging = AtomicFiles.tempFor(directory.toPath());
+        File stagingDirectory = staging.toFile();
+        deleteDirectory(stagingDirectory); // Left by an interrupted migration
+        boolean success = stagingDirectory.mkdirs();
+        for (Map.Entry<YearMonth, List<Appointment>> entry : byMonth.entrySet()) {
+            success = success && write(stagingDirectory, entry.getKey(), entry.getValue());
+        }
+
+        try {
+            if (!success) {
+                throw new IOException("not every month could be written");
+            }
+            AtomicFiles.replace(staging, directory.toPath());
+        } catch (IOException e) {
+            System.err.println("Error splitting " + legacyFile + " into monthly partitions, "
+                    + "it will be retried at the next start: " + e.getMessage());
+            deleteDirectory(stagingDirectory);
+            return;
+        }
+        if (!file.delete()) {
+            System.err.println("Could not remove migrated appointments file: " + legacyFile);
+        }
+    }
+
+    /**
+     * Deletes a directory and the files in it, if it exists.
+     *
+     * @param target the directory to delete
+     */
+    private static void deleteDirectory(File target) {
+        File[] files = target.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        target.delete();
+    }
+
+    /**
+     * Lists the months that have a partition file.
+     *
+     * @return the stored months in chronological order
+     */
+    public NavigableSet<YearMonth> getMonths() {
+        NavigableSet<YearMonth> months = new TreeSet<>();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) {
+            return months;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                months.add(YearMonth.parse(name.substring(0, name.length() - EXTENSION.length())));
+            } catch (Exception e) {
+                System.err.println("Skipping unrecognised appointment partition: " + name);
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Reads the appointments stored for a month.
+     *
+     * @param month the month to read
+     * @return the stored appointments, or an empty list if the month has no partition
+     */
+    public List<Appointment> read(YearMonth month) {
+        File file = fileFor(month);
+        return file.exists() ? readFile(file) : new ArrayList<>();
+    }
+
+    /**
+     * Reads the summary of a month. A missing or unreadable summary is rebuilt from the
+     * partition and written again.
+     *
+     * @param month the month
+     * @return the summary, which is empty if the month has no partition
+     */
+    public MonthSummary readSummary(YearMonth month) {
+        File file = new File(directory, month + SUMMARY_EXTENSION);
+        if (file.exists()) {
+            MonthSummary summary = readSummaryFile(file, month);
+            if (summary != null) {
+                return summary;
+            }
+        }
+        MonthSummary summary = MonthSummary.of(month, read(month));
+        if (summary.getCount() > 0) {
+            writeSummary(file, summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Replaces the partition of a month with the given appointments, then its summary. A month
+     * without appointments has both files removed.
+     *
+     * @param month        the month to write
+     * @param appointments every appointment scheduled in that month
+     * @return {@code true} if the partition and its summary were written, {@code false} otherwise
+     */
+    public boolean write(YearMonth month, Collection<Appointment> appointments) {
+        return write(directory, month, appointments);
+    }
+
+    /**
+     * Replaces the partition file and summary of a month in a directory, removing them if there
+     * are no appointments. The partition is written first, so a summary never describes a
+     * partition that was not saved.
+     *
+     * @param target       the directory holding the files
+     * @param month        the month the files hold
+     * @param appointments every appointment scheduled in that month
+     * @return {@code true} if both files were written, {@code false} otherwise
+     */
+    private boolean write(File target, YearMonth month, Collection<Appointment> appointments) {
+        File file = new File(target, month + EXTENSION);
+        File summaryFile = new File(target, month + SUMMARY_EXTENSION);
+        if (appointments.isEmpty()) {
+            return (!file.exists() || file.delete()) & (!summaryFile.exists() || summaryFile.delete());
+        }
+
+        try (CsvWriter writer = CsvWriter.create(file.getPath())) {
+            writer.writeLine(HEADER);
+
+            for (Appointment appointment : appointments) {
+                writer.field(appointment.getAppointmentId())
+                        .field(appointment.getPatientId())
+                        .field(appointment.getDoctorId())
+                        .field(appointment.getDateTime())
+                        .field(appointment.getType())
+                        .field(appointment.getStatus())
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving appointments for " + month + ": " + e.getMessage());
+            return false;
+        }
+        return writeSummary(summaryFile, MonthSummary.of(month, appointments));
+    }
+
+    /**
+     * Writes the summary of a month.
+     *
+     * @param file    the summary file
+     * @param summary the summary
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    private boolean writeSummary(File file, MonthSummary summary) {
+        try (CsvWriter writer = CsvWriter.create(file.getPath())) {
+            writer.writeLine(SUMMARY_HEADER);
+
+            for (String appointmentId : summary.getAppointmentIds()) {
+                writer.field(APPOINTMENT_ROW).field(appointmentId).field(1).endRow();
+            }
+            for (Map.Entry<String, Integer> entry : summary.getCountsByPatient().entrySet()) {
+                writer.field(PATIENT_ROW).field(entry.getKey()).field(entry.getValue()).endRow();
+            }
+            for (Map.Entry<String, Integer> entry : summary.getCountsByDoctor().entrySet()) {
+                writer.field(DOCTOR_ROW).field(entry.getKey()).field(entry.getValue()).endRow();
+            }
+            for (Map.Entry<Appointment.AppointmentStatus, Integer> entry : summary.getCountsByStatus().entrySet()) {
+                writer.field(STATUS_ROW).field(entry.getKey()).field(entry.getValue()).endRow();
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving appointment summary for " + summary.getMonth() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads a summary file.
+     *
+     * @param file  the summary file
+     * @param month the month it summarizes
+     * @return the summary, or {@code null} if the file could not be read
+     */
+    private MonthSummary readSummaryFile(File file, YearMonth month) {
+        Set<String> appointmentIds = new HashSet<>();
+        Map<String, Integer> countsByPatient = new HashMap<>();
+        Map<String, Integer> countsByDoctor = new HashMap<>();
+        Map<Appointment.AppointmentStatus, Integer> countsByStatus = new EnumMap<>(Appointment.AppointmentStatus.class);
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+
+            while (reader.nextRow()) {
+                String key = reader.getString(1);
+                int count = reader.getInt(2);
+                switch (reader.getString(0)) {
+                    case APPOINTMENT_ROW -> appointmentIds.add(key);
+                    case PATIENT_ROW -> countsByPatient.put(key, count);
+                    case DOCTOR_ROW -> countsByDoctor.put(key, count);
+                    case STATUS_ROW -> countsByStatus.put(Appointment.AppointmentStatus.valueOf(key), count);
+                    default -> throw new IllegalArgumentException("unknown row " + reader.getRow());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Rebuilding unreadable appointment summary " + file + ": " + e.getMessage());
+            return null;
+        }
+        return new MonthSummary(month, appointmentIds, countsByPatient, countsByDoctor, countsByStatus);
+    }
+
+    /**
+     * Gets the partition file of a month, whether or not it exists.
+     *
+     * @param month the month
+     * @return the partition file
+     */
+    public File fileFor(YearMonth month) {
+        return new File(directory, month + EXTENSION);
+    }
+
+    private List<Appointment> readFile(File file) {
+        List<Appointment> appointments = new ArrayList<>();
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+
+            while (reader.nextRow()) {
+                if (reader.getFieldCount() < 6) {
+                    continue;
+                }
+
+                try {
+                    Appointment appointment = new Appointment(reader.getString(0), reader.getString(1),
+                            reader.getString(2), reader.getDateTime(3), reader.getString(4));
+                    appointment.setStatus(Appointment.AppointmentStatus.valueOf(reader.getString(5)));
+                    appointments.add(appointment);
+                } catch (Exception e) {
+                    System.err.println("Skipping invalid appointment record: " + reader.getRow());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading appointments from " + file + ": " + e.getMessage());
+        }
+        return appointments;
+    }
+}
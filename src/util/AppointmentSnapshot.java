@@ -0,0 +1,387 @@
+package util;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentCursor;
+import entity.Appointments.AppointmentPage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An immutable, fully indexed copy of every appointment at one point in time.
+ *
+ * {@link AppointmentIndex} publishes a new snapshot as part of every change, and queries read
+ * the current snapshot without taking any lock, so any number of readers can run in parallel
+ * with each other and with writers. Each snapshot holds copies of the appointments, so a reader
+ * sees one consistent state even while the live appointments keep changing.
+ *
+ * Snapshots share structure: every index is a {@link PersistentTreeMap}, so {@link #withChanges}
+ * copies only the buckets a change touched plus the tree path leading to each of them, and
+ * shares everything else with the previous snapshot. Publishing after a change therefore costs
+ * the size of the changed buckets plus a logarithmic term, however many patients, doctors and
+ * dates are stored. The status index is bucketed by status and date for the same reason. Views
+ * spanning many buckets, such as {@link #getAll} and {@link #getByStatus}, are assembled the
+ * first time they are asked for and then kept.
+ *
+ * Every list is kept in chronological order (ties broken by appointment ID), so time-bounded
+ * queries are a binary search followed by a sublist view. All returned lists are unmodifiable.
+ */
+public class AppointmentSnapshot {
+
+    /**
+     * A snapshot with no appointments, from which the first real snapshot is derived.
+     */
+    static final AppointmentSnapshot EMPTY = new AppointmentSnapshot(PersistentTreeMap.empty(),
+            PersistentTreeMap.empty(), PersistentTreeMap.empty(), PersistentTreeMap.empty(),
+            new EnumMap<>(Appointment.AppointmentStatus.class));
+
+    private final PersistentTreeMap<String, Appointment> appointmentsById;            // appointmentId -> appointment
+    private final PersistentTreeMap<String, List<Appointment>> appointmentsByPatient; // patientId -> appointments
+    private final PersistentTreeMap<String, List<Appointment>> appointmentsByDoctor;  // doctorId -> appointments
+    private final PersistentTreeMap<LocalDate, List<Appointment>> appointmentsByDate; // calendar date -> appointments
+    private final Map<Appointment.AppointmentStatus, PersistentTreeMap<LocalDate, List<Appointment>>> appointmentsByStatus; // status -> date -> appointments
+    private final Map<Appointment.AppointmentStatus, List<Appointment>> statusViews; // status -> assembled appointments
+    private volatile List<Appointment> all;                                         // Every appointment, or null until assembled
+
+    private AppointmentSnapshot(PersistentTreeMap<String, Appointment> appointmentsById,
+                                PersistentTreeMap<String, List<Appointment>> appointmentsByPatient,
+                                PersistentTreeMap<String, List<Appointment>> appointmentsByDoctor,
+                                PersistentTreeMap<LocalDate, List<Appointment>> appointmentsByDate,
+                                Map<Appointment.AppointmentStatus, PersistentTreeMap<LocalDate, List<Appointment>>> appointmentsByStatus) {
+        this.appointmentsById = appointmentsById;
+        this.appointmentsByPatient = appointmentsByPatient;
+        this.appointmentsByDoctor = appointmentsByDoctor;
+        this.appointmentsByDate = appointmentsByDate;
+        this.appointmentsByStatus = appointmentsByStatus;
+        statusViews = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Derives the snapshot that follows this one after some appointments changed. Only the
+     * buckets holding a removed or added appointment are rebuilt; the rest are shared.
+     *
+     * An appointment that changed appears in both collections: its copy from this snapshot
+     * among the removed ones and its new copy among the added ones.
+     *
+     * @param removed copies of appointments to take out, as they appear in this snapshot
+     * @param added   copies of appointments to put in; they must not be changed afterwards
+     * @return the new snapshot
+     */
+    AppointmentSnapshot withChanges(Collection<Appointment> removed, Collection<Appointment> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return this;
+        }
+
+        PersistentTreeMap<String, Appointment> byId = appointmentsById;
+        for (Appointment appointment : removed) {
+            byId = byId.remove(appointment.getAppointmentId());
+        }
+        for (Appointment appointment : added) {
+            byId = byId.put(appointment.getAppointmentId(), appointment);
+        }
+
+        Map<Appointment.AppointmentStatus, PersistentTreeMap<LocalDate, List<Appointment>>> byStatus =
+                new EnumMap<>(Appointment.AppointmentStatus.class);
+        byStatus.putAll(appointmentsByStatus);
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            PersistentTreeMap<LocalDate, List<Appointment>> byDate = rebucket(
+                    byStatus.getOrDefault(status, PersistentTreeMap.empty()),
+                    removed, added, a -> a.getStatus() == status ? a.getDateTime().toLocalDate() : null);
+            if (byDate.isEmpty()) {
+                byStatus.remove(status);
+            } else {
+                byStatus.put(status, byDate);
+            }
+        }
+
+        return new AppointmentSnapshot(byId,
+                rebucket(appointmentsByPatient, removed, added, Appointment::getPatientId),
+                rebucket(appointmentsByDoctor, removed, added, Appointment::getDoctorId),
+                rebucket(appointmentsByDate, removed, added, a -> a.getDateTime().toLocalDate()),
+                byStatus);
+    }
+
+    /**
+     * Rebuilds the buckets of one index that hold a removed or added appointment.
+     *
+     * @param buckets the index
+     * @param removed appointments to take out
+     * @param added   appointments to put in
+     * @param keyOf   the bucket an appointment belongs in, or {@code null} if none in this index
+     * @return the updated index
+     */
+    private static <K> PersistentTreeMap<K, List<Appointment>> rebucket(
+            PersistentTreeMap<K, List<Appointment>> buckets, Collection<Appointment> removed,
+            Collection<Appointment> added, Function<Appointment, K> keyOf) {
+        Map<K, List<Appointment>> removedByKey = new HashMap<>();
+        for (Appointment appointment : removed) {
+            K key = keyOf.apply(appointment);
+            if (key != null) {
+                removedByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(appointment);
+            }
+        }
+        Map<K, List<Appointment>> addedByKey = new HashMap<>();
+        for (Appointment appointment : added) {
+            K key = keyOf.apply(appointment);
+            if (key != null) {
+                addedByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(appointment);
+            }
+        }
+
+        Set<K> keys = new HashSet<>(removedByKey.keySet());
+        keys.addAll(addedByKey.keySet());
+        for (K key : keys) {
+            List<Appointment> current = buckets.get(key);
+            List<Appointment> bucket = new ArrayList<>(current == null ? List.of() : current);
+            // The bucket is sorted, so each change is a binary search rather than a scan or a sort
+            for (Appointment appointment : removedByKey.getOrDefault(key, List.of())) {
+                int position = Collections.binarySearch(bucket, appointment, AppointmentIndex.BY_DATE_TIME);
+                if (position >= 0) {
+                    bucket.remove(position);
+                }
+            }
+            for (Appointment appointment : addedByKey.getOrDefault(key, List.of())) {
+                int position = Collections.binarySearch(bucket, appointment, AppointmentIndex.BY_DATE_TIME);
+                if (position < 0) {
+                    bucket.add(-position - 1, appointment);
+                } else {
+                    bucket.set(position, appointment);
+                }
+            }
+            buckets = bucket.isEmpty() ? buckets.remove(key) : buckets.put(key, Collections.unmodifiableList(bucket));
+        }
+        return buckets;
+    }
+
+    /**
+     * Retrieves a copy of an appointment by its ID.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the appointment, or {@code null} if not found
+     */
+    public Appointment get(String appointmentId) {
+        return appointmentsById.get(appointmentId);
+    }
+
+    /**
+     * Retrieves the appointments of a patient in chronological order.
+     *
+     * @param patientId the ID of the patient
+     * @return the patient's appointments
+     */
+    public List<Appointment> getForPatient(String patientId) {
+        List<Appointment> appointments = appointmentsByPatient.get(patientId);
+        return appointments == null ? List.of() : appointments;
+    }
+
+    /**
+     * Retrieves the appointments of a patient scheduled strictly after the given time.
+     *
+     * @param patientId the ID of the patient
+     * @param after     the exclusive lower bound on the appointment time
+     * @return the patient's later appointments in chronological order
+     */
+    public List<Appointment> getForPatientAfter(String patientId, LocalDateTime after) {
+        return tailAfter(getForPatient(patientId), after);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @return the doctor's appointments
+     */
+    public List<Appointment> getForDoctor(String doctorId) {
+        List<Appointment> appointments = appointmentsByDoctor.get(doctorId);
+        return appointments == null ? List.of() : appointments;
+    }
+
+    /**
+     * Retrieves the appointments of a doctor scheduled strictly after the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound on the appointment time
+     * @return the doctor's later appointments in chronological order
+     */
+    public List<Appointment> getForDoctorAfter(String doctorId, LocalDateTime after) {
+        return tailAfter(getForDoctor(doctorId), after);
+    }
+
+    /**
+     * Retrieves the appointments of a doctor scheduled between two dates, inclusive,
+     * in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @param from     the first date of the range
+     * @param to       the last date of the range
+     * @return the doctor's appointments in the range
+     */
+    public List<Appointment> getForDoctorBetween(String doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        List<Appointment> appointments = getForDoctor(doctorId);
+        return appointments.subList(
+                firstAtOrAfter(appointments, from.atStartOfDay()),
+                firstAtOrAfter(appointments, to.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Retrieves the appointments with a given status in chronological order. The first call
+     * for each status joins its date buckets.
+     *
+     * @param status the status to look up
+     * @return the matching appointments
+     */
+    public List<Appointment> getByStatus(Appointment.AppointmentStatus status) {
+        return statusViews.computeIfAbsent(status, key -> {
+            PersistentTreeMap<LocalDate, List<Appointment>> byDate = appointmentsByStatus.get(key);
+            return byDate == null ? List.of() : join(byDate.values());
+        });
+    }
+
+    /**
+     * Retrieves the appointments scheduled on a calendar date in chronological order.
+     *
+     * @param date the date to look up
+     * @return the matching appointments
+     */
+    public List<Appointment> getByDate(LocalDate date) {
+        List<Appointment> appointments = appointmentsByDate.get(date);
+        return appointments == null ? List.of() : appointments;
+    }
+
+    /**
+     * Retrieves the appointments scheduled between two dates, inclusive, in chronological order.
+     *
+     * @param from the first date of the range
+     * @param to   the last date of the range
+     * @return the matching appointments
+     */
+    public List<Appointment> getByDateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        return join(appointmentsByDate.valuesBetween(from, to));
+    }
+
+    /**
+     * Retrieves every appointment in chronological order. The first call joins the date buckets.
+     *
+     * @return all appointments
+     */
+    public List<Appointment> getAll() {
+        List<Appointment> appointments = all;
+        if (appointments == null) {
+            appointments = join(appointmentsByDate.values());
+            all = appointments;
+        }
+        return appointments;
+    }
+
+    /**
+     * Retrieves a page of appointments in chronological order, starting just after the cursor.
+     * Seeking to the cursor is a lookup of its date followed by a binary search.
+     *
+     * @param after    the cursor of the last appointment already seen, or {@code null} to start at the beginning
+     * @param pageSize the maximum number of appointments to return
+     * @return the page of appointments
+     */
+    public AppointmentPage getPage(AppointmentCursor after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+
+        Iterable<List<Appointment>> buckets = appointmentsByDate.values();
+        Appointment probe = null;
+        if (after != null) {
+            buckets = appointmentsByDate.valuesFrom(after.getDateTime().toLocalDate());
+            probe = new Appointment(after.getAppointmentId(), "", "", after.getDateTime(), "");
+        }
+
+        List<Appointment> page = new ArrayList<>(Math.min(pageSize, size()));
+        boolean more = false;
+        for (List<Appointment> bucket : buckets) {
+            int start = 0;
+            if (probe != null) {
+                int position = Collections.binarySearch(bucket, probe, AppointmentIndex.BY_DATE_TIME);
+                start = position >= 0 ? position + 1 : -position - 1;
+            }
+            if (start == bucket.size()) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            int end = Math.min(bucket.size(), start + pageSize - page.size());
+            page.addAll(bucket.subList(start, end));
+            if (end < bucket.size()) {
+                more = true;
+                break;
+            }
+        }
+
+        return more
+                ? new AppointmentPage(page, AppointmentCursor.after(page.get(page.size() - 1)))
+                : new AppointmentPage(page, null);
+    }
+
+    /**
+     * Gets the number of appointments in the snapshot.
+     *
+     * @return the number of appointments
+     */
+    public int size() {
+        return appointmentsById.size();
+    }
+
+    /**
+     * Copies an appointment for publishing in a snapshot.
+     *
+     * @param appointment the live appointment
+     * @return a detached copy of it
+     */
+    static Appointment copyOf(Appointment appointment) {
+        Appointment copy = new Appointment(appointment.getAppointmentId(), appointment.getPatientId(),
+                appointment.getDoctorId(), appointment.getDateTime(), appointment.getType());
+        copy.setStatus(appointment.getStatus());
+        return copy;
+    }
+
+    private static List<Appointment> join(Iterable<List<Appointment>> buckets) {
+        List<Appointment> joined = new ArrayList<>();
+        for (List<Appointment> bucket : buckets) {
+            joined.addAll(bucket);
+        }
+        return Collections.unmodifiableList(joined);
+    }
+
+    private static List<Appointment> tailAfter(List<Appointment> appointments, LocalDateTime after) {
+        return appointments.subList(firstAtOrAfter(appointments, after.plusNanos(1)), appointments.size());
+    }
+
+    /**
+     * Finds the position of the first appointment starting at or after the given time.
+     *
+     * @param appointments appointments in chronological order
+     * @param time         the time to look for
+     * @return the position, or the size of the list if every appointment starts earlier
+     */
+    private static int firstAtOrAfter(List<Appointment> appointments, LocalDateTime time) {
+        int low = 0;
+        int high = appointments.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (appointments.get(middle).getDateTime().isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
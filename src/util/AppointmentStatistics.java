@@ -0,0 +1,137 @@
+package util;
+
+import entity.Appointments.Appointment;
+import util.storage.MonthSummary;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Running appointment counts by status, by doctor and by date.
+ *
+ * The counters are adjusted as appointments are added, removed or changed, so reading the
+ * statistics never requires a pass over the appointment history. This class is not thread-safe;
+ * {@link AppointmentIndex} owns an instance and synchronizes on it.
+ */
+public class AppointmentStatistics {
+
+    private final Map<Appointment.AppointmentStatus, Integer> countsByStatus; // status -> count
+    private final Map<String, Integer> countsByDoctor;                       // doctorId -> count
+    private final Map<LocalDate, Integer> countsByDate;                      // date -> count
+    private int total;                                                       // Total number of appointments
+
+    /**
+     * Constructs a set of statistics with every counter at zero.
+     */
+    public AppointmentStatistics() {
+        countsByStatus = new EnumMap<>(Appointment.AppointmentStatus.class);
+        countsByDoctor = new HashMap<>();
+        countsByDate = new HashMap<>();
+    }
+
+    /**
+     * Counts an appointment in every counter.
+     *
+     * @param appointment the appointment to count
+     */
+    public void record(Appointment appointment) {
+        adjust(appointment, 1);
+    }
+
+    /**
+     * Removes an appointment from every counter.
+     *
+     * @param appointment the appointment to remove
+     */
+    public void unrecord(Appointment appointment) {
+        adjust(appointment, -1);
+    }
+
+    /**
+     * Gets the number of appointments scheduled on a date.
+     *
+     * @param date the date to look up
+     * @return the number of appointments on that date
+     */
+    public int getCountForDate(LocalDate date) {
+        return countsByDate.getOrDefault(date, 0);
+    }
+
+    /**
+     * Builds the statistics map reported to administrators. Keys are {@code total},
+     * the lower-case status names, {@code doctor_<doctorId>} and {@code today}.
+     *
+     * @param today the date to report under the {@code today} key
+     * @return a map of statistic names to counts
+     */
+    public Map<String, Integer> toMap(LocalDate today) {
+        return toMap(today, List.of());
+    }
+
+    /**
+     * Builds the statistics map as {@link #toMap(LocalDate)} does, adding the counts of stored
+     * months that are not among the counted appointments. Those months must lie before
+     * {@code today}, since their summaries do not count by date.
+     *
+     * @param today  the date to report under the {@code today} key
+     * @param stored summaries of the stored months to add
+     * @return a map of statistic names to counts
+     */
+    public Map<String, Integer> toMap(LocalDate today, Collection<MonthSummary> stored) {
+        Map<String, Integer> stats = new HashMap<>();
+        stats.put("total", total);
+        for (Appointment.AppointmentStatus status : Appointment.AppointmentStatus.values()) {
+            stats.put(status.toString().toLowerCase(), countsByStatus.getOrDefault(status, 0));
+        }
+        countsByDoctor.forEach((doctorId, count) -> stats.put("doctor_" + doctorId, count));
+        for (MonthSummary summary : stored) {
+            stats.merge("total", summary.getCount(), Integer::sum);
+            summary.getCountsByStatus().forEach((status, count) ->
+                    stats.merge(status.toString().toLowerCase(), count, Integer::sum));
+            summary.getCountsByDoctor().forEach((doctorId, count) ->
+                    stats.merge("doctor_" + doctorId, count, Integer::sum));
+        }
+        stats.put("today", getCountForDate(today));
+        return stats;
+    }
+
+    /**
+     * Checks whether these counters match a full recount of the given appointments.
+     *
+     * @param appointments every appointment the counters should describe
+     * @return {@code true} if all counters match, {@code false} otherwise
+     */
+    public boolean matches(Collection<Appointment> appointments) {
+        AppointmentStatistics recount = new AppointmentStatistics();
+        appointments.forEach(recount::record);
+        return total == recount.total &&
+                countsByStatus.equals(recount.countsByStatus) &&
+                countsByDoctor.equals(recount.countsByDoctor) &&
+                countsByDate.equals(recount.countsByDate);
+    }
+
+    /**
+     * Resets every counter and recounts the given appointments.
+     *
+     * @param appointments every appointment the counters should describe
+     */
+    public void rebuild(Collection<Appointment> appointments) {
+        countsByStatus.clear();
+        countsByDoctor.clear();
+        countsByDate.clear();
+        total = 0;
+        appointments.forEach(this::record);
+    }
+
+    private void adjust(Appointment appointment, int delta) {
+        total += delta;
+        increment(countsByStatus, appointment.getStatus(), delta);
+        increment(countsByDoctor, appointment.getDoctorId(), delta);
+        increment(countsByDate, appointment.getDateTime().toLocalDate(), delta);
+    }
+
+    private static <K> void increment(Map<K, Integer> counts, K key, int delta) {
+        // Drop counters that reach zero so the maps only hold keys with appointments
+        counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
@@ -0,0 +1,396 @@
+package util;
+
+import entity.Appointments.AppointmentSlot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stores appointment slots as bitmaps instead of slot objects.
+ *
+ * Each doctor has one calendar per day, divided into fixed {@value #SLOT_MINUTES}-minute cells.
+ * A calendar holds two bitsets: one marking the cells where the doctor offers a slot and one
+ * marking the cells that are booked. A day of slots therefore costs a few machine words, and
+ * availability checks and first-free-slot searches are word-level bit operations.
+ *
+ * Because no slot objects are kept, {@link #find} and the list methods build new
+ * {@link AppointmentSlot} snapshots; availability must be changed through {@link #setAvailable}.
+ *
+ * A slot whose start time does not fall on a cell boundary, such as one set by hand or produced
+ * by a template with an unusual interval, cannot be a bit. Such slots are kept in a
+ * {@link SlotIndex} next to the bitmaps and merged into every result, so any start time is accepted.
+ */
+public class BitmapSlotStore implements SlotStore {
+
+    /**
+     * Length of one calendar cell in minutes. Slots starting on a multiple of this are kept as bits.
+     */
+    public static final int SLOT_MINUTES = 5;
+
+    private static final int CELLS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = (CELLS_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    private final Map<String, NavigableMap<LocalDate, DayCalendar>> calendarsByDoctor; // doctorId -> (date -> calendar)
+    private final AtomicInteger size; // Total number of offered slots in the calendars
+    private final SlotIndex offGrid;  // Slots whose start time is not on a cell boundary
+
+    /**
+     * Constructs an empty bitmap slot store.
+     */
+    public BitmapSlotStore() {
+        calendarsByDoctor = new ConcurrentHashMap<>();
+        size = new AtomicInteger();
+        offGrid = new SlotIndex();
+    }
+
+    /**
+     * Adds a slot to the store, taking its availability from the slot. A slot already stored
+     * for the same doctor and start time is replaced.
+     *
+     * @param slot the slot to add
+     */
+    @Override
+    public void add(AppointmentSlot slot) {
+        Integer cell = cellOrNull(slot.getStartTime().toLocalTime());
+        if (cell == null) {
+            offGrid.add(slot);
+            return;
+        }
+        DayCalendar calendar = calendarsByDoctor
+                .computeIfAbsent(slot.getDoctorId(), id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(slot.getStartTime().toLocalDate(), date -> new DayCalendar());
+        if (calendar.offer(cell)) {
+            size.incrementAndGet();
+        }
+        calendar.setBooked(cell, !slot.isAvailable());
+    }
+
+    /**
+     * Finds the slot of a doctor starting at the given time.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @return a snapshot of the matching slot, or {@code null} if the doctor has no slot at that time
+     */
+    @Override
+    public AppointmentSlot find(String doctorId, LocalDateTime startTime) {
+        Integer cell = cellOrNull(startTime.toLocalTime());
+        if (cell == null) {
+            return offGrid.find(doctorId, startTime);
+        }
+        DayCalendar calendar = calendarFor(doctorId, startTime.toLocalDate());
+        if (calendar == null || !calendar.isOffered(cell)) {
+            return null;
+        }
+        return slotAt(doctorId, startTime.toLocalDate(), cell, !calendar.isBooked(cell));
+    }
+
+    /**
+     * Changes the availability of a stored slot.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @param available {@code true} to free the slot, {@code false} to mark it as taken
+     * @return {@code true} if the slot exists, {@code false} otherwise
+     */
+    @Override
+    public boolean setAvailable(String doctorId, LocalDateTime startTime, boolean available) {
+        Integer cell = cellOrNull(startTime.toLocalTime());
+        if (cell == null) {
+            return offGrid.setAvailable(doctorId, startTime, available);
+        }
+        DayCalendar calendar = calendarFor(doctorId, startTime.toLocalDate());
+        if (calendar == null || !calendar.isOffered(cell)) {
+            return false;
+        }
+        calendar.setBooked(cell, !available);
+        return true;
+    }
+
+    /**
+     * Retrieves the available slots of a doctor starting strictly after the given time,
+     * in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return a list of available slots ordered by start time
+     */
+    @Override
+    public List<AppointmentSlot> getAvailableAfter(String doctorId, LocalDateTime after) {
+        List<AppointmentSlot> result = new ArrayList<>();
+        NavigableMap<LocalDate, DayCalendar> calendars = calendarsByDoctor.get(doctorId);
+        if (calendars != null) {
+            for (Map.Entry<LocalDate, DayCalendar> entry : calendars.tailMap(after.toLocalDate(), true).entrySet()) {
+                int firstCell = firstCellAfter(entry.getKey(), after);
+                for (int word = 0; word < WORDS_PER_DAY; word++) {
+                    long free = mask(entry.getValue().freeWord(word), word, firstCell);
+                    while (free != 0) {
+                        int cell = word * Long.SIZE + Long.numberOfTrailingZeros(free);
+                        result.add(slotAt(doctorId, entry.getKey(), cell, true));
+                        free &= free - 1; // Clear the lowest set bit
+                    }
+                }
+            }
+        }
+        return merge(result, offGrid.getAvailableAfter(doctorId, after));
+    }
+
+    /**
+     * Finds the earliest available slot of a doctor starting strictly after the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return a snapshot of the first available slot, or {@code null} if there is none
+     */
+    @Override
+    public AppointmentSlot findFirstAvailableAfter(String doctorId, LocalDateTime after) {
+        AppointmentSlot first = firstOnGridAfter(doctorId, after);
+        AppointmentSlot firstOffGrid = offGrid.findFirstAvailableAfter(doctorId, after);
+        if (first == null || (firstOffGrid != null && firstOffGrid.getStartTime().isBefore(first.getStartTime()))) {
+            return firstOffGrid;
+        }
+        return first;
+    }
+
+    /**
+     * Removes a doctor's slots that start before the given time. Calendars of days left
+     * without any slot are dropped.
+     *
+     * @param doctorId the ID of the doctor
+     * @param cutoff   the exclusive upper bound for the start time of removed slots
+     * @return snapshots of the removed slots in chronological order
+     */
+    @Override
+    public List<AppointmentSlot> removeBefore(String doctorId, LocalDateTime cutoff) {
+        List<AppointmentSlot> removed = new ArrayList<>();
+        NavigableMap<LocalDate, DayCalendar> calendars = calendarsByDoctor.get(doctorId);
+        if (calendars == null) {
+            return merge(removed, offGrid.removeBefore(doctorId, cutoff));
+        }
+
+        long slotNanos = SLOT_MINUTES * 60_000_000_000L;
+        Iterator<Map.Entry<LocalDate, DayCalendar>> days =
+                calendars.headMap(cutoff.toLocalDate(), true).entrySet().iterator();
+        while (days.hasNext()) {
+            Map.Entry<LocalDate, DayCalendar> day = days.next();
+            DayCalendar calendar = day.getValue();
+            // Cells starting before the cutoff: the whole day, or a prefix of the cutoff day
+            int limit = day.getKey().isBefore(cutoff.toLocalDate())
+                    ? CELLS_PER_DAY
+                    : (int) ((cutoff.toLocalTime().toNanoOfDay() + slotNanos - 1) / slotNanos);
+
+            for (int cell = 0; cell < limit; cell++) {
+                if (calendar.isOffered(cell)) {
+                    removed.add(slotAt(doctorId, day.getKey(), cell, !calendar.isBooked(cell)));
+                    calendar.clear(cell);
+                }
+            }
+            if (calendar.isEmpty()) {
+                days.remove();
+            }
+        }
+        size.addAndGet(-removed.size());
+        return merge(removed, offGrid.removeBefore(doctorId, cutoff));
+    }
+
+    /**
+     * Gets the IDs of every doctor with at least one stored slot.
+     *
+     * @return a set of doctor IDs
+     */
+    @Override
+    public Set<String> getDoctorIds() {
+        Set<String> doctorIds = new HashSet<>(calendarsByDoctor.keySet());
+        doctorIds.addAll(offGrid.getDoctorIds());
+        return doctorIds;
+    }
+
+    /**
+     * Retrieves every stored slot, grouped by doctor and ordered by start time within each doctor.
+     *
+     * @return a list of snapshots of all slots
+     */
+    @Override
+    public List<AppointmentSlot> getAll() {
+        Map<String, List<AppointmentSlot>> offGridByDoctor = new HashMap<>();
+        for (AppointmentSlot slot : offGrid.getAll()) {
+            offGridByDoctor.computeIfAbsent(slot.getDoctorId(), id -> new ArrayList<>()).add(slot);
+        }
+
+        List<AppointmentSlot> result = new ArrayList<>(size());
+        for (Map.Entry<String, NavigableMap<LocalDate, DayCalendar>> doctor : calendarsByDoctor.entrySet()) {
+            List<AppointmentSlot> slots = new ArrayList<>();
+            for (Map.Entry<LocalDate, DayCalendar> day : doctor.getValue().entrySet()) {
+                DayCalendar calendar = day.getValue();
+                for (int word = 0; word < WORDS_PER_DAY; word++) {
+                    long offered = calendar.offered.get(word);
+                    while (offered != 0) {
+                        int cell = word * Long.SIZE + Long.numberOfTrailingZeros(offered);
+                        slots.add(slotAt(doctor.getKey(), day.getKey(), cell, !calendar.isBooked(cell)));
+                        offered &= offered - 1;
+                    }
+                }
+            }
+            result.addAll(merge(slots, offGridByDoctor.getOrDefault(doctor.getKey(), List.of())));
+            offGridByDoctor.remove(doctor.getKey());
+        }
+        offGridByDoctor.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Gets the total number of stored slots.
+     *
+     * @return the number of slots
+     */
+    @Override
+    public int size() {
+        return size.get() + offGrid.size();
+    }
+
+    private DayCalendar calendarFor(String doctorId, LocalDate date) {
+        NavigableMap<LocalDate, DayCalendar> calendars = calendarsByDoctor.get(doctorId);
+        return calendars == null ? null : calendars.get(date);
+    }
+
+    private static AppointmentSlot slotAt(String doctorId, LocalDate date, int cell, boolean available) {
+        AppointmentSlot slot = new AppointmentSlot(doctorId,
+                date.atStartOfDay().plusMinutes((long) cell * SLOT_MINUTES));
+        slot.setAvailable(available);
+        return slot;
+    }
+
+    /**
+     * Finds the earliest available slot of a doctor in the calendars starting strictly after
+     * the given time, ignoring off-grid slots.
+     */
+    private AppointmentSlot firstOnGridAfter(String doctorId, LocalDateTime after) {
+        NavigableMap<LocalDate, DayCalendar> calendars = calendarsByDoctor.get(doctorId);
+        if (calendars == null) {
+            return null;
+        }
+
+        for (Map.Entry<LocalDate, DayCalendar> entry : calendars.tailMap(after.toLocalDate(), true).entrySet()) {
+            int firstCell = firstCellAfter(entry.getKey(), after);
+            for (int word = firstCell / Long.SIZE; word < WORDS_PER_DAY; word++) {
+                long free = mask(entry.getValue().freeWord(word), word, firstCell);
+                if (free != 0) {
+                    int cell = word * Long.SIZE + Long.numberOfTrailingZeros(free);
+                    return slotAt(doctorId, entry.getKey(), cell, true);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merges calendar slots with off-grid slots, both in chronological order, into one
+     * chronological list. Returns the calendar slots unchanged when there are no off-grid slots.
+     */
+    private static List<AppointmentSlot> merge(List<AppointmentSlot> onGrid, List<AppointmentSlot> offGrid) {
+        if (offGrid.isEmpty()) {
+            return onGrid;
+        }
+        List<AppointmentSlot> merged = new ArrayList<>(onGrid.size() + offGrid.size());
+        int i = 0;
+        int j = 0;
+        while (i < onGrid.size() && j < offGrid.size()) {
+            if (offGrid.get(j).getStartTime().isBefore(onGrid.get(i).getStartTime())) {
+                merged.add(offGrid.get(j++));
+            } else {
+                merged.add(onGrid.get(i++));
+            }
+        }
+        merged.addAll(onGrid.subList(i, onGrid.size()));
+        merged.addAll(offGrid.subList(j, offGrid.size()));
+        return merged;
+    }
+
+    private static Integer cellOrNull(LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return null;
+        }
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        return minuteOfDay % SLOT_MINUTES == 0 ? minuteOfDay / SLOT_MINUTES : null;
+    }
+
+    /**
+     * Gets the first cell of a day whose start time is strictly after the given time.
+     */
+    private static int firstCellAfter(LocalDate date, LocalDateTime after) {
+        if (date.isAfter(after.toLocalDate())) {
+            return 0;
+        }
+        long slotNanos = SLOT_MINUTES * 60_000_000_000L;
+        return (int) (after.toLocalTime().toNanoOfDay() / slotNanos) + 1;
+    }
+
+    /**
+     * Clears the bits of a word that belong to cells before the given first cell.
+     */
+    private static long mask(long bits, int word, int firstCell) {
+        int offset = firstCell - word * Long.SIZE;
+        if (offset <= 0) {
+            return bits;
+        }
+        return offset >= Long.SIZE ? 0 : bits & (-1L << offset);
+    }
+
+    /**
+     * The offered and booked bitsets of one doctor on one day.
+     */
+    private static class DayCalendar {
+
+        private final AtomicLongArray offered = new AtomicLongArray(WORDS_PER_DAY); // Cells with a slot
+        private final AtomicLongArray booked = new AtomicLongArray(WORDS_PER_DAY);  // Cells that are taken
+
+        /**
+         * Marks a cell as offered.
+         *
+         * @return {@code true} if the cell was not offered before
+         */
+        boolean offer(int cell) {
+            long bit = 1L << cell;
+            long previous = offered.getAndUpdate(cell / Long.SIZE, word -> word | bit);
+            return (previous & bit) == 0;
+        }
+
+        boolean isOffered(int cell) {
+            return (offered.get(cell / Long.SIZE) & (1L << cell)) != 0;
+        }
+
+        boolean isBooked(int cell) {
+            return (booked.get(cell / Long.SIZE) & (1L << cell)) != 0;
+        }
+
+        void setBooked(int cell, boolean isBooked) {
+            long bit = 1L << cell;
+            booked.getAndUpdate(cell / Long.SIZE, word -> isBooked ? word | bit : word & ~bit);
+        }
+
+        void clear(int cell) {
+            long bit = 1L << cell;
+            offered.getAndUpdate(cell / Long.SIZE, word -> word & ~bit);
+            booked.getAndUpdate(cell / Long.SIZE, word -> word & ~bit);
+        }
+
+        boolean isEmpty() {
+            for (int word = 0; word < WORDS_PER_DAY; word++) {
+                if (offered.get(word) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long freeWord(int word) {
+            return offered.get(word) & ~booked.get(word);
+        }
+    }
+}
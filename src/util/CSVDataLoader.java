@@ -7,30 +7,20 @@ package util;
 import entity.Medications.Medication;
 import entity.Medications.ReplenishmentRequest;
 import entity.users.*;
+import util.storage.Storage;
 
-import java.io.*;
-import java.time.LocalDate;
 import java.util.*;
 
 /**
- * The {@code CSVDataLoader} class provides methods to load and save application data
- * from and to CSV files. It supports loading user data (staff and patients), medication data,
+ * The {@code CSVDataLoader} class provides methods to load and save application data.
+ * It supports loading user data (staff and patients), medication data,
  * and replenishment requests, as well as saving updated staff data.
+ *
+ * The data is read and written through the stores of the configured {@link Storage} backend,
+ * which by default are the CSV files under {@code data/}.
  */
 public class CSVDataLoader {
 
-    /** File path for storing staff data. */
-    private static final String STAFF_FILE = "data/staff.csv";
-
-    /** File path for storing patient data. */
-    private static final String PATIENT_FILE = "data/patient.csv";
-
-    /** File path for storing medication data. */
-    private static final String MEDICINE_FILE = "data/medicine.csv";
-
-    /** File path for storing replenishment request data. */
-    private static final String REPLENISHMENT_FILE = "data/replenishment_requests.csv";
-
     /**
      * Loads all users (staff and patients) into a single map.
      *
@@ -48,139 +38,57 @@ public class CSVDataLoader {
     }
 
     /**
-     * Loads staff data from the CSV file.
+     * Loads staff data from storage.
      *
      * @return a map of staff IDs to {@link User} objects.
      */
     public static Map<String, User> loadStaffData() {
-        Map<String, User> staff = new HashMap<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(STAFF_FILE))) {
-            reader.readLine(); // Skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] data = line.split(",");
-                String staffId = data[0].trim();
-                String name = data[1].trim();
-                String role = data[2].trim();
-                String gender = data[3].trim();
-                int age = Integer.parseInt(data[4].trim());
-
-                User user = switch (role.toUpperCase()) {
-                    case "DOCTOR" -> new Doctor(staffId, name, gender, age);
-                    case "PHARMACIST" -> new Pharmacist(staffId, name, gender, age);
-                    case "ADMINISTRATOR" -> new Administrator(staffId, name, gender, age);
-                    default -> throw new IllegalArgumentException("Invalid role: " + role);
-                };
-                staff.put(staffId, user);
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading staff data: " + e.getMessage());
-        }
-        return staff;
+        return Storage.getInstance().getUserStore().loadStaff();
     }
 
     /**
-     * Loads patient data from the CSV file.
+     * Loads patient data from storage.
      *
      * @return a map of patient IDs to {@link Patient} objects.
      */
     public static Map<String, User> loadPatientData() {
-        Map<String, User> patients = new HashMap<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(PATIENT_FILE))) {
-            reader.readLine(); // Skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] data = line.split(",");
-                String patientId = data[0].trim();
-                String name = data[1].trim();
-                LocalDate dob = LocalDate.parse(data[2].trim());
-                String gender = data[3].trim();
-                String bloodType = data[4].trim();
-                String email = data[5].trim();
-
-                Patient patient = new Patient(patientId, name, dob, gender, bloodType, email);
-                patients.put(patientId, patient);
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading patient data: " + e.getMessage());
-        }
-        return patients;
+        return Storage.getInstance().getUserStore().loadPatients();
     }
 
     /**
-     * Loads medication data from the CSV file.
+     * Loads medication data from storage.
      *
      * @return a list of {@link Medication} objects.
      */
     public static List<Medication> loadMedications() {
-        List<Medication> medications = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(MEDICINE_FILE))) {
-            reader.readLine(); // Skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                medications.add(new Medication(data[0], Integer.parseInt(data[1]), Integer.parseInt(data[2])));
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading medications: " + e.getMessage());
-        }
-        return medications;
+        return Storage.getInstance().getInventoryStore().loadMedications();
     }
 
     /**
-     * Loads replenishment request data from the CSV file.
+     * Loads replenishment request data from storage.
      *
      * @return a list of {@link ReplenishmentRequest} objects.
      */
     public static List<ReplenishmentRequest> loadReplenishmentRequests() {
-        List<ReplenishmentRequest> requests = new ArrayList<>();
-        File file = new File(REPLENISHMENT_FILE);
-        if (!file.exists()) return requests;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(REPLENISHMENT_FILE))) {
-            reader.readLine(); // Skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                ReplenishmentRequest request = new ReplenishmentRequest(data[1], Integer.parseInt(data[2]), data[3]);
-                if (data[4].equals("Approved")) request.approve();
-                if (data[4].equals("Rejected")) request.reject();
-                requests.add(request);
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading replenishment requests: " + e.getMessage());
-        }
-        return requests;
+        return Storage.getInstance().getInventoryStore().loadReplenishmentRequests();
     }
 
     /**
-     * Saves staff data to the CSV file.
+     * Saves staff data to storage through {@link WriteBehind}. The map is copied first,
+     * so the save does not see later additions or removals.
      *
      * @param staff a map of staff IDs to {@link User} objects to save.
      */
     public static void saveStaffData(Map<String, User> staff) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(STAFF_FILE))) {
-            writer.println("Staff ID,Name,Role,Gender,Age");
-            for (User user : staff.values()) {
-                String age = "";
-                if (user instanceof Doctor doctor) {
-                    age = String.valueOf(doctor.getAge());
-                } else if (user instanceof Pharmacist pharmacist) {
-                    age = String.valueOf(pharmacist.getAge());
-                } else if (user instanceof Administrator admin) {
-                    age = String.valueOf(admin.getAge());
-                }
-                writer.printf("%s,%s,%s,%s,%s%n",
-                        user.getUserId(),
-                        user.getName(),
-                        user.getRole(),
-                        user.getGender(),
-                        age);
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving staff data: " + e.getMessage());
-        }
+        Map<String, User> copy = new LinkedHashMap<>(staff);
+        WriteBehind.getInstance().markDirty("staff", () -> Storage.getInstance().getUserStore().saveStaff(copy));
+    }
+
+    /**
+     * Records the stored staff and patients in the storage snapshot, so the next start
+     * can load them without parsing.
+     */
+    public static void checkpoint() {
+        Storage.getInstance().getUserStore().checkpoint(loadStaffData(), loadPatientData());
     }
 }
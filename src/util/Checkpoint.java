@@ -0,0 +1,45 @@
+package util;
+
+import util.storage.Storage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Writes a storage snapshot of the state held by every manager, so the next start can load it
+ * instead of parsing the CSV files.
+ *
+ * Pending {@link WriteBehind} saves are flushed first, so the snapshot matches the CSV files.
+ * Each manager then records its state through its store, and the snapshot is written in one go.
+ * Only managers that were created during the session take part: each registers itself when its
+ * instance is created, so a checkpoint never loads data the session did not use. The sections
+ * of the other managers are carried over from the previous snapshot while still fresh.
+ * Parts of the snapshot whose CSV files change afterwards are ignored at the next start, so a
+ * checkpoint can be taken at any time; it is taken on every clean shutdown.
+ */
+public class Checkpoint {
+
+    private static final List<Runnable> participants = new CopyOnWriteArrayList<>(); // Checkpoint actions of the created managers
+
+    /**
+     * Adds a manager to every later checkpoint. Called once by each manager when its
+     * instance is created.
+     *
+     * @param checkpoint records the manager's state in the snapshot
+     */
+    public static void register(Runnable checkpoint) {
+        participants.add(checkpoint);
+    }
+
+    /**
+     * Records the state of the users and of every created manager, and writes the snapshot.
+     *
+     * @return {@code true} if the snapshot was written, {@code false} otherwise
+     */
+    public static boolean run() {
+        WriteBehind.getInstance().flush();
+        CSVDataLoader.checkpoint();
+        participants.forEach(Runnable::run);
+        return Storage.getInstance().writeSnapshot();
+    }
+}
@@ -1,12 +1,15 @@
 /**
  * Manages user credentials, including authentication, password management, 
- * and first login tracking. This class loads credentials from a CSV file, 
+ * and first login tracking. This class loads credentials from storage, 
  * verifies passwords, and updates user credentials when necessary.
  */
 package util;
 
 import entity.users.User;
-import java.io.*;
+import util.storage.CredentialStore;
+import util.storage.Storage;
+import util.storage.StoredCredential;
+
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
@@ -14,21 +17,21 @@ import java.util.*;
 /**
  * The {@code CredentialManager} class provides functionalities for managing user credentials.
  * It includes methods for verifying passwords, tracking first login status, and updating passwords.
- * The credentials are stored and maintained in a CSV file.
+ * The credentials are kept in the {@link CredentialStore} of the configured storage backend.
  *
  * This class follows the Singleton design pattern to ensure only one instance is active.
  */
 public class CredentialManager {
 
-    /** File path for storing user credentials. */
-    private static final String CREDENTIALS_FILE = "data/credentials.csv";
-
     /** The single instance of the {@code CredentialManager} (Singleton). */
     private static CredentialManager instance;
 
     /** A map of user credentials, keyed by user ID. */
     private final Map<String, UserCredential> userCredentials;
 
+    /** The store the credentials are loaded from and saved to. */
+    private final CredentialStore store;
+
     /**
      * A nested class to represent user credentials, including the hashed password
      * and a flag for whether this is the user's first login.
@@ -53,10 +56,11 @@ public class CredentialManager {
     }
 
     /**
-     * Private constructor to initialize the credentials from the CSV file.
+     * Private constructor to initialize the credentials from storage.
      */
     private CredentialManager() {
         userCredentials = new HashMap<>();
+        store = Storage.getInstance().getCredentialStore();
         initializeCredentials();
     }
 
@@ -69,56 +73,41 @@ public class CredentialManager {
     public static CredentialManager getInstance() {
         if (instance == null) {
             instance = new CredentialManager();
+            Checkpoint.register(instance::checkpoint);
         }
         return instance;
     }
 
     /**
-     * Initializes credentials by loading them from the CSV file.
-     * If the file does not exist, it creates a new file with default credentials.
+     * Initializes credentials by loading them from storage.
+     * If no credentials have been stored yet, default credentials are created first.
      */
     private void initializeCredentials() {
-        File file = new File(CREDENTIALS_FILE);
-        if (!file.exists()) {
-            createCredentialsFile();
+        if (!store.exists()) {
+            createDefaultCredentials();
         }
         loadCredentials();
     }
 
     /**
-     * Creates the credentials file with default passwords for all users.
+     * Stores default passwords for all users.
      */
-    private void createCredentialsFile() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CREDENTIALS_FILE))) {
-            writer.println("UserId,PasswordHash,IsFirstLogin");
-            Map<String, User> users = CSVDataLoader.loadAllUsers();
-            for (String userId : users.keySet()) {
-                writer.printf("%s,%s,true%n", userId, hashPassword("password"));
-            }
-        } catch (IOException e) {
-            System.err.println("Error creating credentials file: " + e.getMessage());
+    private void createDefaultCredentials() {
+        Map<String, StoredCredential> credentials = new HashMap<>();
+        Map<String, User> users = CSVDataLoader.loadAllUsers();
+        for (String userId : users.keySet()) {
+            credentials.put(userId, new StoredCredential(userId, hashPassword("password"), true));
         }
+        store.save(credentials);
     }
 
     /**
-     * Loads credentials from the CSV file into memory.
+     * Loads credentials from storage into memory.
      */
     private void loadCredentials() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(CREDENTIALS_FILE))) {
-            reader.readLine(); // Skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] data = line.split(",");
-                if (data.length >= 3) {
-                    String userId = data[0].trim();
-                    String passwordHash = data[1].trim();
-                    boolean isFirstLogin = Boolean.parseBoolean(data[2].trim());
-                    userCredentials.put(userId, new UserCredential(passwordHash, isFirstLogin));
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading credentials: " + e.getMessage());
+        for (StoredCredential credential : store.load().values()) {
+            userCredentials.put(credential.getUserId(),
+                    new UserCredential(credential.getPasswordHash(), credential.isFirstLogin()));
         }
     }
 
@@ -176,32 +165,28 @@ public class CredentialManager {
      */
     public boolean updatePassword(String userId, String newPassword) {
         if (!userCredentials.containsKey(userId)) return false;
-        try {
-            List<String> lines = new ArrayList<>();
-            try (BufferedReader reader = new BufferedReader(new FileReader(CREDENTIALS_FILE))) {
-                lines.add(reader.readLine()); // Add header
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] data = line.split(",");
-                    if (data[0].trim().equals(userId)) {
-                        lines.add(String.format("%s,%s,false", userId, hashPassword(newPassword)));
-                    } else {
-                        lines.add(line);
-                    }
-                }
-            }
-            try (PrintWriter writer = new PrintWriter(new FileWriter(CREDENTIALS_FILE))) {
-                for (String line : lines) {
-                    writer.println(line);
-                }
-            }
-            UserCredential credential = userCredentials.get(userId);
-            credential.passwordHash = hashPassword(newPassword);
-            credential.isFirstLogin = false;
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error updating password: " + e.getMessage());
+
+        // Rewrite the stored credentials first, so a failed save leaves the old password in effect
+        Map<String, StoredCredential> stored = store.load();
+        stored.put(userId, new StoredCredential(userId, hashPassword(newPassword), false));
+        if (!store.save(stored)) {
             return false;
         }
+
+        UserCredential credential = userCredentials.get(userId);
+        credential.passwordHash = hashPassword(newPassword);
+        credential.isFirstLogin = false;
+        return true;
+    }
+
+    /**
+     * Records the current credentials in the storage snapshot, so the next start
+     * can load them without parsing.
+     */
+    public void checkpoint() {
+        Map<String, StoredCredential> credentials = new HashMap<>();
+        userCredentials.forEach((userId, credential) -> credentials.put(userId,
+                new StoredCredential(userId, credential.passwordHash, credential.isFirstLogin)));
+        store.checkpoint(credentials);
     }
 }
@@ -0,0 +1,126 @@
+package util;
+
+import util.storage.CsvReader;
+import util.storage.CsvWriter;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates unique, monotonically increasing IDs for appointments and replenishment requests.
+ *
+ * Each ID is built from the current time in milliseconds shifted left to leave room for a
+ * per-millisecond sequence, so up to 1024 IDs can be issued in the same millisecond without
+ * colliding. Allocation is a single compare-and-set, so concurrent callers never block each other.
+ *
+ * To stay unique across restarts, the generator persists a high-water mark ahead of the IDs
+ * it hands out. Values are reserved a time window at a time ({@value #RESERVATION_SECONDS}
+ * seconds of clock time), so the file is rewritten about once per window rather than on most
+ * calls. On startup allocation resumes above the stored mark, even if the clock has moved backwards.
+ */
+public class IdGenerator {
+
+    private static final String STATE_FILE = "data/id_allocator.csv"; // File storing the reserved high-water mark
+    private static final int SEQUENCE_BITS = 10;          // Bits reserved for the per-millisecond sequence
+    private static final long RESERVATION_SECONDS = 60;   // Clock time covered by each write of the state file
+    private static final long RESERVATION_BLOCK = (RESERVATION_SECONDS * 1000) << SEQUENCE_BITS; // Values reserved per write
+    private static IdGenerator instance;
+
+    private final AtomicLong lastValue;  // Last value handed out
+    private volatile long reservedUpTo;  // Values below this are covered by the persisted high-water mark
+
+    /**
+     * Private constructor for singleton implementation. Loads the persisted high-water mark.
+     */
+    private IdGenerator() {
+        long highWaterMark = loadHighWaterMark();
+        lastValue = new AtomicLong(highWaterMark);
+        reservedUpTo = highWaterMark;
+    }
+
+    /**
+     * Retrieves the singleton instance of the generator.
+     *
+     * @return the instance of IdGenerator
+     */
+    public static synchronized IdGenerator getInstance() {
+        if (instance == null) {
+            instance = new IdGenerator();
+        }
+        return instance;
+    }
+
+    /**
+     * Generates a new unique ID with the given prefix, for example {@code APT} or {@code REQ}.
+     * The numeric part is encoded in base 36 to keep the ID short.
+     *
+     * @param prefix the prefix identifying the kind of record
+     * @return the new ID
+     * @throws IllegalStateException if the high-water mark covering the ID cannot be saved
+     */
+    public String nextId(String prefix) {
+        return prefix + Long.toString(nextValue(), Character.MAX_RADIX).toUpperCase();
+    }
+
+    /**
+     * Allocates the next numeric value, reserving a new block first if the value is not yet
+     * covered by the persisted high-water mark. A value that cannot be reserved is never handed
+     * out, since after a restart with the clock set back it could be issued again.
+     *
+     * @return the allocated value
+     * @throws IllegalStateException if the value could not be reserved
+     */
+    private long nextValue() {
+        long timeFloor = System.currentTimeMillis() << SEQUENCE_BITS;
+        long value = lastValue.updateAndGet(last -> Math.max(last + 1, timeFloor));
+        if (value >= reservedUpTo && !reserve(value)) {
+            throw new IllegalStateException("Could not reserve a new ID; the ID allocator state was not saved.");
+        }
+        return value;
+    }
+
+    /**
+     * Persists a high-water mark one block past the given value. The reservation only takes
+     * effect once the state file has been written; if writing fails, the next allocation
+     * tries again.
+     *
+     * @param value the value that must be covered by the reservation
+     * @return {@code true} if the value is covered by the persisted high-water mark, {@code false} otherwise
+     */
+    private synchronized boolean reserve(long value) {
+        if (value < reservedUpTo) {
+            return true;
+        }
+        long highWaterMark = value + RESERVATION_BLOCK;
+        try (CsvWriter writer = CsvWriter.create(STATE_FILE)) {
+            writer.writeLine("HighWaterMark");
+            writer.field(highWaterMark).endRow();
+            writer.commit();
+            reservedUpTo = highWaterMark;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving ID allocator state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the persisted high-water mark, or zero if none has been stored yet.
+     *
+     * @return the high-water mark
+     */
+    private long loadHighWaterMark() {
+        File file = new File(STATE_FILE);
+        if (!file.exists()) {
+            return 0;
+        }
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+            return reader.nextRow() ? reader.getLong(0) : 0;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading ID allocator state: " + e.getMessage());
+            return 0;
+        }
+    }
+}
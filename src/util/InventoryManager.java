@@ -7,10 +7,9 @@ package util;
 
 import entity.Medications.Medication;
 import entity.Medications.ReplenishmentRequest;
+import util.storage.Storage;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,12 +20,6 @@ import java.util.List;
  */
 public class InventoryManager {
 
-    /** File path for storing medication data. */
-    private static final String MEDICINE_FILE = "data/medicine.csv";
-
-    /** File path for storing replenishment request data. */
-    private static final String REPLENISHMENT_FILE = "data/replenishment_requests.csv";
-
     /** A list of all medications in the inventory. */
     private final List<Medication> medications;
 
@@ -35,7 +28,7 @@ public class InventoryManager {
 
     /**
      * Constructs an {@code InventoryManager} and initializes the data by loading
-     * medications and replenishment requests from CSV files.
+     * medications and replenishment requests from storage.
      */
     public InventoryManager() {
         this.medications = CSVDataLoader.loadMedications();
@@ -71,34 +64,28 @@ public class InventoryManager {
     }
 
     /**
-     * Saves the current list of medications to the persistent storage file.
+     * Saves the current list of medications to the persistent storage file through
+     * {@link WriteBehind}. The list is copied first, so the save does not see later
+     * additions or removals.
      *
      * @param medications the list of {@link Medication} objects to save.
      */
     public static void saveMedications(List<Medication> medications) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(MEDICINE_FILE))) {
-            writer.println("Name,Stock,LowStockAlert");
-            for (Medication medication : medications) {
-                writer.println(medication);
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving medications: " + e.getMessage());
-        }
+        List<Medication> copy = new ArrayList<>(medications);
+        WriteBehind.getInstance().markDirty("medications",
+                () -> Storage.getInstance().getInventoryStore().saveMedications(copy));
     }
 
     /**
-     * Saves the current list of replenishment requests to the persistent storage file.
+     * Saves the current list of replenishment requests to the persistent storage file through
+     * {@link WriteBehind}. The list is copied first, so the save does not see later
+     * additions or removals.
      *
      * @param requests the list of {@link ReplenishmentRequest} objects to save.
      */
     public static void saveReplenishmentRequests(List<ReplenishmentRequest> requests) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(REPLENISHMENT_FILE))) {
-            writer.println("ID,MedicationName,Quantity,PharmacistId,Status");
-            for (ReplenishmentRequest request : requests) {
-                writer.println(request);
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving replenishment requests: " + e.getMessage());
-        }
+        List<ReplenishmentRequest> copy = new ArrayList<>(requests);
+        WriteBehind.getInstance().markDirty("replenishment_requests",
+                () -> Storage.getInstance().getInventoryStore().saveReplenishmentRequests(copy));
     }
 }
@@ -0,0 +1,291 @@
+package util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable sorted map that is updated by path copying.
+ *
+ * The map is a balanced (AVL) binary tree. {@link #put} and {@link #remove} return a new map
+ * and leave this one untouched; the new map copies only the nodes on the path to the changed
+ * key, about log2(n) of them, and shares every other node with this one. That lets
+ * {@link AppointmentSnapshot} publish a new version after each change without copying the
+ * maps of buckets that did not change.
+ *
+ * Instances are immutable, so they can be shared between threads without locking.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentTreeMap<K, V> {
+
+    private final Comparator<? super K> comparator; // Orders the keys
+    private final Node<K, V> root;                  // Root of the tree, or null if the map is empty
+
+    private PersistentTreeMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * Creates an empty map ordered by the natural order of its keys.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> empty() {
+        return new PersistentTreeMap<>(Comparator.naturalOrder(), null);
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is not in the map
+     */
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int order = comparator.compare(key, node.key);
+            if (order == 0) {
+                return node.value;
+            }
+            node = order < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a map in which the key has the given value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new map
+     */
+    PersistentTreeMap<K, V> put(K key, V value) {
+        Node<K, V> updated = put(root, key, value);
+        return updated == root ? this : new PersistentTreeMap<>(comparator, updated);
+    }
+
+    /**
+     * Returns a map without the key.
+     *
+     * @param key the key
+     * @return the new map, or this map if the key is not in it
+     */
+    PersistentTreeMap<K, V> remove(K key) {
+        Node<K, V> updated = remove(root, key);
+        return updated == root ? this : new PersistentTreeMap<>(comparator, updated);
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Checks whether the map has no keys.
+     *
+     * @return {@code true} if the map is empty
+     */
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Gets the values of every key, in key order.
+     *
+     * @return the values
+     */
+    Iterable<V> values() {
+        return () -> new ValueIterator<>(root, null, null, comparator);
+    }
+
+    /**
+     * Gets the values of the keys from a key onwards, inclusive, in key order.
+     *
+     * @param from the first key
+     * @return the values
+     */
+    Iterable<V> valuesFrom(K from) {
+        return () -> new ValueIterator<>(root, from, null, comparator);
+    }
+
+    /**
+     * Gets the values of the keys between two keys, both inclusive, in key order.
+     *
+     * @param from the first key
+     * @param to   the last key
+     * @return the values
+     */
+    Iterable<V> valuesBetween(K from, K to) {
+        return () -> new ValueIterator<>(root, from, to, comparator);
+    }
+
+    /**
+     * Passes every key and value to an action, in key order.
+     *
+     * @param action receives each key and value
+     */
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        Deque<Node<K, V>> path = new ArrayDeque<>();
+        for (Node<K, V> node = root; node != null || !path.isEmpty(); ) {
+            if (node != null) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = path.pop();
+                action.accept(node.key, node.value);
+                node = node.right;
+            }
+        }
+    }
+
+    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int order = comparator.compare(key, node.key);
+        if (order < 0) {
+            Node<K, V> left = put(node.left, key, value);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (order > 0) {
+            Node<K, V> right = put(node.right, key, value);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        return node.value == value ? node : new Node<>(key, value, node.left, node.right);
+    }
+
+    private Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int order = comparator.compare(key, node.key);
+        if (order < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (order > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+
+    private Node<K, V> removeFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    /**
+     * Builds a node from two subtrees whose heights differ by at most two, rotating once or
+     * twice to restore the AVL balance.
+     */
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            return new Node<>(left.right.key, left.right.value,
+                    new Node<>(left.key, left.value, left.left, left.right.left),
+                    new Node<>(key, value, left.right.right, right));
+        }
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            return new Node<>(right.left.key, right.left.value,
+                    new Node<>(key, value, left, right.left.left),
+                    new Node<>(right.key, right.value, right.left.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A tree node. Nodes are never changed once built.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;  // Keys before this one
+        private final Node<K, V> right; // Keys after this one
+        private final int height;       // Height of the subtree rooted here
+        private final int size;         // Number of keys in the subtree rooted here
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    /**
+     * Walks the values of a key range in order, keeping the path to the next node on a stack.
+     */
+    private static final class ValueIterator<K, V> implements Iterator<V> {
+        private final Deque<Node<K, V>> path = new ArrayDeque<>(); // Nodes whose value and right subtree are still to come
+        private final K to;                                       // Last key to return, or null for no limit
+        private final Comparator<? super K> comparator;
+
+        ValueIterator(Node<K, V> root, K from, K to, Comparator<? super K> comparator) {
+            this.to = to;
+            this.comparator = comparator;
+            // Descend to the first key at or after from, remembering the nodes still to visit
+            for (Node<K, V> node = root; node != null; ) {
+                if (from != null && comparator.compare(node.key, from) < 0) {
+                    node = node.right;
+                } else {
+                    path.push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty() && (to == null || comparator.compare(path.peek().key, to) <= 0);
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = path.pop();
+            for (Node<K, V> next = node.right; next != null; next = next.left) {
+                path.push(next);
+            }
+            return node.value;
+        }
+    }
+}
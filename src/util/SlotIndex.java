@@ -0,0 +1,180 @@
+package util;
+
+import entity.Appointments.AppointmentSlot;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Indexes appointment slots by doctor and start time.
+ * Each doctor owns a time-ordered map of slots, so looking up a single slot is a
+ * logarithmic search and listing a doctor's future slots is a range view with no sorting.
+ *
+ * Slots are stored as objects, so {@link #find} returns the stored slot itself.
+ *
+ * The index uses concurrent maps, so lookups never block. Callers are expected to serialize
+ * changes to a single doctor's slots, as {@link AppointmentManager} does with its doctor locks.
+ */
+public class SlotIndex implements SlotStore {
+
+    private final Map<String, NavigableMap<LocalDateTime, AppointmentSlot>> slotsByDoctor; // doctorId -> (startTime -> slot)
+    private final AtomicInteger size; // Total number of indexed slots
+
+    /**
+     * Constructs an empty slot index.
+     */
+    public SlotIndex() {
+        slotsByDoctor = new ConcurrentHashMap<>();
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Adds a slot to the index. A slot already indexed for the same doctor and start
+     * time is replaced.
+     *
+     * @param slot the slot to add
+     */
+    @Override
+    public void add(AppointmentSlot slot) {
+        NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots =
+                slotsByDoctor.computeIfAbsent(slot.getDoctorId(), id -> new ConcurrentSkipListMap<>());
+        if (doctorSlots.put(slot.getStartTime(), slot) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Finds the slot of a doctor starting at the given time.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @return the matching slot, or {@code null} if the doctor has no slot at that time
+     */
+    @Override
+    public AppointmentSlot find(String doctorId, LocalDateTime startTime) {
+        NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots = slotsByDoctor.get(doctorId);
+        return doctorSlots == null ? null : doctorSlots.get(startTime);
+    }
+
+    /**
+     * Changes the availability of an indexed slot.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @param available {@code true} to free the slot, {@code false} to mark it as taken
+     * @return {@code true} if the slot exists, {@code false} otherwise
+     */
+    @Override
+    public boolean setAvailable(String doctorId, LocalDateTime startTime, boolean available) {
+        AppointmentSlot slot = find(doctorId, startTime);
+        if (slot == null) {
+            return false;
+        }
+        slot.setAvailable(available);
+        return true;
+    }
+
+    /**
+     * Retrieves the available slots of a doctor starting strictly after the given time,
+     * in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return a list of available slots ordered by start time
+     */
+    @Override
+    public List<AppointmentSlot> getAvailableAfter(String doctorId, LocalDateTime after) {
+        NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots = slotsByDoctor.get(doctorId);
+        if (doctorSlots == null) {
+            return new ArrayList<>();
+        }
+
+        List<AppointmentSlot> result = new ArrayList<>();
+        for (AppointmentSlot slot : doctorSlots.tailMap(after, false).values()) {
+            if (slot.isAvailable()) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the earliest available slot of a doctor starting strictly after the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return the first available slot, or {@code null} if there is none
+     */
+    @Override
+    public AppointmentSlot findFirstAvailableAfter(String doctorId, LocalDateTime after) {
+        NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots = slotsByDoctor.get(doctorId);
+        if (doctorSlots == null) {
+            return null;
+        }
+
+        for (AppointmentSlot slot : doctorSlots.tailMap(after, false).values()) {
+            if (slot.isAvailable()) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes a doctor's slots that start before the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param cutoff   the exclusive upper bound for the start time of removed slots
+     * @return the removed slots in chronological order
+     */
+    @Override
+    public List<AppointmentSlot> removeBefore(String doctorId, LocalDateTime cutoff) {
+        NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots = slotsByDoctor.get(doctorId);
+        if (doctorSlots == null) {
+            return new ArrayList<>();
+        }
+
+        NavigableMap<LocalDateTime, AppointmentSlot> expired = doctorSlots.headMap(cutoff, false);
+        List<AppointmentSlot> removed = new ArrayList<>(expired.values());
+        expired.clear();
+        size.addAndGet(-removed.size());
+        return removed;
+    }
+
+    /**
+     * Gets the IDs of every doctor with at least one stored slot.
+     *
+     * @return a set of doctor IDs
+     */
+    @Override
+    public Set<String> getDoctorIds() {
+        return new HashSet<>(slotsByDoctor.keySet());
+    }
+
+    /**
+     * Retrieves every indexed slot, grouped by doctor and ordered by start time within each doctor.
+     *
+     * @return a list of all slots
+     */
+    @Override
+    public List<AppointmentSlot> getAll() {
+        List<AppointmentSlot> result = new ArrayList<>(size.get());
+        for (NavigableMap<LocalDateTime, AppointmentSlot> doctorSlots : slotsByDoctor.values()) {
+            result.addAll(doctorSlots.values());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the total number of indexed slots.
+     *
+     * @return the number of slots
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
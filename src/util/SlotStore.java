@@ -0,0 +1,96 @@
+package util;
+
+import entity.Appointments.AppointmentSlot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores the appointment slots offered by doctors and whether each slot is still free.
+ *
+ * Implementations may hand out {@link AppointmentSlot} objects that are snapshots rather than
+ * the stored state, so availability must always be changed through {@link #setAvailable} and
+ * never by calling {@link AppointmentSlot#setAvailable} on a returned slot.
+ *
+ * Lookups may run concurrently with changes. Callers are expected to serialize changes to a
+ * single doctor's slots, as {@link AppointmentManager} does with its doctor locks.
+ */
+public interface SlotStore {
+
+    /**
+     * Adds a slot to the store, taking its availability from the slot. A slot already stored
+     * for the same doctor and start time is replaced.
+     *
+     * @param slot the slot to add
+     */
+    void add(AppointmentSlot slot);
+
+    /**
+     * Finds the slot of a doctor starting at the given time.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @return the matching slot, or {@code null} if the doctor has no slot at that time
+     */
+    AppointmentSlot find(String doctorId, LocalDateTime startTime);
+
+    /**
+     * Changes the availability of a stored slot.
+     *
+     * @param doctorId  the ID of the doctor
+     * @param startTime the start time of the slot
+     * @param available {@code true} to free the slot, {@code false} to mark it as taken
+     * @return {@code true} if the slot exists, {@code false} otherwise
+     */
+    boolean setAvailable(String doctorId, LocalDateTime startTime, boolean available);
+
+    /**
+     * Retrieves the available slots of a doctor starting strictly after the given time,
+     * in chronological order.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return a list of available slots ordered by start time
+     */
+    List<AppointmentSlot> getAvailableAfter(String doctorId, LocalDateTime after);
+
+    /**
+     * Finds the earliest available slot of a doctor starting strictly after the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param after    the exclusive lower bound for the slot start time
+     * @return the first available slot, or {@code null} if there is none
+     */
+    AppointmentSlot findFirstAvailableAfter(String doctorId, LocalDateTime after);
+
+    /**
+     * Removes a doctor's slots that start before the given time.
+     *
+     * @param doctorId the ID of the doctor
+     * @param cutoff   the exclusive upper bound for the start time of removed slots
+     * @return the removed slots in chronological order
+     */
+    List<AppointmentSlot> removeBefore(String doctorId, LocalDateTime cutoff);
+
+    /**
+     * Gets the IDs of every doctor with at least one stored slot.
+     *
+     * @return a set of doctor IDs
+     */
+    Set<String> getDoctorIds();
+
+    /**
+     * Retrieves every stored slot, grouped by doctor and ordered by start time within each doctor.
+     *
+     * @return a list of all slots
+     */
+    List<AppointmentSlot> getAll();
+
+    /**
+     * Gets the total number of stored slots.
+     *
+     * @return the number of slots
+     */
+    int size();
+}
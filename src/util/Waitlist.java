@@ -0,0 +1,102 @@
+package util;
+
+import entity.Appointments.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Holds the patients waiting for a slot, grouped by doctor and day.
+ *
+ * Each doctor has a date-ordered map of queues, so finding the patients waiting for a freed
+ * slot is a logarithmic lookup, and each queue keeps patients in the order they joined.
+ * A patient can wait at most once for the same doctor and day.
+ *
+ * All operations synchronize on the waitlist. {@link AppointmentManager} additionally changes
+ * a doctor's entries only while holding that doctor's lock, so matching a freed slot against
+ * the queue cannot race with another change to the same doctor.
+ */
+public class Waitlist {
+
+    private final Map<String, NavigableMap<LocalDate, List<WaitlistEntry>>> entriesByDoctor; // doctorId -> (date -> queue)
+
+    /**
+     * Constructs an empty waitlist.
+     */
+    public Waitlist() {
+        entriesByDoctor = new HashMap<>();
+    }
+
+    /**
+     * Adds an entry to the end of the queue for its doctor and day.
+     *
+     * @param entry the entry to add
+     * @return {@code true} if the entry was added, {@code false} if the patient is already waiting for that doctor and day
+     */
+    public synchronized boolean add(WaitlistEntry entry) {
+        List<WaitlistEntry> queue = entriesByDoctor
+                .computeIfAbsent(entry.getDoctorId(), id -> new TreeMap<>())
+                .computeIfAbsent(entry.getDate(), date -> new ArrayList<>());
+        for (WaitlistEntry existing : queue) {
+            if (existing.getPatientId().equals(entry.getPatientId())) {
+                return false;
+            }
+        }
+        queue.add(entry);
+        return true;
+    }
+
+    /**
+     * Removes a patient from the queue for a doctor and day.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor
+     * @param date      the day the patient was waiting for
+     * @return the removed entry, or {@code null} if the patient was not waiting
+     */
+    public synchronized WaitlistEntry remove(String patientId, String doctorId, LocalDate date) {
+        NavigableMap<LocalDate, List<WaitlistEntry>> queues = entriesByDoctor.get(doctorId);
+        List<WaitlistEntry> queue = queues == null ? null : queues.get(date);
+        if (queue == null) {
+            return null;
+        }
+
+        for (Iterator<WaitlistEntry> it = queue.iterator(); it.hasNext(); ) {
+            WaitlistEntry entry = it.next();
+            if (entry.getPatientId().equals(patientId)) {
+                it.remove();
+                if (queue.isEmpty()) {
+                    queues.remove(date);
+                }
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the patients waiting for a doctor on a day, in the order they joined.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date     the day to look up
+     * @return the waiting entries
+     */
+    public synchronized List<WaitlistEntry> getWaiting(String doctorId, LocalDate date) {
+        NavigableMap<LocalDate, List<WaitlistEntry>> queues = entriesByDoctor.get(doctorId);
+        List<WaitlistEntry> queue = queues == null ? null : queues.get(date);
+        return queue == null ? new ArrayList<>() : new ArrayList<>(queue);
+    }
+
+    /**
+     * Retrieves every entry, grouped by doctor and ordered by day and then by join order.
+     *
+     * @return all waitlist entries
+     */
+    public synchronized List<WaitlistEntry> getAll() {
+        List<WaitlistEntry> result = new ArrayList<>();
+        for (NavigableMap<LocalDate, List<WaitlistEntry>> queues : entriesByDoctor.values()) {
+            queues.values().forEach(result::addAll);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the managers' data in the background, so a change does not wait for its files to be
+ * rewritten.
+ *
+ * A manager marks an aggregate as dirty by handing over a key and the action that saves it.
+ * Marking the same key again before it is flushed replaces the earlier action, so a burst of
+ * changes to one aggregate is written once. Flushing runs every pending action in the order
+ * their keys were first marked, one flush at a time.
+ *
+ * When a change is actually written is set by the {@code hms.durability} system property:
+ * <ul>
+ *   <li>{@code sync}: each change is saved on the caller's thread before it returns, as
+ *       without write-behind.</li>
+ *   <li>{@code interval} (the default): changes are flushed on a daemon thread
+ *       {@code hms.flushIntervalMillis} milliseconds (100 by default) after the first one
+ *       is marked, so changes made within that window are written together.</li>
+ *   <li>{@code shutdown}: changes are only flushed on shutdown or by an explicit {@link #flush}.</li>
+ * </ul>
+ * Whatever the policy, a shutdown hook flushes every pending change when the JVM exits.
+ * A change made under {@code interval} or {@code shutdown} can be lost if the process is
+ * killed before it is flushed.
+ *
+ * Save actions run on the flusher thread, so they must read the data they save under the same
+ * lock the owning manager holds while changing it.
+ */
+public class WriteBehind {
+
+    private static final String DURABILITY_PROPERTY = "hms.durability"; // sync, interval or shutdown
+    private static final String INTERVAL_PROPERTY = "hms.flushIntervalMillis"; // Delay before changes are flushed
+    private static final long DEFAULT_INTERVAL = 100; // Default milliseconds before changes are flushed
+    private static WriteBehind instance;
+
+    /**
+     * When marked changes are written.
+     */
+    public enum Durability {
+        SYNC,     // Saved on the caller's thread before returning
+        INTERVAL, // Saved in the background shortly after being marked
+        SHUTDOWN  // Saved on shutdown or an explicit flush
+    }
+
+    private final Durability durability;        // When marked changes are written
+    private final long interval;                // Milliseconds between the first mark and the flush
+    private final Map<String, Runnable> pending; // Key -> latest save action, guarded by this
+    private final Object flushLock;             // Held while flushing, so flushes never overlap
+    private final ScheduledExecutorService flusher; // Runs scheduled flushes, or null unless INTERVAL
+    private boolean flushScheduled;             // Whether a flush is already scheduled, guarded by this
+
+    /**
+     * Private constructor for singleton implementation. Reads the durability policy and
+     * registers the shutdown hook.
+     */
+    private WriteBehind() {
+        durability = parseDurability(System.getProperty(DURABILITY_PROPERTY));
+        interval = Math.max(0, Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+        pending = new LinkedHashMap<>();
+        flushLock = new Object();
+
+        if (durability == Durability.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            flusher = null;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "write-behind-shutdown"));
+    }
+
+    /**
+     * Retrieves the singleton instance of the write-behind service.
+     *
+     * @return the instance of WriteBehind
+     */
+    public static synchronized WriteBehind getInstance() {
+        if (instance == null) {
+            instance = new WriteBehind();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the policy that decides when marked changes are written.
+     *
+     * @return the durability policy
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Marks an aggregate as changed. Under {@link Durability#SYNC} the save action runs straight
+     * away; otherwise it replaces any pending action for the same key and runs with the next flush.
+     *
+     * @param key  identifies the aggregate, usually the name of the file it is saved to
+     * @param save writes the current state of the aggregate
+     */
+    public void markDirty(String key, Runnable save) {
+        if (durability == Durability.SYNC) {
+            save.run();
+            return;
+        }
+
+        synchronized (this) {
+            pending.put(key, save);
+            if (flusher != null && !flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Runs every pending save action on the caller's thread. A failing action is reported and
+     * does not stop the others.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, Runnable> batch;
+            synchronized (this) {
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                flushScheduled = false;
+            }
+
+            for (Map.Entry<String, Runnable> entry : batch.entrySet()) {
+                try {
+                    entry.getValue().run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error saving " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the durability policy, falling back to {@link Durability#INTERVAL} for a missing
+     * or unknown value.
+     *
+     * @param value the property value
+     * @return the durability policy
+     */
+    private static Durability parseDurability(String value) {
+        if (value == null) {
+            return Durability.INTERVAL;
+        }
+        try {
+            return Durability.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown durability policy " + value + ", using interval.");
+            return Durability.INTERVAL;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package util.storage;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentSlot;
+import entity.Appointments.AvailabilityTemplate;
+import entity.Appointments.WaitlistEntry;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.function.Consumer;
+
+/**
+ * Stores everything {@link util.AppointmentManager} persists: appointments partitioned by month,
+ * slots, availability templates, the waitlist, archived slots and the journal of changes made
+ * since the last snapshot.
+ *
+ * Journal records are opaque comma-separated strings produced by the manager. The manager
+ * serializes journal calls with compaction, so implementations need not order them.
+ */
+public interface AppointmentStore {
+
+    /**
+     * Lists the months that have stored appointments.
+     *
+     * @return the stored months in chronological order
+     */
+    NavigableSet<YearMonth> getMonths();
+
+    /**
+     * Reads the appointments stored for a month.
+     *
+     * @param month the month to read
+     * @return the stored appointments, or an empty list if the month has none
+     */
+    List<Appointment> readMonth(YearMonth month);
+
+    /**
+     * Replaces the appointments stored for a month.
+     *
+     * @param month        the month to write
+     * @param appointments every appointment scheduled in that month
+     * @return {@code true} if the month was written, {@code false} otherwise
+     */
+    boolean writeMonth(YearMonth month, Collection<Appointment> appointments);
+
+    /**
+     * Summarizes the appointments stored for a month, so the owner can tell whether a query
+     * needs the month without reading it. Stores that keep a summary should override this,
+     * since the default reads the whole month.
+     *
+     * @param month the month to summarize
+     * @return the summary, which is empty if the month has no appointments
+     */
+    default MonthSummary summarizeMonth(YearMonth month) {
+        return MonthSummary.of(month, readMonth(month));
+    }
+
+    /**
+     * Loads every stored slot.
+     *
+     * @return a list of slots
+     */
+    List<AppointmentSlot> loadSlots();
+
+    /**
+     * Replaces the stored slots.
+     *
+     * @param slots every slot
+     * @return {@code true} if the slots were saved, {@code false} otherwise
+     */
+    boolean saveSlots(Collection<AppointmentSlot> slots);
+
+    /**
+     * Loads every recurring availability template.
+     *
+     * @return a list of templates
+     */
+    List<AvailabilityTemplate> loadTemplates();
+
+    /**
+     * Replaces the stored availability templates.
+     *
+     * @param templates every template
+     * @return {@code true} if the templates were saved, {@code false} otherwise
+     */
+    boolean saveTemplates(Collection<AvailabilityTemplate> templates);
+
+    /**
+     * Loads the waitlist in the order patients joined it.
+     *
+     * @return a list of waitlist entries
+     */
+    List<WaitlistEntry> loadWaitlist();
+
+    /**
+     * Replaces the stored waitlist.
+     *
+     * @param entries every waitlist entry, in the order patients joined
+     * @return {@code true} if the waitlist was saved, {@code false} otherwise
+     */
+    boolean saveWaitlist(Collection<WaitlistEntry> entries);
+
+    /**
+     * Adds slots that have passed to the slot archive.
+     *
+     * @param slots the slots to archive
+     */
+    void archiveSlots(List<AppointmentSlot> slots);
+
+    /**
+     * Appends a group of records to the journal. The group is applied on replay only if it
+     * was written in full.
+     *
+     * @param records the records describing one change
+     * @return {@code true} if the group was written, {@code false} otherwise
+     */
+    boolean appendToJournal(List<String> records);
+
+    /**
+     * Replays every committed journal record, in the order it was written.
+     *
+     * @param handler receives the fields of each record
+     * @return the number of records replayed
+     */
+    int replayJournal(Consumer<String[]> handler);
+
+    /**
+     * Removes all records from the journal, once their effects are in a snapshot.
+     */
+    void clearJournal();
+
+    /**
+     * Gets the number of records currently in the journal.
+     *
+     * @return the number of journal records
+     */
+    int getJournalEntryCount();
+
+    /**
+     * Records the current appointments of a month so the next start can load them without
+     * parsing. The month must already have been written. Does nothing unless the store keeps
+     * a snapshot.
+     *
+     * @param month        the month
+     * @param appointments every appointment scheduled in that month
+     */
+    default void checkpointMonth(YearMonth month, Collection<Appointment> appointments) {
+    }
+
+    /**
+     * Records the current slots so the next start can load them without parsing. The slots
+     * must already have been saved. Does nothing unless the store keeps a snapshot.
+     *
+     * @param slots every slot
+     */
+    default void checkpointSlots(Collection<AppointmentSlot> slots) {
+    }
+}
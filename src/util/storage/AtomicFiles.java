@@ -0,0 +1,109 @@
+package util.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replaces data files so that a crash never leaves a file half-written.
+ *
+ * A new version of a file is written to a temporary file next to it, named after the file with
+ * {@value #TEMP_SUFFIX} appended, and forced to disk by the writer. {@link #replace} then renames
+ * it over the original in one atomic step and forces the directory, so the rename itself survives
+ * a crash. At any moment the original name holds either the old or the new contents in full.
+ *
+ * A temporary file left behind by a crash was never renamed, so it is incomplete or superseded;
+ * {@link #recover} deletes such files at startup.
+ */
+public class AtomicFiles {
+
+    public static final String TEMP_SUFFIX = ".tmp"; // Appended to a file's name while its new version is written
+
+    /**
+     * Gets the temporary file a new version of the given file is written to.
+     *
+     * @param target the file to replace
+     * @return the temporary file next to it
+     */
+    public static Path tempFor(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Renames a fully written temporary file over the file it replaces, then forces the directory
+     * so the rename is durable. The temporary file should already be forced to disk.
+     *
+     * @param temp   the temporary file holding the new contents
+     * @param target the file to replace
+     * @throws IOException if the file cannot be renamed
+     */
+    public static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Deletes the temporary files left in a directory and its subdirectories by writes that
+     * never completed.
+     *
+     * @param directory the data directory
+     * @return the number of files deleted
+     */
+    public static int recover(String directory) {
+        Path root = new File(directory).toPath();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        List<Path> leftovers;
+        try (Stream<Path> files = Files.walk(root)) {
+            leftovers = files.filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Error checking for incomplete writes: " + e.getMessage());
+            return 0;
+        }
+
+        int deleted = 0;
+        for (Path leftover : leftovers) {
+            try {
+                Files.delete(leftover);
+                deleted++;
+                System.err.println("Removed incomplete write: " + leftover);
+            } catch (IOException e) {
+                System.err.println("Error removing incomplete write " + leftover + ": " + e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Forces a directory's entries to disk. Some platforms, such as Windows, cannot open a
+     * directory for this; there the rename is left to the file system, so failures are ignored.
+     *
+     * @param directory the directory
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package util.storage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary copy of the data held in the CSV files, loaded in preference to parsing them.
+ *
+ * The snapshot is made of named sections, each holding the contents of one or more CSV files.
+ * A section records the length, modification time and CRC-32 of its source files when it was
+ * taken, and is only used while the files still match. The length and time rule out most changed
+ * files cheaply; the checksum catches an edit that keeps the length within one tick of the clock. Every change is still saved to the CSV files,
+ * so a changed file simply makes its section stale and the store falls back to parsing it;
+ * the CSV files remain the interchange format and the source of truth.
+ *
+ * Within a section, strings are dictionary-encoded so repeated IDs are stored once, integers
+ * are variable-length, dates are stored as epoch days and date-times as epoch seconds.
+ * Each section carries a checksum, so a damaged section is ignored rather than loaded.
+ *
+ * The file is read once when the snapshot is constructed. Sections that were loaded but not
+ * replaced are kept, so {@link #write} carries them over as long as they are still fresh.
+ */
+public class BinarySnapshot {
+
+    private static final int MAGIC = 0x484D5353; // "HMSS"
+    private static final int VERSION = 2; // 2 added the source file checksum
+
+    private final File snapshotFile;            // Path of the snapshot file
+    private final Map<String, Section> sections; // Section name -> section, guarded by this
+
+    /**
+     * Constructs a snapshot backed by the given file, reading it if it exists.
+     * An unreadable or incompatible file is ignored.
+     *
+     * @param snapshotFile the path of the snapshot file
+     */
+    public BinarySnapshot(String snapshotFile) {
+        this.snapshotFile = new File(snapshotFile);
+        this.sections = new LinkedHashMap<>();
+        readFile();
+    }
+
+    /**
+     * Decodes a section if it exists and its source files have not changed since it was taken.
+     *
+     * @param name        the name of the section
+     * @param decoder     reads the section contents
+     * @param sourceFiles the CSV files the section was taken from
+     * @param <T>         the type of the decoded contents
+     * @return the decoded contents, or {@code null} if the section is missing, stale or damaged
+     */
+    public synchronized <T> T read(String name, SectionDecoder<T> decoder, String... sourceFiles) {
+        Section section = sections.get(name);
+        if (section == null || !section.isFresh(sourceFiles)) {
+            return null;
+        }
+
+        try {
+            return decoder.decode(new Input(section.payload));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring damaged snapshot section " + name + ": " + e.getMessage());
+            sections.remove(name);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a section with newly encoded contents. The source files should already hold the
+     * same data, since their current length, modification time and checksum are recorded with
+     * the section.
+     *
+     * @param name        the name of the section
+     * @param encoder     writes the section contents
+     * @param sourceFiles the CSV files holding the same data
+     */
+    public synchronized void put(String name, SectionEncoder encoder, String... sourceFiles) {
+        Output out = new Output();
+        try {
+            encoder.encode(out);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error encoding snapshot section " + name + ": " + e.getMessage());
+            sections.remove(name);
+            return;
+        }
+
+        List<Source> sources = new ArrayList<>();
+        for (String path : sourceFiles) {
+            sources.add(Source.of(path));
+        }
+        sections.put(name, new Section(name, sources, out.toByteArray()));
+    }
+
+    /**
+     * Writes every section that is still fresh to the snapshot file. Stale sections are dropped.
+     * The file is replaced atomically, as described in {@link AtomicFiles}.
+     *
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    public synchronized boolean write() {
+        sections.values().removeIf(section -> !section.isFresh());
+
+        Path temp = AtomicFiles.tempFor(snapshotFile.toPath());
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sections.size());
+                for (Section section : sections.values()) {
+                    section.writeTo(out);
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            AtomicFiles.replace(temp, snapshotFile.toPath());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot: " + e.getMessage());
+            temp.toFile().delete();
+            return false;
+        }
+    }
+
+    private void readFile() {
+        if (!snapshotFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.err.println("Ignoring snapshot with an unknown format: " + snapshotFile);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Section section = Section.readFrom(in);
+                if (section != null) {
+                    sections.put(section.name, section);
+                }
+            }
+        } catch (IOException e) {
+            // Keep the sections read before the damage; the rest are loaded from CSV
+            System.err.println("Error reading snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the contents of a section.
+     */
+    @FunctionalInterface
+    public interface SectionEncoder {
+        void encode(Output out) throws IOException;
+    }
+
+    /**
+     * Reads the contents of a section.
+     *
+     * @param <T> the type of the decoded contents
+     */
+    @FunctionalInterface
+    public interface SectionDecoder<T> {
+        T decode(Input in) throws IOException;
+    }
+
+    /**
+     * The length, modification time and checksum of a source file when its section was taken.
+     */
+    private static class Source {
+
+        private final String path;       // Path of the source file
+        private final long length;       // Length of the file in bytes
+        private final long lastModified; // Modification time of the file
+        private final long checksum;     // CRC-32 of the file contents, 0 for a missing file
+
+        Source(String path, long length, long lastModified, long checksum) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        static Source of(String path) {
+            File file = new File(path);
+            return new Source(path, file.length(), file.lastModified(), checksumOf(file));
+        }
+
+        /**
+         * Checks whether the file still matches. The checksum is only computed once the length
+         * and modification time match.
+         */
+        boolean matches() {
+            File file = new File(path);
+            return file.length() == length && file.lastModified() == lastModified
+                    && checksumOf(file) == checksum;
+        }
+
+        /**
+         * Computes the CRC-32 of a file's contents.
+         *
+         * @return the checksum, 0 for a missing file, or -1 if the file cannot be read
+         */
+        private static long checksumOf(File file) {
+            if (!file.exists()) {
+                return 0;
+            }
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = new FileInputStream(file)) {
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    crc.update(buffer, 0, read);
+                }
+                return crc.getValue();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * A named section: its source files and encoded contents.
+     */
+    private static class Section {
+
+        private final String name;          // Name of the section
+        private final List<Source> sources; // Files the section was taken from
+        private final byte[] payload;       // Encoded contents
+
+        Section(String name, List<Source> sources, byte[] payload) {
+            this.name = name;
+            this.sources = sources;
+            this.payload = payload;
+        }
+
+        boolean isFresh() {
+            return sources.stream().allMatch(Source::matches);
+        }
+
+        boolean isFresh(String... sourceFiles) {
+            if (sourceFiles.length != sources.size()) {
+                return false;
+            }
+            for (int i = 0; i < sourceFiles.length; i++) {
+                if (!sources.get(i).path.equals(sourceFiles[i])) {
+                    return false;
+                }
+            }
+            return isFresh();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeUTF(name);
+            out.writeInt(sources.size());
+            for (Source source : sources) {
+                out.writeUTF(source.path);
+                out.writeLong(source.length);
+                out.writeLong(source.lastModified);
+                out.writeLong(source.checksum);
+            }
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeLong(checksum(payload));
+        }
+
+        static Section readFrom(DataInputStream in) throws IOException {
+            String name = in.readUTF();
+            int sourceCount = in.readInt();
+            List<Source> sources = new ArrayList<>(sourceCount);
+            for (int i = 0; i < sourceCount; i++) {
+                sources.add(new Source(in.readUTF(), in.readLong(), in.readLong(), in.readLong()));
+            }
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            if (in.readLong() != checksum(payload)) {
+                System.err.println("Ignoring snapshot section with a bad checksum: " + name);
+                return null;
+            }
+            return new Section(name, sources, payload);
+        }
+
+        static long checksum(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Encodes the contents of a section. Strings are collected into a dictionary that is
+     * written ahead of the values, so each distinct string is stored once.
+     */
+    public static class Output {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final Map<String, Integer> dictionary = new HashMap<>(); // string -> index, 0 is null
+        private final List<String> strings = new ArrayList<>();           // Dictionary in index order
+
+        public void writeString(String value) {
+            if (value == null) {
+                writeLong(0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                strings.add(value);
+                index = strings.size();
+                dictionary.put(value, index);
+            }
+            writeLong(index);
+        }
+
+        public void writeInt(int value) {
+            writeLong(value);
+        }
+
+        public void writeLong(long value) {
+            writeVarLong(body, (value << 1) ^ (value >> 63));
+        }
+
+        public void writeBoolean(boolean value) {
+            body.write(value ? 1 : 0);
+        }
+
+        public void writeDate(LocalDate date) {
+            writeLong(date.toEpochDay());
+        }
+
+        public void writeDateTime(LocalDateTime dateTime) {
+            writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            writeInt(dateTime.getNano());
+        }
+
+        byte[] toByteArray() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.size() + strings.size() * 8);
+            writeVarLong(out, strings.size());
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, bytes.length);
+                out.writeBytes(bytes);
+            }
+            out.writeBytes(body.toByteArray());
+            return out.toByteArray();
+        }
+
+        private static void writeVarLong(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    /**
+     * Decodes the contents of a section written by {@link Output}.
+     */
+    public static class Input {
+
+        private final byte[] data;      // Encoded section
+        private int position;           // Offset of the next unread byte
+        private final String[] strings; // Dictionary, index 0 is null
+
+        Input(byte[] data) throws IOException {
+            this.data = data;
+            int count = (int) readVarLong();
+            strings = new String[count + 1];
+            for (int i = 1; i <= count; i++) {
+                int length = (int) readVarLong();
+                if (length < 0 || position + length > data.length) {
+                    throw new EOFException("String runs past the end of the section");
+                }
+                strings[i] = new String(data, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        public String readString() throws IOException {
+            long index = readLong();
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Unknown string index " + index);
+            }
+            return strings[(int) index];
+        }
+
+        public int readInt() throws IOException {
+            return (int) readLong();
+        }
+
+        public long readLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        public LocalDate readDate() throws IOException {
+            return LocalDate.ofEpochDay(readLong());
+        }
+
+        public LocalDateTime readDateTime() throws IOException {
+            long epochSecond = readLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, readInt(), ZoneOffset.UTC);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length integer");
+        }
+
+        private int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new EOFException("Unexpected end of section");
+            }
+            return data[position++] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package util.storage;
+
+import java.util.Map;
+
+/**
+ * Stores user credentials.
+ */
+public interface CredentialStore {
+
+    /**
+     * Checks whether any credentials have been stored yet. The owner creates default
+     * credentials on first start when none exist.
+     *
+     * @return {@code true} if credentials exist, {@code false} otherwise
+     */
+    boolean exists();
+
+    /**
+     * Loads every stored credential.
+     *
+     * @return a map of user IDs to credentials
+     */
+    Map<String, StoredCredential> load();
+
+    /**
+     * Replaces the stored credentials.
+     *
+     * @param credentials every credential, keyed by user ID
+     * @return {@code true} if the credentials were saved, {@code false} otherwise
+     */
+    boolean save(Map<String, StoredCredential> credentials);
+
+    /**
+     * Records the current credentials so the next start can load them without parsing.
+     * Does nothing unless the store keeps a snapshot.
+     *
+     * @param credentials every credential, keyed by user ID
+     */
+    default void checkpoint(Map<String, StoredCredential> credentials) {
+    }
+}
@@ -0,0 +1,428 @@
+package util.storage;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentSlot;
+import entity.Appointments.AvailabilityTemplate;
+import entity.Appointments.WaitlistEntry;
+import util.AppointmentJournal;
+import util.AppointmentPartitions;
+
+import java.io.*;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Stores appointment data in CSV files under {@code data/}: one file per month of appointments
+ * (see {@link AppointmentPartitions}), one file each for slots, availability templates, the
+ * waitlist and archived slots, and the {@link AppointmentJournal}. Monthly partitions and the
+ * slots file are loaded from the {@link BinarySnapshot} instead while it is up to date with them.
+ */
+public class CsvAppointmentStore implements AppointmentStore {
+    private static final String APPOINTMENTS_FILE = "data/appointment_slots.csv"; // Single appointments file used before partitioning
+    private static final String PARTITIONS_DIRECTORY = "data/appointment_partitions"; // Monthly appointment files
+    private static final String SLOTS_FILE = "data/appointment.csv"; // File storing available slots
+    private static final String JOURNAL_FILE = "data/appointment_journal.csv"; // Mutations since the last snapshot
+    private static final String TEMPLATES_FILE = "data/availability_templates.csv"; // Recurring availability rules
+    private static final String WAITLIST_FILE = "data/waitlist.csv"; // Patients waiting for a slot
+    private static final String SLOT_ARCHIVE_FILE = "data/appointment_archive.csv"; // Slots retired once they have passed
+    private static final String MONTH_SECTION_PREFIX = "appointments_"; // Snapshot section of a month, followed by the month
+    private static final String SLOTS_SECTION = "slots";
+
+    private final AppointmentPartitions partitions; // Appointment snapshot, stored as one file per month
+    private final AppointmentJournal journal; // Append-only log of changes since the last snapshot
+    private final BinarySnapshot snapshot; // Consulted before parsing partitions and slots
+
+    /**
+     * Constructs a store backed by the default data files, loading from the given snapshot
+     * while it is up to date.
+     *
+     * @param snapshot the snapshot shared by the CSV stores
+     */
+    public CsvAppointmentStore(BinarySnapshot snapshot) {
+        this.snapshot = snapshot;
+        partitions = new AppointmentPartitions(PARTITIONS_DIRECTORY);
+        journal = new AppointmentJournal(JOURNAL_FILE);
+    }
+
+    /**
+     * Lists the months that have a partition file. The single appointments file used by older
+     * versions is split into partitions the first time this runs.
+     *
+     * @return the stored months in chronological order
+     */
+    @Override
+    public NavigableSet<YearMonth> getMonths() {
+        partitions.migrate(APPOINTMENTS_FILE);
+        return partitions.getMonths();
+    }
+
+    /**
+     * Reads the partition of a month.
+     *
+     * @param month the month to read
+     * @return the stored appointments, or an empty list if the month has no partition
+     */
+    @Override
+    public List<Appointment> readMonth(YearMonth month) {
+        List<Appointment> appointments = snapshot.read(MONTH_SECTION_PREFIX + month,
+                this::readAppointments, partitions.fileFor(month).getPath());
+        return appointments != null ? appointments : partitions.read(month);
+    }
+
+    /**
+     * Reads the summary kept next to the partition of a month.
+     *
+     * @param month the month to summarize
+     * @return the summary, which is empty if the month has no partition
+     */
+    @Override
+    public MonthSummary summarizeMonth(YearMonth month) {
+        return partitions.readSummary(month);
+    }
+
+    /**
+     * Replaces the partition of a month and its summary. A month without appointments has its
+     * files removed.
+     *
+     * @param month        the month to write
+     * @param appointments every appointment scheduled in that month
+     * @return {@code true} if the partition was written, {@code false} otherwise
+     */
+    @Override
+    public boolean writeMonth(YearMonth month, Collection<Appointment> appointments) {
+        return partitions.write(month, appointments);
+    }
+
+    /**
+     * Loads slots from the slots file, creating the file if it does not exist.
+     *
+     * @return a list of slots
+     */
+    @Override
+    public List<AppointmentSlot> loadSlots() {
+        List<AppointmentSlot> slots = new ArrayList<>();
+        File file = new File(SLOTS_FILE);
+        if (!file.exists()) {
+            createSlotsFile();
+            return slots;
+        }
+
+        List<AppointmentSlot> snapshotSlots = snapshot.read(SLOTS_SECTION, this::readSlots, SLOTS_FILE);
+        if (snapshotSlots != null) {
+            return snapshotSlots;
+        }
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+
+            while (reader.nextRow()) {
+                String doctorId = reader.getString(0);
+                LocalDateTime startTime = reader.getDateTime(1);
+                boolean isAvailable = reader.getBoolean(2);
+
+                AppointmentSlot slot = new AppointmentSlot(doctorId, startTime);
+                slot.setAvailable(isAvailable);
+                slots.add(slot);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading slots: " + e.getMessage());
+        }
+        return slots;
+    }
+
+    /**
+     * Creates the slots file with the necessary header if it does not exist.
+     */
+    private void createSlotsFile() {
+        try (CsvWriter writer = CsvWriter.create(SLOTS_FILE)) {
+            writer.writeLine("DoctorId,StartTime,IsAvailable");
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error creating slots file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the slots to the slots file.
+     *
+     * @param slots every slot
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    @Override
+    public boolean saveSlots(Collection<AppointmentSlot> slots) {
+        try (CsvWriter writer = CsvWriter.create(SLOTS_FILE)) {
+            writer.writeLine("DoctorId,StartTime,IsAvailable");
+
+            for (AppointmentSlot slot : slots) {
+                writer.field(slot.getDoctorId())
+                        .field(slot.getStartTime())
+                        .field(slot.isAvailable())
+                        .endRow();
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving slots: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads recurring availability templates from the file.
+     * Days are stored as a semicolon-separated list of day names.
+     *
+     * @return a list of templates
+     */
+    @Override
+    public List<AvailabilityTemplate> loadTemplates() {
+        List<AvailabilityTemplate> templates = new ArrayList<>();
+        File file = new File(TEMPLATES_FILE);
+        if (!file.exists()) {
+            return templates;
+        }
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+
+            while (reader.nextRow()) {
+                try {
+                    Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+                    for (String day : reader.getString(1).split(";")) {
+                        days.add(DayOfWeek.valueOf(day.trim()));
+                    }
+                    templates.add(new AvailabilityTemplate(
+                            reader.getString(0),
+                            days,
+                            LocalTime.parse(reader.getString(2)),
+                            LocalTime.parse(reader.getString(3)),
+                            reader.getInt(4),
+                            reader.getDate(5),
+                            reader.getDate(6)
+                    ));
+                } catch (Exception e) {
+                    System.err.println("Skipping invalid availability template: " + reader.getRow());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading availability templates: " + e.getMessage());
+        }
+        return templates;
+    }
+
+    /**
+     * Saves all recurring availability templates to the templates file.
+     * Templates are few and small, so the file is simply rewritten.
+     *
+     * @param templates every template
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    @Override
+    public boolean saveTemplates(Collection<AvailabilityTemplate> templates) {
+        try (CsvWriter writer = CsvWriter.create(TEMPLATES_FILE)) {
+            writer.writeLine("DoctorId,Days,StartTime,EndTime,IntervalMinutes,FromDate,UntilDate");
+
+            for (AvailabilityTemplate template : templates) {
+                StringJoiner days = new StringJoiner(";");
+                template.getDays().forEach(day -> days.add(day.name()));
+                writer.field(template.getDoctorId())
+                        .field(days.toString())
+                        .field(template.getStartTime())
+                        .field(template.getEndTime())
+                        .field(template.getIntervalMinutes())
+                        .field(template.getFromDate())
+                        .field(template.getUntilDate())
+                        .endRow();
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving availability templates: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the waitlist from the file, keeping the order in which patients joined.
+     *
+     * @return a list of waitlist entries
+     */
+    @Override
+    public List<WaitlistEntry> loadWaitlist() {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        File file = new File(WAITLIST_FILE);
+        if (!file.exists()) {
+            return entries;
+        }
+
+        try (CsvReader reader = CsvReader.open(file)) {
+            reader.nextRow(); // Skip header
+
+            while (reader.nextRow()) {
+                try {
+                    entries.add(new WaitlistEntry(reader.getString(0), reader.getString(1), reader.getDate(2),
+                            reader.getString(3), reader.getDateTime(4)));
+                } catch (Exception e) {
+                    System.err.println("Skipping invalid waitlist entry: " + reader.getRow());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading waitlist: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Saves the waitlist to the waitlist file.
+     *
+     * @param entries every waitlist entry, in the order patients joined
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    @Override
+    public boolean saveWaitlist(Collection<WaitlistEntry> entries) {
+        try (CsvWriter writer = CsvWriter.create(WAITLIST_FILE)) {
+            writer.writeLine("PatientId,DoctorId,Date,Type,RequestedAt");
+
+            for (WaitlistEntry entry : entries) {
+                writer.field(entry.getPatientId())
+                        .field(entry.getDoctorId())
+                        .field(entry.getDate())
+                        .field(entry.getType())
+                        .field(entry.getRequestedAt())
+                        .endRow();
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving waitlist: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Appends slots to the archive file, writing the header if the file is new.
+     *
+     * @param slots the slots to archive
+     */
+    @Override
+    public void archiveSlots(List<AppointmentSlot> slots) {
+        boolean isNew = !new File(SLOT_ARCHIVE_FILE).exists();
+        try (CsvWriter writer = CsvWriter.append(SLOT_ARCHIVE_FILE)) {
+            if (isNew) {
+                writer.writeLine("DoctorId,StartTime,IsAvailable");
+            }
+            for (AppointmentSlot slot : slots) {
+                writer.field(slot.getDoctorId())
+                        .field(slot.getStartTime())
+                        .field(slot.isAvailable())
+                        .endRow();
+            }
+        } catch (IOException e) {
+            System.err.println("Error archiving slots: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends records to the journal file as one group, forced to disk before returning.
+     *
+     * @param records the records describing one change
+     * @return {@code true} if the group was written, {@code false} otherwise
+     */
+    @Override
+    public boolean appendToJournal(List<String> records) {
+        return journal.append(records);
+    }
+
+    /**
+     * Replays every committed record in the journal file.
+     *
+     * @param handler receives the fields of each record
+     * @return the number of records replayed
+     */
+    @Override
+    public int replayJournal(Consumer<String[]> handler) {
+        return journal.replay(handler);
+    }
+
+    /**
+     * Empties the journal file.
+     */
+    @Override
+    public void clearJournal() {
+        journal.clear();
+    }
+
+    /**
+     * Gets the number of records in the journal file.
+     *
+     * @return the number of journal records
+     */
+    @Override
+    public int getJournalEntryCount() {
+        return journal.getEntryCount();
+    }
+
+    /**
+     * Records the appointments of a month in the snapshot.
+     *
+     * @param month        the month
+     * @param appointments every appointment scheduled in that month
+     */
+    @Override
+    public void checkpointMonth(YearMonth month, Collection<Appointment> appointments) {
+        snapshot.put(MONTH_SECTION_PREFIX + month, out -> {
+            out.writeInt(appointments.size());
+            for (Appointment appointment : appointments) {
+                out.writeString(appointment.getAppointmentId());
+                out.writeString(appointment.getPatientId());
+                out.writeString(appointment.getDoctorId());
+                out.writeDateTime(appointment.getDateTime());
+                out.writeString(appointment.getType());
+                out.writeString(appointment.getStatus().name());
+            }
+        }, partitions.fileFor(month).getPath());
+    }
+
+    /**
+     * Records the slots in the snapshot.
+     *
+     * @param slots every slot
+     */
+    @Override
+    public void checkpointSlots(Collection<AppointmentSlot> slots) {
+        snapshot.put(SLOTS_SECTION, out -> {
+            out.writeInt(slots.size());
+            for (AppointmentSlot slot : slots) {
+                out.writeString(slot.getDoctorId());
+                out.writeDateTime(slot.getStartTime());
+                out.writeBoolean(slot.isAvailable());
+            }
+        }, SLOTS_FILE);
+    }
+
+    private List<Appointment> readAppointments(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment(in.readString(), in.readString(), in.readString(),
+                    in.readDateTime(), in.readString());
+            appointment.setStatus(Appointment.AppointmentStatus.valueOf(in.readString()));
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    private List<AppointmentSlot> readSlots(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        List<AppointmentSlot> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AppointmentSlot slot = new AppointmentSlot(in.readString(), in.readDateTime());
+            slot.setAvailable(in.readBoolean());
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,119 @@
+package util.storage;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores user credentials in the {@code credentials.csv} file.
+ * The file is loaded from the {@link BinarySnapshot} instead while the snapshot is up to date.
+ */
+public class CsvCredentialStore implements CredentialStore {
+
+    /** File path for storing user credentials. */
+    private static final String CREDENTIALS_FILE = "data/credentials.csv";
+
+    private static final String CREDENTIALS_SECTION = "credentials";
+
+    /** Snapshot consulted before parsing the CSV file. */
+    private final BinarySnapshot snapshot;
+
+    /**
+     * Constructs a store that loads from the given snapshot while it is up to date.
+     *
+     * @param snapshot the snapshot shared by the CSV stores
+     */
+    public CsvCredentialStore(BinarySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Checks whether the credentials file exists.
+     *
+     * @return {@code true} if the file exists, {@code false} otherwise
+     */
+    @Override
+    public boolean exists() {
+        return new File(CREDENTIALS_FILE).exists();
+    }
+
+    /**
+     * Loads credentials from the CSV file.
+     *
+     * @return a map of user IDs to credentials
+     */
+    @Override
+    public Map<String, StoredCredential> load() {
+        Map<String, StoredCredential> credentials =
+                snapshot.read(CREDENTIALS_SECTION, this::readCredentials, CREDENTIALS_FILE);
+        if (credentials != null) {
+            return credentials;
+        }
+
+        credentials = new HashMap<>();
+        try (CsvReader reader = CsvReader.open(CREDENTIALS_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                if (reader.getFieldCount() >= 3) {
+                    String userId = reader.getString(0);
+                    credentials.put(userId, new StoredCredential(userId, reader.getString(1),
+                            reader.getBoolean(2)));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading credentials: " + e.getMessage());
+        }
+        return credentials;
+    }
+
+    /**
+     * Rewrites the CSV file with the given credentials.
+     *
+     * @param credentials every credential, keyed by user ID
+     * @return {@code true} if the file was written, {@code false} otherwise
+     */
+    @Override
+    public boolean save(Map<String, StoredCredential> credentials) {
+        try (CsvWriter writer = CsvWriter.create(CREDENTIALS_FILE)) {
+            writer.writeLine("UserId,PasswordHash,IsFirstLogin");
+            for (StoredCredential credential : credentials.values()) {
+                writer.field(credential.getUserId())
+                        .field(credential.getPasswordHash())
+                        .field(credential.isFirstLogin())
+                        .endRow();
+            }
+            writer.commit();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving credentials: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records the credentials in the snapshot.
+     *
+     * @param credentials every credential, keyed by user ID
+     */
+    @Override
+    public void checkpoint(Map<String, StoredCredential> credentials) {
+        snapshot.put(CREDENTIALS_SECTION, out -> {
+            out.writeInt(credentials.size());
+            for (StoredCredential credential : credentials.values()) {
+                out.writeString(credential.getUserId());
+                out.writeString(credential.getPasswordHash());
+                out.writeBoolean(credential.isFirstLogin());
+            }
+        }, CREDENTIALS_FILE);
+    }
+
+    private Map<String, StoredCredential> readCredentials(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        Map<String, StoredCredential> credentials = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String userId = in.readString();
+            credentials.put(userId, new StoredCredential(userId, in.readString(), in.readBoolean()));
+        }
+        return credentials;
+    }
+}
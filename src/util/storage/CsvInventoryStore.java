@@ -0,0 +1,110 @@
+package util.storage;
+
+import entity.Medications.Medication;
+import entity.Medications.ReplenishmentRequest;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the inventory in the {@code medicine.csv} and {@code replenishment_requests.csv} files.
+ */
+public class CsvInventoryStore implements InventoryStore {
+
+    /** File path for storing medication data. */
+    private static final String MEDICINE_FILE = "data/medicine.csv";
+
+    /** File path for storing replenishment request data. */
+    private static final String REPLENISHMENT_FILE = "data/replenishment_requests.csv";
+
+    /**
+     * Loads medication data from the CSV file.
+     *
+     * @return a list of {@link Medication} objects.
+     */
+    @Override
+    public List<Medication> loadMedications() {
+        List<Medication> medications = new ArrayList<>();
+        try (CsvReader reader = CsvReader.open(MEDICINE_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                medications.add(new Medication(reader.getString(0), reader.getInt(1), reader.getInt(2)));
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading medications: " + e.getMessage());
+        }
+        return medications;
+    }
+
+    /**
+     * Saves the medications to the CSV file.
+     *
+     * @param medications the list of {@link Medication} objects to save.
+     */
+    @Override
+    public void saveMedications(List<Medication> medications) {
+        try (CsvWriter writer = CsvWriter.create(MEDICINE_FILE)) {
+            writer.writeLine("Name,Stock,LowStockAlert");
+            for (Medication medication : medications) {
+                writer.field(medication.getName())
+                        .field(medication.getCurrentStock())
+                        .field(medication.getLowStockAlert())
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving medications: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads replenishment request data from the CSV file.
+     *
+     * @return a list of {@link ReplenishmentRequest} objects.
+     */
+    @Override
+    public List<ReplenishmentRequest> loadReplenishmentRequests() {
+        List<ReplenishmentRequest> requests = new ArrayList<>();
+        File file = new File(REPLENISHMENT_FILE);
+        if (!file.exists()) return requests;
+
+        try (CsvReader reader = CsvReader.open(REPLENISHMENT_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                ReplenishmentRequest request = new ReplenishmentRequest(reader.getString(0), reader.getString(1),
+                        reader.getInt(2), reader.getString(3));
+                String status = reader.getString(4);
+                if (status.equals("Approved")) request.approve();
+                if (status.equals("Rejected")) request.reject();
+                requests.add(request);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading replenishment requests: " + e.getMessage());
+        }
+        return requests;
+    }
+
+    /**
+     * Saves the replenishment requests to the CSV file.
+     *
+     * @param requests the list of {@link ReplenishmentRequest} objects to save.
+     */
+    @Override
+    public void saveReplenishmentRequests(List<ReplenishmentRequest> requests) {
+        try (CsvWriter writer = CsvWriter.create(REPLENISHMENT_FILE)) {
+            writer.writeLine("ID,MedicationName,Quantity,PharmacistId,Status");
+            for (ReplenishmentRequest request : requests) {
+                writer.field(request.getId())
+                        .field(request.getMedicationName())
+                        .field(request.getQuantity())
+                        .field(request.getPharmacistId())
+                        .field(request.getStatus())
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving replenishment requests: " + e.getMessage());
+        }
+    }
+}
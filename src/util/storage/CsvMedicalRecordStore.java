@@ -0,0 +1,330 @@
+package util.storage;
+
+import entity.Records.Diagnosis;
+import entity.Records.MedicalRecord;
+import entity.Records.Treatment;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Stores medical records in three CSV files:
+ * <ul>
+ *   <li>{@code MedicalRecords.csv} for basic patient information.</li>
+ *   <li>{@code Diagnoses.csv} for patient diagnoses.</li>
+ *   <li>{@code treatments.csv} for patient treatments.</li>
+ * </ul>
+ * The three files are loaded together from the {@link BinarySnapshot} instead while the
+ * snapshot is up to date with all of them.
+ */
+public class CsvMedicalRecordStore implements MedicalRecordStore {
+
+    /**
+     * File path for storing patient medical records.
+     */
+    private static final String MEDICAL_RECORDS_FILE = "data/MedicalRecords.csv";
+
+    /**
+     * File path for storing diagnoses data.
+     */
+    private static final String DIAGNOSES_FILE = "data/Diagnoses.csv";
+
+    /**
+     * File path for storing treatments data.
+     */
+    private static final String TREATMENTS_FILE = "data/treatments.csv";
+
+    /**
+     * Name of the snapshot section holding the records with their diagnoses and treatments.
+     */
+    private static final String MEDICAL_RECORDS_SECTION = "medical_records";
+
+    /**
+     * Snapshot consulted before parsing the CSV files.
+     */
+    private final BinarySnapshot snapshot;
+
+    /**
+     * Constructs a store that loads from the given snapshot while it is up to date.
+     *
+     * @param snapshot the snapshot shared by the CSV stores
+     */
+    public CsvMedicalRecordStore(BinarySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Loads all medical records, then attaches the diagnoses and treatments to them.
+     *
+     * @return a map of patient IDs to medical records
+     */
+    @Override
+    public Map<String, MedicalRecord> load() {
+        Map<String, MedicalRecord> medicalRecords = snapshot.read(MEDICAL_RECORDS_SECTION,
+                this::readMedicalRecords, MEDICAL_RECORDS_FILE, DIAGNOSES_FILE, TREATMENTS_FILE);
+        if (medicalRecords != null) {
+            return medicalRecords;
+        }
+
+        medicalRecords = new HashMap<>();
+        loadMedicalRecords(medicalRecords);
+        loadDiagnoses(medicalRecords);
+        loadTreatments(medicalRecords);
+        return medicalRecords;
+    }
+
+    /**
+     * Loads basic patient information from the {@code MedicalRecords.csv} file.
+     *
+     * @param medicalRecords the map to add the records to
+     */
+    private void loadMedicalRecords(Map<String, MedicalRecord> medicalRecords) {
+        try (CsvReader reader = CsvReader.open(MEDICAL_RECORDS_FILE)) {
+            reader.nextRow();  // Skip header
+
+            while (reader.nextRow()) {
+                try {
+                    MedicalRecord record = new MedicalRecord(
+                            reader.getString(0), // patientId
+                            reader.getString(1), // name
+                            reader.getDate(2),   // dateOfBirth
+                            reader.getString(3), // gender
+                            reader.getString(4), // phoneNumber
+                            reader.getString(5), // emailAddress
+                            reader.getString(6)  // bloodType
+                    );
+                    medicalRecords.put(record.getPatientId(), record);
+                } catch (Exception e) {
+                    System.err.println("Error processing line: " + reader.getRow());
+                    System.err.println("Error details: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading medical records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads patient diagnoses from the {@code Diagnoses.csv} file and associates them with medical records.
+     *
+     * @param medicalRecords the records to attach the diagnoses to
+     */
+    private void loadDiagnoses(Map<String, MedicalRecord> medicalRecords) {
+        try (CsvReader reader = CsvReader.open(DIAGNOSES_FILE)) {
+            reader.nextRow();  // Skip header
+
+            while (reader.nextRow()) {
+                try {
+                    String patientId = reader.getString(0);
+
+                    Diagnosis diagnosis = new Diagnosis(
+                            reader.getDate(1),   // date
+                            reader.getString(2), // doctorId
+                            reader.getString(3), // condition
+                            reader.getString(4)  // notes
+                    );
+
+                    MedicalRecord record = medicalRecords.get(patientId);
+                    if (record != null) {
+                        record.addDiagnosis(diagnosis);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error processing diagnosis line: " + reader.getRow());
+                    System.err.println("Error details: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading diagnoses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads patient treatments from the {@code treatments.csv} file and associates them with medical records.
+     *
+     * @param medicalRecords the records to attach the treatments to
+     */
+    private void loadTreatments(Map<String, MedicalRecord> medicalRecords) {
+        try (CsvReader reader = CsvReader.open(TREATMENTS_FILE)) {
+            reader.nextRow();  // Skip header
+
+            while (reader.nextRow()) {
+                try {
+                    String patientId = reader.getString(0);
+                    List<String> medications = Arrays.asList(reader.getString(4).split(";"));
+
+                    Treatment treatment = new Treatment(
+                            reader.getDate(1),   // date
+                            reader.getString(2), // doctorId
+                            reader.getString(3), // treatmentType
+                            medications,         // medications
+                            reader.getString(5)  // instructions
+                    );
+
+                    MedicalRecord record = medicalRecords.get(patientId);
+                    if (record != null) {
+                        record.addTreatment(treatment);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error processing treatment line: " + reader.getRow());
+                    System.err.println("Error details: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading treatments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the basic patient information to the {@code MedicalRecords.csv} file.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void saveRecords(Collection<MedicalRecord> records) {
+        try (CsvWriter writer = CsvWriter.create(MEDICAL_RECORDS_FILE)) {
+            writer.writeLine("PatientId,Name,DateOfBirth,Gender,PhoneNumber,EmailAddress,BloodType");
+
+            for (MedicalRecord record : records) {
+                writer.field(record.getPatientId())
+                        .field(record.getName())
+                        .field(record.getDateOfBirth())
+                        .field(record.getGender())
+                        .field(record.getPhoneNumber())
+                        .field(record.getEmailAddress())
+                        .field(record.getBloodType())
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving medical records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all diagnoses to the {@code Diagnoses.csv} file.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void saveDiagnoses(Collection<MedicalRecord> records) {
+        try (CsvWriter writer = CsvWriter.create(DIAGNOSES_FILE)) {
+            writer.writeLine("PatientId,Date,DoctorId,Condition,Notes");
+
+            for (MedicalRecord record : records) {
+                for (Diagnosis diagnosis : record.getDiagnoses()) {
+                    writer.field(record.getPatientId())
+                            .field(diagnosis.getDate())
+                            .field(diagnosis.getDoctorId())
+                            .field(diagnosis.getCondition())
+                            .field(diagnosis.getNotes())
+                            .endRow();
+                }
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving diagnoses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all treatments to the {@code treatments.csv} file.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void saveTreatments(Collection<MedicalRecord> records) {
+        try (CsvWriter writer = CsvWriter.create(TREATMENTS_FILE)) {
+            writer.writeLine("PatientId,Date,DoctorId,TreatmentType,Medications,Instructions");
+
+            for (MedicalRecord record : records) {
+                for (Treatment treatment : record.getTreatments()) {
+                    writer.field(record.getPatientId())
+                            .field(treatment.getDate())
+                            .field(treatment.getDoctorId())
+                            .field(treatment.getTreatmentType())
+                            .field(String.join(";", treatment.getMedications()))
+                            .field(treatment.getInstructions())
+                            .endRow();
+                }
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving treatments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the medical records, with their diagnoses and treatments, in the snapshot.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void checkpoint(Collection<MedicalRecord> records) {
+        snapshot.put(MEDICAL_RECORDS_SECTION, out -> {
+            out.writeInt(records.size());
+            for (MedicalRecord record : records) {
+                out.writeString(record.getPatientId());
+                out.writeString(record.getName());
+                out.writeDate(record.getDateOfBirth());
+                out.writeString(record.getGender());
+                out.writeString(record.getPhoneNumber());
+                out.writeString(record.getEmailAddress());
+                out.writeString(record.getBloodType());
+
+                List<Diagnosis> diagnoses = record.getDiagnoses();
+                out.writeInt(diagnoses.size());
+                for (Diagnosis diagnosis : diagnoses) {
+                    out.writeDate(diagnosis.getDate());
+                    out.writeString(diagnosis.getDoctorId());
+                    out.writeString(diagnosis.getCondition());
+                    out.writeString(diagnosis.getNotes());
+                }
+
+                List<Treatment> treatments = record.getTreatments();
+                out.writeInt(treatments.size());
+                for (Treatment treatment : treatments) {
+                    out.writeDate(treatment.getDate());
+                    out.writeString(treatment.getDoctorId());
+                    out.writeString(treatment.getTreatmentType());
+                    List<String> medications = treatment.getMedications();
+                    out.writeInt(medications.size());
+                    for (String medication : medications) {
+                        out.writeString(medication);
+                    }
+                    out.writeString(treatment.getInstructions());
+                }
+            }
+        }, MEDICAL_RECORDS_FILE, DIAGNOSES_FILE, TREATMENTS_FILE);
+    }
+
+    private Map<String, MedicalRecord> readMedicalRecords(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        Map<String, MedicalRecord> medicalRecords = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            MedicalRecord record = new MedicalRecord(in.readString(), in.readString(), in.readDate(),
+                    in.readString(), in.readString(), in.readString(), in.readString());
+
+            int diagnosisCount = in.readInt();
+            for (int j = 0; j < diagnosisCount; j++) {
+                record.addDiagnosis(new Diagnosis(in.readDate(), in.readString(), in.readString(),
+                        in.readString()));
+            }
+
+            int treatmentCount = in.readInt();
+            for (int j = 0; j < treatmentCount; j++) {
+                LocalDate date = in.readDate();
+                String doctorId = in.readString();
+                String treatmentType = in.readString();
+                int medicationCount = in.readInt();
+                List<String> medications = new ArrayList<>(medicationCount);
+                for (int k = 0; k < medicationCount; k++) {
+                    medications.add(in.readString());
+                }
+                record.addTreatment(new Treatment(date, doctorId, treatmentType, medications, in.readString()));
+            }
+            medicalRecords.put(record.getPatientId(), record);
+        }
+        return medicalRecords;
+    }
+}
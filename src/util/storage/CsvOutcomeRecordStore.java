@@ -0,0 +1,241 @@
+package util.storage;
+
+import entity.Appointments.AppointmentOutcomeRecord;
+import entity.Medications.Prescription;
+import entity.Medications.PrescriptionStatus;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static entity.Medications.Prescription.quantity;
+
+/**
+ * Stores appointment outcome records in two CSV files:
+ * <ul>
+ *   <li>{@code outcome_records.csv} for appointment outcome data.</li>
+ *   <li>{@code prescriptions.csv} for prescription details.</li>
+ * </ul>
+ * Both files are created with their headers if they do not exist. The two files are loaded
+ * together from the {@link BinarySnapshot} instead while the snapshot is up to date with both.
+ */
+public class CsvOutcomeRecordStore implements OutcomeRecordStore {
+
+    /**
+     * File path for outcome records.
+     */
+    private static final String OUTCOME_RECORDS_FILE = "data/outcome_records.csv";
+
+    /**
+     * File path for prescriptions.
+     */
+    private static final String PRESCRIPTIONS_FILE = "data/prescriptions.csv";
+
+    /**
+     * Formatter for parsing and formatting date-time values.
+     */
+
+    /**
+     * Name of the snapshot section holding the records with their prescriptions.
+     */
+    private static final String OUTCOME_RECORDS_SECTION = "outcome_records";
+
+    /**
+     * Snapshot consulted before parsing the CSV files.
+     */
+    private final BinarySnapshot snapshot;
+
+    /**
+     * Constructs a store that loads from the given snapshot while it is up to date.
+     *
+     * @param snapshot the snapshot shared by the CSV stores
+     */
+    public CsvOutcomeRecordStore(BinarySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Loads all outcome records, then attaches the prescriptions to them.
+     *
+     * @return a map of appointment IDs to outcome records
+     */
+    @Override
+    public Map<String, AppointmentOutcomeRecord> load() {
+        if (!new File(OUTCOME_RECORDS_FILE).exists() || !new File(PRESCRIPTIONS_FILE).exists()) {
+            createFiles();
+        }
+
+        Map<String, AppointmentOutcomeRecord> outcomeRecords = snapshot.read(OUTCOME_RECORDS_SECTION,
+                this::readOutcomeRecords, OUTCOME_RECORDS_FILE, PRESCRIPTIONS_FILE);
+        if (outcomeRecords != null) {
+            return outcomeRecords;
+        }
+
+        outcomeRecords = new HashMap<>();
+        loadOutcomeRecords(outcomeRecords);
+        loadPrescriptions(outcomeRecords);
+        return outcomeRecords;
+    }
+
+    /**
+     * Creates the default CSV files if they do not exist.
+     */
+    private void createFiles() {
+        try (CsvWriter recordWriter = CsvWriter.create(OUTCOME_RECORDS_FILE)) {
+            recordWriter.writeLine("AppointmentId,Date,Type,ConsultationNotes,DoctorId,PatientId");
+            recordWriter.commit();
+        } catch (IOException e) {
+            System.err.println("Error creating outcome records file: " + e.getMessage());
+        }
+
+        try (CsvWriter prescWriter = CsvWriter.create(PRESCRIPTIONS_FILE)) {
+            prescWriter.writeLine("AppointmentId,MedicationName,Status");
+            prescWriter.commit();
+        } catch (IOException e) {
+            System.err.println("Error creating prescriptions file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads appointment outcome records from the {@code outcome_records.csv} file.
+     *
+     * @param outcomeRecords the map to add the records to
+     */
+    private void loadOutcomeRecords(Map<String, AppointmentOutcomeRecord> outcomeRecords) {
+        try (CsvReader reader = CsvReader.open(OUTCOME_RECORDS_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                AppointmentOutcomeRecord record = new AppointmentOutcomeRecord(
+                        reader.getString(0), // appointmentId
+                        reader.getDateTime(1),
+                        reader.getString(2), // type
+                        reader.getString(3), // notes
+                        reader.getString(4), // doctorId
+                        reader.getString(5)  // patientId
+                );
+                outcomeRecords.put(record.getAppointmentId(), record);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading outcome records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads prescriptions from the {@code prescriptions.csv} file and associates them with outcome records.
+     *
+     * @param outcomeRecords the records to attach the prescriptions to
+     */
+    private void loadPrescriptions(Map<String, AppointmentOutcomeRecord> outcomeRecords) {
+        try (CsvReader reader = CsvReader.open(PRESCRIPTIONS_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                String appointmentId = reader.getString(0);
+                String medicationName = reader.getString(1);
+                PrescriptionStatus status = PrescriptionStatus.valueOf(reader.getString(2));
+
+                AppointmentOutcomeRecord record = outcomeRecords.get(appointmentId);
+                if (record != null) {
+                    record.addPrescription(medicationName,quantity);
+                    record.updatePrescriptionStatus(medicationName, status);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading prescriptions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all outcome records to the {@code outcome_records.csv} file.
+     *
+     * @param records every outcome record
+     */
+    @Override
+    public void saveOutcomeRecords(Collection<AppointmentOutcomeRecord> records) {
+        try (CsvWriter writer = CsvWriter.create(OUTCOME_RECORDS_FILE)) {
+            writer.writeLine("AppointmentId,Date,Type,ConsultationNotes,DoctorId,PatientId");
+            for (AppointmentOutcomeRecord record : records) {
+                writer.field(record.getAppointmentId())
+                        .field(record.getAppointmentDate())
+                        .field(record.getAppointmentType())
+                        .field(record.getConsultationNotes())
+                        .field(record.getDoctorId())
+                        .field(record.getPatientId())
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving outcome records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all prescriptions to the {@code prescriptions.csv} file.
+     *
+     * @param records every outcome record
+     */
+    @Override
+    public void savePrescriptions(Collection<AppointmentOutcomeRecord> records) {
+        try (CsvWriter writer = CsvWriter.create(PRESCRIPTIONS_FILE)) {
+            writer.writeLine("AppointmentId,MedicationName,Status");
+            for (AppointmentOutcomeRecord record : records) {
+                for (var prescription : record.getPrescriptions()) {
+                    writer.field(record.getAppointmentId())
+                            .field(prescription.getMedicationName())
+                            .field(prescription.getStatus())
+                            .endRow();
+                }
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving prescriptions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the outcome records, with their prescriptions, in the snapshot.
+     *
+     * @param records every outcome record
+     */
+    @Override
+    public void checkpoint(Collection<AppointmentOutcomeRecord> records) {
+        snapshot.put(OUTCOME_RECORDS_SECTION, out -> {
+            out.writeInt(records.size());
+            for (AppointmentOutcomeRecord record : records) {
+                out.writeString(record.getAppointmentId());
+                out.writeDateTime(record.getAppointmentDate());
+                out.writeString(record.getAppointmentType());
+                out.writeString(record.getConsultationNotes());
+                out.writeString(record.getDoctorId());
+                out.writeString(record.getPatientId());
+
+                List<Prescription> prescriptions = record.getPrescriptions();
+                out.writeInt(prescriptions.size());
+                for (Prescription prescription : prescriptions) {
+                    out.writeString(prescription.getMedicationName());
+                    out.writeInt(prescription.getQuantity());
+                    out.writeString(prescription.getStatus().name());
+                }
+            }
+        }, OUTCOME_RECORDS_FILE, PRESCRIPTIONS_FILE);
+    }
+
+    private Map<String, AppointmentOutcomeRecord> readOutcomeRecords(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        Map<String, AppointmentOutcomeRecord> outcomeRecords = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            AppointmentOutcomeRecord record = new AppointmentOutcomeRecord(in.readString(), in.readDateTime(),
+                    in.readString(), in.readString(), in.readString(), in.readString());
+
+            int prescriptionCount = in.readInt();
+            for (int j = 0; j < prescriptionCount; j++) {
+                String medicationName = in.readString();
+                record.addPrescription(medicationName, in.readInt());
+                record.updatePrescriptionStatus(medicationName, PrescriptionStatus.valueOf(in.readString()));
+            }
+            outcomeRecords.put(record.getAppointmentId(), record);
+        }
+        return outcomeRecords;
+    }
+}
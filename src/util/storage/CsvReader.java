@@ -0,0 +1,410 @@
+package util.storage;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Reads a CSV file row by row, shared by every loader.
+ *
+ * The file is read through a {@link FileChannel} into one buffer, and each row is tokenized
+ * in place: the reader only records where each field starts and ends. Fields are decoded when
+ * a loader asks for them, and numbers, dates, date-times and booleans are parsed straight from
+ * the bytes, so a row costs no more than the Strings the loader actually keeps.
+ *
+ * Quoting follows RFC 4180: a field enclosed in double quotes may contain commas, line breaks
+ * and doubled quotes. Unquoted fields are trimmed like {@link String#trim}, and blank lines are
+ * skipped. A quote inside an unquoted field is taken literally, so files written before quoting
+ * was introduced read as they always have.
+ *
+ * The file is read rather than memory-mapped: a mapped file stays locked on some platforms until
+ * the mapping is garbage collected, which would stop the managers from rewriting the file they
+ * have just loaded.
+ */
+public class CsvReader implements Closeable {
+
+    private static final byte QUOTE = '"';
+    private static final byte SEPARATOR = ',';
+    private static final byte NEWLINE = '\n';
+    private static final Charset CHARSET = Charset.defaultCharset(); // The charset the files are written in
+
+    private static final int PLAIN = 0;          // Unquoted field
+    private static final int QUOTED = 1;         // Quoted field without doubled quotes
+    private static final int QUOTED_ESCAPED = 2; // Quoted field containing doubled quotes
+
+    private final byte[] data; // Contents of the file
+    private int position;      // Offset of the next unread byte
+    private int rowStart;      // Offset of the current row
+    private int rowEnd;        // Offset just past the current row, excluding the line break
+    private int fieldCount;    // Number of fields in the current row
+    private int[] starts;      // Offset of each field of the current row
+    private int[] ends;        // Offset just past each field of the current row
+    private int[] kinds;       // PLAIN, QUOTED or QUOTED_ESCAPED for each field
+    private byte[] scratch;    // Reused when decoding a field into a String
+
+    private CsvReader(byte[] data) {
+        this.data = data;
+        this.position = hasByteOrderMark(data) ? 3 : 0;
+        this.starts = new int[16];
+        this.ends = new int[16];
+        this.kinds = new int[16];
+        this.scratch = new byte[64];
+    }
+
+    /**
+     * Opens a CSV file and reads its contents.
+     *
+     * @param path the path of the file
+     * @return a reader positioned before the first row
+     * @throws IOException if the file cannot be read
+     */
+    public static CsvReader open(String path) throws IOException {
+        return open(new File(path));
+    }
+
+    /**
+     * Opens a CSV file and reads its contents.
+     *
+     * @param file the file
+     * @return a reader positioned before the first row
+     * @throws IOException if the file cannot be read
+     */
+    public static CsvReader open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File too large to load: " + file);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full or the file ends
+            }
+            byte[] data = buffer.array();
+            if (buffer.position() < data.length) {
+                data = Arrays.copyOf(data, buffer.position());
+            }
+            return new CsvReader(data);
+        }
+    }
+
+    /**
+     * Moves to the next row that is not blank.
+     *
+     * @return {@code true} if there is a row, {@code false} at the end of the file
+     */
+    public boolean nextRow() {
+        while (position < data.length) {
+            readRow();
+            if (fieldCount > 1 || kinds[0] != PLAIN || starts[0] != ends[0]) {
+                return true;
+            }
+        }
+        fieldCount = 0;
+        return false;
+    }
+
+    /**
+     * Gets the number of fields in the current row.
+     *
+     * @return the number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Checks whether a field of the current row is empty.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field has no characters
+     */
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return starts[index] == ends[index];
+    }
+
+    /**
+     * Decodes a field of the current row.
+     *
+     * @param index the index of the field
+     * @return the field's text, trimmed unless it was quoted
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (kinds[index] != QUOTED_ESCAPED) {
+            return decode(start, length);
+        }
+
+        // Collapse each doubled quote into one
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int size = 0;
+        for (int i = start; i < start + length; i++) {
+            scratch[size++] = data[i];
+            if (data[i] == QUOTE) {
+                i++;
+            }
+        }
+        return new String(scratch, 0, size, CHARSET);
+    }
+
+    /**
+     * Decodes every field of the current row.
+     *
+     * @return the fields in order
+     */
+    public String[] getStrings() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getString(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Parses a field of the current row as a decimal integer.
+     *
+     * @param index the index of the field
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not an integer in range
+     */
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a field of the current row as a decimal long.
+     *
+     * @param index the index of the field
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a long in range
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        int i = starts[index];
+        int end = ends[index];
+        boolean negative = i < end && data[i] == '-';
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+
+        // Accumulate negatively so Long.MIN_VALUE parses without overflow
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parses a field of the current row as a boolean, like {@link Boolean#parseBoolean}.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field is {@code true} in any case, {@code false} otherwise
+     */
+    public boolean getBoolean(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        return ends[index] - start == 4 &&
+                (data[start] | 0x20) == 't' && (data[start + 1] | 0x20) == 'r' &&
+                (data[start + 2] | 0x20) == 'u' && (data[start + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * Parses a field of the current row as an ISO date such as {@code 2024-11-20}.
+     *
+     * @param index the index of the field
+     * @return the parsed date
+     * @throws java.time.DateTimeException if the field is not a valid date
+     */
+    public LocalDate getDate(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        if (ends[index] - start == 10 && isDate(start)) {
+            return LocalDate.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2));
+        }
+        return LocalDate.parse(getString(index));
+    }
+
+    /**
+     * Parses a field of the current row as an ISO date-time such as {@code 2024-11-20T12:30}
+     * or {@code 2024-11-20T12:30:00}.
+     *
+     * @param index the index of the field
+     * @return the parsed date-time
+     * @throws java.time.DateTimeException if the field is not a valid date-time
+     */
+    public LocalDateTime getDateTime(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        if ((length == 16 || length == 19) && isDate(start) && data[start + 10] == 'T' &&
+                isDigits(start + 11, 2) && data[start + 13] == ':' && isDigits(start + 14, 2) &&
+                (length == 16 || data[start + 16] == ':' && isDigits(start + 17, 2))) {
+            return LocalDateTime.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2),
+                    digits(start + 11, 2), digits(start + 14, 2), length == 19 ? digits(start + 17, 2) : 0);
+        }
+        return LocalDateTime.parse(getString(index));
+    }
+
+    /**
+     * Gets the offset in the file just past the current row, including its line break.
+     *
+     * @return the offset of the first byte not yet read
+     */
+    public int getOffset() {
+        return position;
+    }
+
+    /**
+     * Gets the text of the current row as it appears in the file, for error messages.
+     *
+     * @return the current row without its line break
+     */
+    public String getRow() {
+        return decode(rowStart, rowEnd - rowStart);
+    }
+
+    /**
+     * Ends reading. The file itself is already closed once its contents have been read.
+     */
+    @Override
+    public void close() {
+        position = data.length;
+        fieldCount = 0;
+    }
+
+    private void readRow() {
+        rowStart = position;
+        fieldCount = 0;
+        while (true) {
+            int p = skipWhitespace(position);
+            int start;
+            int end;
+            int kind;
+
+            if (p < data.length && data[p] == QUOTE) {
+                start = ++p;
+                kind = QUOTED;
+                while (p < data.length) {
+                    if (data[p] == QUOTE) {
+                        if (p + 1 < data.length && data[p + 1] == QUOTE) {
+                            kind = QUOTED_ESCAPED;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                end = p;
+                // Skip the closing quote and anything up to the next separator
+                while (p < data.length && data[p] != SEPARATOR && data[p] != NEWLINE) {
+                    p++;
+                }
+            } else {
+                start = p;
+                kind = PLAIN;
+                while (p < data.length && data[p] != SEPARATOR && data[p] != NEWLINE) {
+                    p++;
+                }
+                end = p;
+                while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+                    end--;
+                }
+            }
+            addField(start, end, kind);
+
+            if (p < data.length && data[p] == SEPARATOR) {
+                position = p + 1;
+                continue;
+            }
+            rowEnd = p;
+            if (rowEnd > rowStart && data[rowEnd - 1] == '\r') {
+                rowEnd--;
+            }
+            position = p < data.length ? p + 1 : p;
+            return;
+        }
+    }
+
+    private static boolean hasByteOrderMark(byte[] data) {
+        return data.length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF;
+    }
+
+    private int skipWhitespace(int p) {
+        while (p < data.length && data[p] != NEWLINE && (data[p] & 0xFF) <= ' ') {
+            p++;
+        }
+        return p;
+    }
+
+    private void addField(int start, int end, int kind) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            kinds = Arrays.copyOf(kinds, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        kinds[fieldCount] = kind;
+        fieldCount++;
+    }
+
+    private String decode(int start, int length) {
+        return new String(data, start, length, CHARSET);
+    }
+
+    private boolean isDate(int start) {
+        return isDigits(start, 4) && data[start + 4] == '-' && isDigits(start + 5, 2) &&
+                data[start + 7] == '-' && isDigits(start + 8, 2);
+    }
+
+    private boolean isDigits(int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            if (data[i] < '0' || data[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (data[i] - '0');
+        }
+        return value;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new ArrayIndexOutOfBoundsException("Row has no field " + index + ": " + getRow());
+        }
+    }
+}
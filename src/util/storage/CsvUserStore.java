@@ -0,0 +1,207 @@
+package util.storage;
+
+import entity.users.*;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores staff members and patients in the {@code staff.csv} and {@code patient.csv} files.
+ * Each file is loaded from the {@link BinarySnapshot} instead while the snapshot is up to date.
+ */
+public class CsvUserStore implements UserStore {
+
+    /** File path for storing staff data. */
+    private static final String STAFF_FILE = "data/staff.csv";
+
+    /** File path for storing patient data. */
+    private static final String PATIENT_FILE = "data/patient.csv";
+
+    private static final String STAFF_SECTION = "staff";
+    private static final String PATIENT_SECTION = "patients";
+
+    /** Snapshot consulted before parsing the CSV files. */
+    private final BinarySnapshot snapshot;
+
+    /**
+     * Constructs a store that loads from the given snapshot while it is up to date.
+     *
+     * @param snapshot the snapshot shared by the CSV stores
+     */
+    public CsvUserStore(BinarySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Loads staff data from the CSV file.
+     *
+     * @return a map of staff IDs to {@link User} objects.
+     */
+    @Override
+    public Map<String, User> loadStaff() {
+        Map<String, User> staff = snapshot.read(STAFF_SECTION, this::readStaff, STAFF_FILE);
+        if (staff != null) {
+            return staff;
+        }
+
+        staff = new HashMap<>();
+        try (CsvReader reader = CsvReader.open(STAFF_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                String staffId = reader.getString(0);
+                String name = reader.getString(1);
+                String role = reader.getString(2);
+                String gender = reader.getString(3);
+                int age = reader.getInt(4);
+
+                staff.put(staffId, createStaff(staffId, name, role, gender, age));
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading staff data: " + e.getMessage());
+        }
+        return staff;
+    }
+
+    /**
+     * Loads patient data from the CSV file.
+     *
+     * @return a map of patient IDs to {@link Patient} objects.
+     */
+    @Override
+    public Map<String, User> loadPatients() {
+        Map<String, User> patients = snapshot.read(PATIENT_SECTION, this::readPatients, PATIENT_FILE);
+        if (patients != null) {
+            return patients;
+        }
+
+        patients = new HashMap<>();
+        try (CsvReader reader = CsvReader.open(PATIENT_FILE)) {
+            reader.nextRow(); // Skip header
+            while (reader.nextRow()) {
+                String patientId = reader.getString(0);
+                String name = reader.getString(1);
+                LocalDate dob = reader.getDate(2);
+                String gender = reader.getString(3);
+                String bloodType = reader.getString(4);
+                String email = reader.getString(5);
+
+                Patient patient = new Patient(patientId, name, dob, gender, bloodType, email);
+                patients.put(patientId, patient);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading patient data: " + e.getMessage());
+        }
+        return patients;
+    }
+
+    /**
+     * Saves staff data to the CSV file.
+     *
+     * @param staff a map of staff IDs to {@link User} objects to save.
+     */
+    @Override
+    public void saveStaff(Map<String, User> staff) {
+        try (CsvWriter writer = CsvWriter.create(STAFF_FILE)) {
+            writer.writeLine("Staff ID,Name,Role,Gender,Age");
+            for (User user : staff.values()) {
+                String age = "";
+                if (user instanceof Doctor doctor) {
+                    age = String.valueOf(doctor.getAge());
+                } else if (user instanceof Pharmacist pharmacist) {
+                    age = String.valueOf(pharmacist.getAge());
+                } else if (user instanceof Administrator admin) {
+                    age = String.valueOf(admin.getAge());
+                }
+                writer.field(user.getUserId())
+                        .field(user.getName())
+                        .field(user.getRole())
+                        .field(user.getGender())
+                        .field(age)
+                        .endRow();
+            }
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Error saving staff data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the staff and patients in the snapshot.
+     *
+     * @param staff    every staff member, keyed by staff ID
+     * @param patients every patient, keyed by patient ID
+     */
+    @Override
+    public void checkpoint(Map<String, User> staff, Map<String, User> patients) {
+        snapshot.put(STAFF_SECTION, out -> {
+            out.writeInt(staff.size());
+            for (User user : staff.values()) {
+                out.writeString(user.getUserId());
+                out.writeString(user.getName());
+                out.writeString(user.getRole().toString());
+                out.writeString(user.getGender());
+                out.writeInt(ageOf(user));
+            }
+        }, STAFF_FILE);
+
+        snapshot.put(PATIENT_SECTION, out -> {
+            out.writeInt(patients.size());
+            for (User user : patients.values()) {
+                Patient patient = (Patient) user;
+                out.writeString(patient.getUserId());
+                out.writeString(patient.getName());
+                out.writeDate(patient.getDateOfBirth());
+                out.writeString(patient.getGender());
+                out.writeString(patient.getBloodType());
+                out.writeString(patient.getEmail());
+            }
+        }, PATIENT_FILE);
+    }
+
+    private Map<String, User> readStaff(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        Map<String, User> staff = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String staffId = in.readString();
+            String name = in.readString();
+            String role = in.readString();
+            String gender = in.readString();
+            int age = in.readInt();
+            staff.put(staffId, createStaff(staffId, name, role, gender, age));
+        }
+        return staff;
+    }
+
+    private Map<String, User> readPatients(BinarySnapshot.Input in) throws IOException {
+        int count = in.readInt();
+        Map<String, User> patients = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String patientId = in.readString();
+            patients.put(patientId, new Patient(patientId, in.readString(), in.readDate(),
+                    in.readString(), in.readString(), in.readString()));
+        }
+        return patients;
+    }
+
+    private static User createStaff(String staffId, String name, String role, String gender, int age) {
+        return switch (role.toUpperCase()) {
+            case "DOCTOR" -> new Doctor(staffId, name, gender, age);
+            case "PHARMACIST" -> new Pharmacist(staffId, name, gender, age);
+            case "ADMINISTRATOR" -> new Administrator(staffId, name, gender, age);
+            default -> throw new IllegalArgumentException("Invalid role: " + role);
+        };
+    }
+
+    private static int ageOf(User user) {
+        if (user instanceof Doctor doctor) {
+            return doctor.getAge();
+        } else if (user instanceof Pharmacist pharmacist) {
+            return pharmacist.getAge();
+        } else if (user instanceof Administrator admin) {
+            return admin.getAge();
+        }
+        return 0;
+    }
+}
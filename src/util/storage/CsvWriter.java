@@ -0,0 +1,454 @@
+package util.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Writes a CSV file row by row, shared by every save path and read back by {@link CsvReader}.
+ *
+ * Fields are encoded straight into one reusable byte buffer, which is written through a
+ * {@link FileChannel} whenever it fills up. Numbers, booleans, dates and date-times are
+ * encoded digit by digit rather than through a format string, and the text of recently written
+ * dates is cached, since consecutive rows usually fall on the same few days.
+ *
+ * A field is quoted as described in RFC 4180 when it contains a comma, a double quote or a
+ * line break, or starts or ends with whitespace that {@link CsvReader} would otherwise trim.
+ * Other fields are written as they are, so files without such fields look the same as before.
+ * A {@code null} field is written as the text {@code null}, as the formatted writers did.
+ *
+ * A file opened with {@link #create} is written to a temporary file and only replaces the
+ * original when {@link #commit} is called, as described in {@link AtomicFiles}. Closing the
+ * writer without committing discards the new contents and leaves the original untouched, so a
+ * save that fails part-way never loses the file it was replacing.
+ */
+public class CsvWriter implements Closeable {
+
+    private static final byte QUOTE = '"';
+    private static final byte SEPARATOR = ',';
+    private static final Charset CHARSET = Charset.defaultCharset(); // The charset CsvReader decodes with
+    private static final boolean ASCII_COMPATIBLE = isAsciiCompatible(); // ASCII characters encode as one byte each
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(CHARSET);
+    private static final byte[] TRUE = "true".getBytes(CHARSET);
+    private static final byte[] FALSE = "false".getBytes(CHARSET);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DATE_CACHE_SIZE = 64; // Must be a power of two
+
+    private final FileChannel channel;   // File being written
+    private final Path file;             // Path of the file being written
+    private final Path target;           // File replaced on commit, or null when appending
+    private boolean committed;           // Whether commit has completed
+    private final byte[] buffer;         // Encoded rows not yet written
+    private final ByteBuffer output;     // Wraps the buffer for channel writes
+    private int count;                   // Number of bytes in the buffer
+    private boolean rowStarted;          // Whether the current row has a field yet
+    private final long[] cachedDays;     // Epoch day held by each date cache entry
+    private final byte[][] cachedDates;  // Encoded text of each cached date, or null
+
+    private CsvWriter(Path file, Path target, OpenOption... options) throws IOException {
+        this.channel = FileChannel.open(file, options);
+        this.file = file;
+        this.target = target;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.output = ByteBuffer.wrap(buffer);
+        this.cachedDays = new long[DATE_CACHE_SIZE];
+        this.cachedDates = new byte[DATE_CACHE_SIZE][];
+    }
+
+    /**
+     * Starts a new version of a CSV file. The existing file is only replaced by {@link #commit}.
+     *
+     * @param path the path of the file
+     * @return a writer positioned at the start of the new, empty contents
+     * @throws IOException if the temporary file cannot be opened
+     */
+    public static CsvWriter create(String path) throws IOException {
+        Path target = Paths.get(path);
+        return new CsvWriter(AtomicFiles.tempFor(target), target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Opens a CSV file for appending, creating it if it does not exist. Rows are written in
+     * place, and closing the writer writes any buffered rows.
+     *
+     * @param path the path of the file
+     * @return a writer positioned at the end of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvWriter append(String path) throws IOException {
+        return new CsvWriter(Paths.get(path), null, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Formats fields as one CSV row without a line break, quoting them like the writer does.
+     * Used for rows that are collected before being written, such as journal records.
+     *
+     * @param fields the fields of the row
+     * @return the row text
+     */
+    public static String formatRow(Object... fields) {
+        StringBuilder row = new StringBuilder();
+        for (Object field : fields) {
+            if (row.length() > 0) {
+                row.append(',');
+            }
+            String text = String.valueOf(field);
+            if (!needsQuotes(text)) {
+                row.append(text);
+                continue;
+            }
+            row.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                row.append(c);
+                if (c == '"') {
+                    row.append('"');
+                }
+            }
+            row.append('"');
+        }
+        return row.toString();
+    }
+
+    /**
+     * Writes a line of text as it is, such as a header, followed by a line break.
+     * Any row in progress is ended first.
+     *
+     * @param line the text of the line
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter writeLine(String line) throws IOException {
+        if (rowStarted) {
+            endRow();
+        }
+        writeText(line, 0, line.length());
+        return endRow();
+    }
+
+    /**
+     * Writes a text field, quoting it if needed.
+     *
+     * @param value the field's text
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(String value) throws IOException {
+        String text = value == null ? "null" : value;
+        separate();
+        if (!needsQuotes(text)) {
+            writeText(text, 0, text.length());
+            return this;
+        }
+
+        // Double every quote inside the field
+        writeByte(QUOTE);
+        int from = 0;
+        for (int quote = text.indexOf('"'); quote >= 0; quote = text.indexOf('"', from)) {
+            writeText(text, from, quote + 1);
+            writeByte(QUOTE);
+            from = quote + 1;
+        }
+        writeText(text, from, text.length());
+        writeByte(QUOTE);
+        return this;
+    }
+
+    /**
+     * Writes a field holding the text of an object, such as an enum constant.
+     *
+     * @param value the object
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(Object value) throws IOException {
+        return field(String.valueOf(value));
+    }
+
+    /**
+     * Writes a decimal integer field.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(int value) throws IOException {
+        return field((long) value);
+    }
+
+    /**
+     * Writes a decimal long field.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        if (value == Long.MIN_VALUE) {
+            String text = String.valueOf(value);
+            writeText(text, 0, text.length());
+            return this;
+        }
+
+        ensure(20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int end = count + digitCount(value);
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+        return this;
+    }
+
+    /**
+     * Writes a boolean field as {@code true} or {@code false}.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(boolean value) throws IOException {
+        separate();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes an ISO date field such as {@code 2024-11-20}.
+     *
+     * @param date the date
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(LocalDate date) throws IOException {
+        if (date == null) {
+            return field((String) null);
+        }
+        separate();
+        writeBytes(encodeDate(date));
+        return this;
+    }
+
+    /**
+     * Writes an ISO date-time field such as {@code 2024-11-20T12:30:00}, formatted like
+     * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+     *
+     * @param dateTime the date-time
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter field(LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            return field((String) null);
+        }
+        if (dateTime.getNano() != 0) {
+            return field(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+
+        separate();
+        writeBytes(encodeDate(dateTime.toLocalDate()));
+        ensure(9);
+        buffer[count++] = 'T';
+        writeTwoDigits(dateTime.getHour());
+        buffer[count++] = ':';
+        writeTwoDigits(dateTime.getMinute());
+        buffer[count++] = ':';
+        writeTwoDigits(dateTime.getSecond());
+        return this;
+    }
+
+    /**
+     * Ends the current row with a line break.
+     *
+     * @return this writer
+     * @throws IOException if the file cannot be written
+     */
+    public CsvWriter endRow() throws IOException {
+        writeBytes(LINE_SEPARATOR);
+        rowStarted = false;
+        return this;
+    }
+
+    /**
+     * Writes any buffered rows to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        output.clear().limit(count);
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        count = 0;
+    }
+
+    /**
+     * Writes any buffered rows, forces them to disk and closes the file. For a file opened with
+     * {@link #create}, the new contents then replace the original file in one atomic rename.
+     * A row in progress is ended first.
+     *
+     * @throws IOException if the file cannot be written or renamed
+     */
+    public void commit() throws IOException {
+        if (rowStarted) {
+            endRow();
+        }
+        flush();
+        channel.force(true);
+        channel.close();
+        if (target != null) {
+            AtomicFiles.replace(file, target);
+        }
+        committed = true;
+    }
+
+    /**
+     * Closes the file. Without a prior {@link #commit}, a file opened with {@link #create} is
+     * discarded and the original left as it was, while a file opened with {@link #append}
+     * keeps every row written, including any still buffered.
+     *
+     * @throws IOException if the file cannot be written or the temporary file cannot be removed
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) {
+            return;
+        }
+        if (target != null) {
+            channel.close();
+            Files.deleteIfExists(file);
+            return;
+        }
+        try {
+            if (rowStarted) {
+                endRow();
+            }
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static boolean needsQuotes(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        if (text.charAt(0) <= ' ' || text.charAt(text.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsciiCompatible() {
+        char[] ascii = new char[128];
+        byte[] expected = new byte[128];
+        for (int i = 0; i < 128; i++) {
+            ascii[i] = (char) i;
+            expected[i] = (byte) i;
+        }
+        return Arrays.equals(new String(ascii).getBytes(CHARSET), expected);
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private void separate() throws IOException {
+        if (rowStarted) {
+            writeByte(SEPARATOR);
+        }
+        rowStarted = true;
+    }
+
+    private byte[] encodeDate(LocalDate date) {
+        long day = date.toEpochDay();
+        int slot = (int) (day & (DATE_CACHE_SIZE - 1));
+        if (cachedDates[slot] != null && cachedDays[slot] == day) {
+            return cachedDates[slot];
+        }
+
+        byte[] encoded = date.toString().getBytes(CHARSET);
+        cachedDays[slot] = day;
+        cachedDates[slot] = encoded;
+        return encoded;
+    }
+
+    private void writeTwoDigits(int value) {
+        buffer[count++] = (byte) ('0' + value / 10);
+        buffer[count++] = (byte) ('0' + value % 10);
+    }
+
+    private void writeText(String text, int from, int to) throws IOException {
+        int length = to - from;
+        if (ASCII_COMPATIBLE && length <= buffer.length) {
+            ensure(length);
+            int start = count;
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    // Let the charset encode text beyond ASCII
+                    count = start;
+                    writeBytes(text.substring(from, to).getBytes(CHARSET));
+                    return;
+                }
+                buffer[count++] = (byte) c;
+            }
+            return;
+        }
+        writeBytes(text.substring(from, to).getBytes(CHARSET));
+    }
+
+    private void writeByte(byte value) throws IOException {
+        ensure(1);
+        buffer[count++] = value;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            flush();
+            ByteBuffer large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (count + length > buffer.length) {
+            flush();
+        }
+    }
+}
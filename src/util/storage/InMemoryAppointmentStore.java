@@ -0,0 +1,186 @@
+package util.storage;
+
+import entity.Appointments.Appointment;
+import entity.Appointments.AppointmentSlot;
+import entity.Appointments.AvailabilityTemplate;
+import entity.Appointments.WaitlistEntry;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Keeps appointment data in memory only. Starts empty; nothing survives a restart.
+ *
+ * The journal only counts its records, so the owner still compacts on its usual schedule,
+ * but nothing is ever replayed. This makes the store suitable for measuring the cost of the
+ * in-memory logic without any file access.
+ */
+public class InMemoryAppointmentStore implements AppointmentStore {
+
+    private final NavigableMap<YearMonth, List<Appointment>> appointmentsByMonth = new TreeMap<>(); // month -> appointments
+    private final List<AppointmentSlot> slots = new ArrayList<>();              // Slots as last saved
+    private final List<AvailabilityTemplate> templates = new ArrayList<>();     // Templates as last saved
+    private final List<WaitlistEntry> waitlist = new ArrayList<>();             // Waitlist as last saved
+    private final List<AppointmentSlot> archivedSlots = new ArrayList<>();      // Every archived slot
+    private int journalEntryCount;                                              // Records appended since the last clear
+
+    /**
+     * Lists the months saved so far.
+     *
+     * @return the stored months in chronological order
+     */
+    @Override
+    public synchronized NavigableSet<YearMonth> getMonths() {
+        return new TreeSet<>(appointmentsByMonth.keySet());
+    }
+
+    /**
+     * Returns a copy of the appointments saved for a month.
+     *
+     * @param month the month to read
+     * @return the stored appointments, or an empty list if the month has none
+     */
+    @Override
+    public synchronized List<Appointment> readMonth(YearMonth month) {
+        return new ArrayList<>(appointmentsByMonth.getOrDefault(month, List.of()));
+    }
+
+    /**
+     * Replaces the appointments kept for a month.
+     *
+     * @param month        the month to write
+     * @param appointments every appointment scheduled in that month
+     * @return always {@code true}
+     */
+    @Override
+    public synchronized boolean writeMonth(YearMonth month, Collection<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            appointmentsByMonth.remove(month);
+        } else {
+            appointmentsByMonth.put(month, new ArrayList<>(appointments));
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the slots saved so far.
+     *
+     * @return a list of slots
+     */
+    @Override
+    public synchronized List<AppointmentSlot> loadSlots() {
+        return new ArrayList<>(slots);
+    }
+
+    /**
+     * Replaces the slots kept in memory.
+     *
+     * @param slots every slot
+     * @return {@code true}, since keeping the slots cannot fail
+     */
+    @Override
+    public synchronized boolean saveSlots(Collection<AppointmentSlot> slots) {
+        this.slots.clear();
+        this.slots.addAll(slots);
+        return true;
+    }
+
+    /**
+     * Returns a copy of the templates saved so far.
+     *
+     * @return a list of templates
+     */
+    @Override
+    public synchronized List<AvailabilityTemplate> loadTemplates() {
+        return new ArrayList<>(templates);
+    }
+
+    /**
+     * Replaces the templates kept in memory.
+     *
+     * @param templates every template
+     * @return {@code true}, since keeping the templates cannot fail
+     */
+    @Override
+    public synchronized boolean saveTemplates(Collection<AvailabilityTemplate> templates) {
+        this.templates.clear();
+        this.templates.addAll(templates);
+        return true;
+    }
+
+    /**
+     * Returns a copy of the waitlist saved so far.
+     *
+     * @return a list of waitlist entries
+     */
+    @Override
+    public synchronized List<WaitlistEntry> loadWaitlist() {
+        return new ArrayList<>(waitlist);
+    }
+
+    /**
+     * Replaces the waitlist kept in memory.
+     *
+     * @param entries every waitlist entry, in the order patients joined
+     * @return {@code true}, since keeping the waitlist cannot fail
+     */
+    @Override
+    public synchronized boolean saveWaitlist(Collection<WaitlistEntry> entries) {
+        waitlist.clear();
+        waitlist.addAll(entries);
+        return true;
+    }
+
+    /**
+     * Adds slots to the in-memory archive.
+     *
+     * @param slots the slots to archive
+     */
+    @Override
+    public synchronized void archiveSlots(List<AppointmentSlot> slots) {
+        archivedSlots.addAll(slots);
+    }
+
+    /**
+     * Counts the appended records without keeping them.
+     *
+     * @param records the records describing one change
+     * @return always {@code true}
+     */
+    @Override
+    public synchronized boolean appendToJournal(List<String> records) {
+        journalEntryCount += records.size();
+        return true;
+    }
+
+    /**
+     * Replays nothing, since no journal outlives the process.
+     *
+     * @param handler unused
+     * @return always zero
+     */
+    @Override
+    public synchronized int replayJournal(Consumer<String[]> handler) {
+        journalEntryCount = 0;
+        return 0;
+    }
+
+    /**
+     * Resets the journal record count.
+     */
+    @Override
+    public synchronized void clearJournal() {
+        journalEntryCount = 0;
+    }
+
+    /**
+     * Gets the number of records appended since the journal was last cleared.
+     *
+     * @return the number of journal records
+     */
+    @Override
+    public synchronized int getJournalEntryCount() {
+        return journalEntryCount;
+    }
+}
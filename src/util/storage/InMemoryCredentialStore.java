@@ -0,0 +1,44 @@
+package util.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps user credentials in memory only. Starts without credentials; nothing survives a restart.
+ */
+public class InMemoryCredentialStore implements CredentialStore {
+
+    private Map<String, StoredCredential> credentials; // userId -> credential, or null until first saved
+
+    /**
+     * Checks whether credentials have been saved yet.
+     *
+     * @return {@code true} if credentials exist, {@code false} otherwise
+     */
+    @Override
+    public synchronized boolean exists() {
+        return credentials != null;
+    }
+
+    /**
+     * Returns a copy of the credentials saved so far.
+     *
+     * @return a map of user IDs to credentials
+     */
+    @Override
+    public synchronized Map<String, StoredCredential> load() {
+        return credentials == null ? new HashMap<>() : new HashMap<>(credentials);
+    }
+
+    /**
+     * Replaces the credentials kept in memory.
+     *
+     * @param credentials every credential, keyed by user ID
+     * @return always {@code true}
+     */
+    @Override
+    public synchronized boolean save(Map<String, StoredCredential> credentials) {
+        this.credentials = new HashMap<>(credentials);
+        return true;
+    }
+}
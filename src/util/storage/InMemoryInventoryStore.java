@@ -0,0 +1,58 @@
+package util.storage;
+
+import entity.Medications.Medication;
+import entity.Medications.ReplenishmentRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the inventory in memory only. Starts empty; nothing survives a restart.
+ */
+public class InMemoryInventoryStore implements InventoryStore {
+
+    private final List<Medication> medications = new ArrayList<>();       // Medications as last saved
+    private final List<ReplenishmentRequest> requests = new ArrayList<>(); // Requests as last saved
+
+    /**
+     * Returns a copy of the medications saved so far.
+     *
+     * @return a list of medications
+     */
+    @Override
+    public synchronized List<Medication> loadMedications() {
+        return new ArrayList<>(medications);
+    }
+
+    /**
+     * Replaces the medications kept in memory.
+     *
+     * @param medications every medication in the inventory
+     */
+    @Override
+    public synchronized void saveMedications(List<Medication> medications) {
+        this.medications.clear();
+        this.medications.addAll(medications);
+    }
+
+    /**
+     * Returns a copy of the replenishment requests saved so far.
+     *
+     * @return a list of replenishment requests
+     */
+    @Override
+    public synchronized List<ReplenishmentRequest> loadReplenishmentRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * Replaces the replenishment requests kept in memory.
+     *
+     * @param requests every replenishment request
+     */
+    @Override
+    public synchronized void saveReplenishmentRequests(List<ReplenishmentRequest> requests) {
+        this.requests.clear();
+        this.requests.addAll(requests);
+    }
+}
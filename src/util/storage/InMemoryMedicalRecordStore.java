@@ -0,0 +1,59 @@
+package util.storage;
+
+import entity.Records.MedicalRecord;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps medical records in memory only. Starts empty; nothing survives a restart.
+ *
+ * Diagnoses and treatments live inside the record objects, so saving them only has to
+ * remember which records exist.
+ */
+public class InMemoryMedicalRecordStore implements MedicalRecordStore {
+
+    private final Map<String, MedicalRecord> records = new HashMap<>(); // patientId -> record, as last saved
+
+    /**
+     * Returns a copy of the records saved so far.
+     *
+     * @return a map of patient IDs to medical records
+     */
+    @Override
+    public synchronized Map<String, MedicalRecord> load() {
+        return new HashMap<>(records);
+    }
+
+    /**
+     * Replaces the records kept in memory.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public synchronized void saveRecords(Collection<MedicalRecord> records) {
+        this.records.clear();
+        records.forEach(record -> this.records.put(record.getPatientId(), record));
+    }
+
+    /**
+     * Replaces the records kept in memory, including their diagnoses.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void saveDiagnoses(Collection<MedicalRecord> records) {
+        saveRecords(records);
+    }
+
+    /**
+     * Replaces the records kept in memory, including their treatments.
+     *
+     * @param records every medical record
+     */
+    @Override
+    public void saveTreatments(Collection<MedicalRecord> records) {
+        saveRecords(records);
+    }
+}
@@ -0,0 +1,49 @@
+package util.storage;
+
+import entity.Appointments.AppointmentOutcomeRecord;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps appointment outcome records in memory only. Starts empty; nothing survives a restart.
+ *
+ * Prescriptions live inside the record objects, so saving them only has to remember which
+ * records exist.
+ */
+public class InMemoryOutcomeRecordStore implements OutcomeRecordStore {
+
+    private final Map<String, AppointmentOutcomeRecord> records = new HashMap<>(); // appointmentId -> record, as last saved
+
+    /**
+     * Returns a copy of the records saved so far.
+     *
+     * @return a map of appointment IDs to outcome records
+     */
+    @Override
+    public synchronized Map<String, AppointmentOutcomeRecord> load() {
+        return new HashMap<>(records);
+    }
+
+    /**
+     * Replaces the records kept in memory.
+     *
+     * @param records every outcome record
+     */
+    @Override
+    public synchronized void saveOutcomeRecords(Collection<AppointmentOutcomeRecord> records) {
+        this.records.clear();
+        records.forEach(record -> this.records.put(record.getAppointmentId(), record));
+    }
+
+    /**
+     * Replaces the records kept in memory, including their prescriptions.
+     *
+     * @param records every outcome record
+     */
+    @Override
+    public void savePrescriptions(Collection<AppointmentOutcomeRecord> records) {
+        saveOutcomeRecords(records);
+    }
+}
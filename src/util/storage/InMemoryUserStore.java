@@ -0,0 +1,46 @@
+package util.storage;
+
+import entity.users.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps staff members and patients in memory only. Starts empty; nothing survives a restart.
+ */
+public class InMemoryUserStore implements UserStore {
+
+    private final Map<String, User> staff = new HashMap<>();    // staffId -> user, as last saved
+    private final Map<String, User> patients = new HashMap<>(); // patientId -> user
+
+    /**
+     * Returns a copy of the staff members saved so far.
+     *
+     * @return a map of staff IDs to users
+     */
+    @Override
+    public synchronized Map<String, User> loadStaff() {
+        return new HashMap<>(staff);
+    }
+
+    /**
+     * Returns a copy of the stored patients.
+     *
+     * @return a map of patient IDs to users
+     */
+    @Override
+    public synchronized Map<String, User> loadPatients() {
+        return new HashMap<>(patients);
+    }
+
+    /**
+     * Replaces the staff members kept in memory.
+     *
+     * @param staff a map of staff IDs to users
+     */
+    @Override
+    public synchronized void saveStaff(Map<String, User> staff) {
+        this.staff.clear();
+        this.staff.putAll(staff);
+    }
+}
@@ -0,0 +1,40 @@
+package util.storage;
+
+import entity.Medications.Medication;
+import entity.Medications.ReplenishmentRequest;
+
+import java.util.List;
+
+/**
+ * Stores the medication inventory and the replenishment requests made against it.
+ */
+public interface InventoryStore {
+
+    /**
+     * Loads every medication in the inventory.
+     *
+     * @return a list of medications
+     */
+    List<Medication> loadMedications();
+
+    /**
+     * Replaces the stored medications.
+     *
+     * @param medications every medication in the inventory
+     */
+    void saveMedications(List<Medication> medications);
+
+    /**
+     * Loads every replenishment request.
+     *
+     * @return a list of replenishment requests
+     */
+    List<ReplenishmentRequest> loadReplenishmentRequests();
+
+    /**
+     * Replaces the stored replenishment requests.
+     *
+     * @param requests every replenishment request
+     */
+    void saveReplenishmentRequests(List<ReplenishmentRequest> requests);
+}
@@ -0,0 +1,52 @@
+package util.storage;
+
+import entity.Records.MedicalRecord;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stores medical records together with their diagnoses and treatments.
+ *
+ * The basic patient details, the diagnoses and the treatments are saved separately, so a
+ * change to one of them does not rewrite the others.
+ */
+public interface MedicalRecordStore {
+
+    /**
+     * Loads every medical record, with its diagnoses and treatments attached.
+     *
+     * @return a map of patient IDs to medical records
+     */
+    Map<String, MedicalRecord> load();
+
+    /**
+     * Replaces the stored patient details of the medical records.
+     *
+     * @param records every medical record
+     */
+    void saveRecords(Collection<MedicalRecord> records);
+
+    /**
+     * Replaces the stored diagnoses with those of the given records.
+     *
+     * @param records every medical record
+     */
+    void saveDiagnoses(Collection<MedicalRecord> records);
+
+    /**
+     * Replaces the stored treatments with those of the given records.
+     *
+     * @param records every medical record
+     */
+    void saveTreatments(Collection<MedicalRecord> records);
+
+    /**
+     * Records the current medical records so the next start can load them without parsing.
+     * Does nothing unless the store keeps a snapshot.
+     *
+     * @param records every medical record
+     */
+    default void checkpoint(Collection<MedicalRecord> records) {
+    }
+}
@@ -0,0 +1,156 @@
+package util.storage;
+
+import entity.Appointments.Appointment;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * What a stored month of appointments holds, without the appointments themselves: their IDs,
+ * and how many belong to each patient, each doctor and each status.
+ *
+ * A summary is kept next to each monthly partition, so the owner can tell which months a query
+ * needs, or which month holds an appointment, without reading the others.
+ */
+public class MonthSummary {
+
+    private final YearMonth month;                                          // Month summarized
+    private final Set<String> appointmentIds;                               // IDs of the month's appointments
+    private final Map<String, Integer> countsByPatient;                     // patientId -> count
+    private final Map<String, Integer> countsByDoctor;                      // doctorId -> count
+    private final Map<Appointment.AppointmentStatus, Integer> countsByStatus; // status -> count
+
+    /**
+     * Constructs a summary from its stored parts.
+     *
+     * @param month           the month summarized
+     * @param appointmentIds  the IDs of the month's appointments
+     * @param countsByPatient the number of appointments of each patient
+     * @param countsByDoctor  the number of appointments of each doctor
+     * @param countsByStatus  the number of appointments with each status
+     */
+    public MonthSummary(YearMonth month, Set<String> appointmentIds, Map<String, Integer> countsByPatient,
+                        Map<String, Integer> countsByDoctor,
+                        Map<Appointment.AppointmentStatus, Integer> countsByStatus) {
+        this.month = month;
+        this.appointmentIds = Collections.unmodifiableSet(appointmentIds);
+        this.countsByPatient = Collections.unmodifiableMap(countsByPatient);
+        this.countsByDoctor = Collections.unmodifiableMap(countsByDoctor);
+        this.countsByStatus = Collections.unmodifiableMap(countsByStatus);
+    }
+
+    /**
+     * Summarizes the appointments of a month.
+     *
+     * @param month        the month
+     * @param appointments every appointment scheduled in that month
+     * @return the summary
+     */
+    public static MonthSummary of(YearMonth month, Collection<Appointment> appointments) {
+        Set<String> appointmentIds = new HashSet<>();
+        Map<String, Integer> countsByPatient = new HashMap<>();
+        Map<String, Integer> countsByDoctor = new HashMap<>();
+        Map<Appointment.AppointmentStatus, Integer> countsByStatus = new EnumMap<>(Appointment.AppointmentStatus.class);
+        for (Appointment appointment : appointments) {
+            appointmentIds.add(appointment.getAppointmentId());
+            countsByPatient.merge(appointment.getPatientId(), 1, Integer::sum);
+            countsByDoctor.merge(appointment.getDoctorId(), 1, Integer::sum);
+            countsByStatus.merge(appointment.getStatus(), 1, Integer::sum);
+        }
+        return new MonthSummary(month, appointmentIds, countsByPatient, countsByDoctor, countsByStatus);
+    }
+
+    /**
+     * Gets the month summarized.
+     *
+     * @return the month
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Gets the number of appointments in the month.
+     *
+     * @return the number of appointments
+     */
+    public int getCount() {
+        return appointmentIds.size();
+    }
+
+    /**
+     * Checks whether the month holds an appointment.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return {@code true} if the appointment is stored in this month
+     */
+    public boolean containsAppointment(String appointmentId) {
+        return appointmentIds.contains(appointmentId);
+    }
+
+    /**
+     * Checks whether the month holds any appointment of a patient.
+     *
+     * @param patientId the ID of the patient
+     * @return {@code true} if the patient has an appointment in this month
+     */
+    public boolean hasPatient(String patientId) {
+        return countsByPatient.containsKey(patientId);
+    }
+
+    /**
+     * Checks whether the month holds any appointment of a doctor.
+     *
+     * @param doctorId the ID of the doctor
+     * @return {@code true} if the doctor has an appointment in this month
+     */
+    public boolean hasDoctor(String doctorId) {
+        return countsByDoctor.containsKey(doctorId);
+    }
+
+    /**
+     * Checks whether the month holds any appointment with a status.
+     *
+     * @param status the status
+     * @return {@code true} if an appointment in this month has the status
+     */
+    public boolean hasStatus(Appointment.AppointmentStatus status) {
+        return countsByStatus.containsKey(status);
+    }
+
+    /**
+     * Gets the IDs of the month's appointments.
+     *
+     * @return the appointment IDs
+     */
+    public Set<String> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    /**
+     * Gets the number of appointments of each patient.
+     *
+     * @return a map of patient IDs to counts
+     */
+    public Map<String, Integer> getCountsByPatient() {
+        return countsByPatient;
+    }
+
+    /**
+     * Gets the number of appointments of each doctor.
+     *
+     * @return a map of doctor IDs to counts
+     */
+    public Map<String, Integer> getCountsByDoctor() {
+        return countsByDoctor;
+    }
+
+    /**
+     * Gets the number of appointments with each status.
+     *
+     * @return a map of statuses to counts
+     */
+    public Map<Appointment.AppointmentStatus, Integer> getCountsByStatus() {
+        return countsByStatus;
+    }
+}
@@ -0,0 +1,45 @@
+package util.storage;
+
+import entity.Appointments.AppointmentOutcomeRecord;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stores appointment outcome records together with their prescriptions.
+ *
+ * The records and the prescriptions are saved separately, so a change to a prescription's
+ * status does not rewrite the records.
+ */
+public interface OutcomeRecordStore {
+
+    /**
+     * Loads every outcome record, with its prescriptions attached.
+     *
+     * @return a map of appointment IDs to outcome records
+     */
+    Map<String, AppointmentOutcomeRecord> load();
+
+    /**
+     * Replaces the stored outcome records, without their prescriptions.
+     *
+     * @param records every outcome record
+     */
+    void saveOutcomeRecords(Collection<AppointmentOutcomeRecord> records);
+
+    /**
+     * Replaces the stored prescriptions with those of the given records.
+     *
+     * @param records every outcome record
+     */
+    void savePrescriptions(Collection<AppointmentOutcomeRecord> records);
+
+    /**
+     * Records the current outcome records so the next start can load them without parsing.
+     * Does nothing unless the store keeps a snapshot.
+     *
+     * @param records every outcome record
+     */
+    default void checkpoint(Collection<AppointmentOutcomeRecord> records) {
+    }
+}
@@ -0,0 +1,134 @@
+package util.storage;
+
+/**
+ * Chooses the storage backend shared by all managers.
+ *
+ * The backend is read once from the {@code hms.storage} system property: {@code memory} keeps
+ * all data in memory only, which suits benchmarks and experiments; anything else, including
+ * no value, uses the CSV files under {@code data/}. Managers ask this class for the store of
+ * their aggregate instead of opening files themselves, so a new backend only has to implement
+ * the store interfaces.
+ *
+ * The CSV backend also keeps a {@link BinarySnapshot} of the parsed files, which its stores load
+ * in preference to the CSV files while it is up to date. The managers record their state with the
+ * {@code checkpoint} methods of their stores, and {@link #writeSnapshot} then writes it out.
+ *
+ * The CSV backend replaces files atomically (see {@link AtomicFiles}); before its stores load
+ * anything, temporary files left in {@code data/} by interrupted writes are removed.
+ */
+public class Storage {
+
+    private static final String STORAGE_PROPERTY = "hms.storage"; // Set to "memory" to keep all data in memory
+    private static final String DATA_DIRECTORY = "data"; // Directory holding the CSV files
+    private static final String SNAPSHOT_FILE = "data/snapshot.bin"; // Binary copy of the CSV files for fast startup
+    private static Storage instance;
+
+    private final UserStore userStore;                   // Staff and patients
+    private final InventoryStore inventoryStore;         // Medications and replenishment requests
+    private final CredentialStore credentialStore;       // User credentials
+    private final MedicalRecordStore medicalRecordStore; // Medical records, diagnoses and treatments
+    private final OutcomeRecordStore outcomeRecordStore; // Appointment outcomes and prescriptions
+    private final AppointmentStore appointmentStore;     // Appointments, slots, templates, waitlist and journal
+    private final BinarySnapshot snapshot;               // Snapshot of the CSV files, or null for other backends
+
+    /**
+     * Private constructor for singleton implementation. Creates the stores of the selected backend.
+     */
+    private Storage() {
+        if ("memory".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY))) {
+            userStore = new InMemoryUserStore();
+            inventoryStore = new InMemoryInventoryStore();
+            credentialStore = new InMemoryCredentialStore();
+            medicalRecordStore = new InMemoryMedicalRecordStore();
+            outcomeRecordStore = new InMemoryOutcomeRecordStore();
+            appointmentStore = new InMemoryAppointmentStore();
+            snapshot = null;
+        } else {
+            AtomicFiles.recover(DATA_DIRECTORY);
+            snapshot = new BinarySnapshot(SNAPSHOT_FILE);
+            userStore = new CsvUserStore(snapshot);
+            inventoryStore = new CsvInventoryStore();
+            credentialStore = new CsvCredentialStore(snapshot);
+            medicalRecordStore = new CsvMedicalRecordStore(snapshot);
+            outcomeRecordStore = new CsvOutcomeRecordStore(snapshot);
+            appointmentStore = new CsvAppointmentStore(snapshot);
+        }
+    }
+
+    /**
+     * Retrieves the singleton instance of the storage backend.
+     *
+     * @return the instance of Storage
+     */
+    public static synchronized Storage getInstance() {
+        if (instance == null) {
+            instance = new Storage();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the store for staff and patients.
+     *
+     * @return the user store
+     */
+    public UserStore getUserStore() {
+        return userStore;
+    }
+
+    /**
+     * Gets the store for the medication inventory.
+     *
+     * @return the inventory store
+     */
+    public InventoryStore getInventoryStore() {
+        return inventoryStore;
+    }
+
+    /**
+     * Gets the store for user credentials.
+     *
+     * @return the credential store
+     */
+    public CredentialStore getCredentialStore() {
+        return credentialStore;
+    }
+
+    /**
+     * Gets the store for medical records.
+     *
+     * @return the medical record store
+     */
+    public MedicalRecordStore getMedicalRecordStore() {
+        return medicalRecordStore;
+    }
+
+    /**
+     * Gets the store for appointment outcome records.
+     *
+     * @return the outcome record store
+     */
+    public OutcomeRecordStore getOutcomeRecordStore() {
+        return outcomeRecordStore;
+    }
+
+    /**
+     * Gets the store for appointment data.
+     *
+     * @return the appointment store
+     */
+    public AppointmentStore getAppointmentStore() {
+        return appointmentStore;
+    }
+
+    /**
+     * Writes the snapshot of everything recorded through the stores' {@code checkpoint} methods,
+     * carrying over earlier sections whose files have not changed since.
+     * Does nothing for backends without a snapshot.
+     *
+     * @return {@code true} if the snapshot was written or there is none, {@code false} otherwise
+     */
+    public boolean writeSnapshot() {
+        return snapshot == null || snapshot.write();
+    }
+}
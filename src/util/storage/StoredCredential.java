@@ -0,0 +1,52 @@
+package util.storage;
+
+/**
+ * The stored form of a user's credentials: the password hash and whether the user
+ * still has to change the initial password.
+ */
+public class StoredCredential {
+
+    private final String userId;       // ID of the user
+    private final String passwordHash; // Hex-encoded SHA-256 hash of the password
+    private final boolean firstLogin;  // Whether the user has not logged in yet
+
+    /**
+     * Constructs a new StoredCredential instance.
+     *
+     * @param userId       the ID of the user
+     * @param passwordHash the hash of the user's password
+     * @param firstLogin   {@code true} if the user has not logged in yet
+     */
+    public StoredCredential(String userId, String passwordHash, boolean firstLogin) {
+        this.userId = userId;
+        this.passwordHash = passwordHash;
+        this.firstLogin = firstLogin;
+    }
+
+    /**
+     * Gets the ID of the user.
+     *
+     * @return the user ID
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the hash of the user's password.
+     *
+     * @return the password hash
+     */
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    /**
+     * Checks whether the user has not logged in yet.
+     *
+     * @return {@code true} if this is the user's first login
+     */
+    public boolean isFirstLogin() {
+        return firstLogin;
+    }
+}
@@ -0,0 +1,45 @@
+package util.storage;
+
+import entity.users.User;
+
+import java.util.Map;
+
+/**
+ * Stores staff members and patients.
+ *
+ * Implementations only read and write data; the in-memory copies are owned by the callers,
+ * such as {@link util.StaffManager}.
+ */
+public interface UserStore {
+
+    /**
+     * Loads every staff member.
+     *
+     * @return a map of staff IDs to users
+     */
+    Map<String, User> loadStaff();
+
+    /**
+     * Loads every patient.
+     *
+     * @return a map of patient IDs to users
+     */
+    Map<String, User> loadPatients();
+
+    /**
+     * Replaces the stored staff members.
+     *
+     * @param staff a map of staff IDs to users
+     */
+    void saveStaff(Map<String, User> staff);
+
+    /**
+     * Records the current staff and patients so the next start can load them without parsing.
+     * Does nothing unless the store keeps a snapshot.
+     *
+     * @param staff    every staff member, keyed by staff ID
+     * @param patients every patient, keyed by patient ID
+     */
+    default void checkpoint(Map<String, User> staff, Map<String, User> patients) {
+    }
+}